@@ -17,21 +17,25 @@ package com.tngtech.archunit.core.importer;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.module.ModuleFinder;
 import java.lang.module.ModuleReader;
 import java.lang.module.ModuleReference;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toMap;
 
 class ModuleLocationFactory implements Location.Factory {
     @Override
@@ -44,31 +48,37 @@ class ModuleLocationFactory implements Location.Factory {
         return new ModuleLocation(NormalizedUri.from(uri));
     }
 
-    private static <T> T doWithModuleReader(ModuleReference moduleReference, ModuleReaderProcessor<T> readerProcessor) {
-        try (ModuleReader moduleReader = moduleReference.open()) {
-            return readerProcessor.process(moduleReader);
-        } catch (IOException e) {
-            String message = String.format("Unexpected error while processing module %s", moduleReference);
-            throw new RuntimeException(message, e);
-        }
+    /**
+     * Classes resolved from the JDK are read one by one, so they are read via the {@link IndexedModule} shared by the whole JVM
+     * as well, instead of a new {@code jrt:/} URL connection for every single class file.
+     */
+    @Override
+    public InputStream openStream(URI uri) throws IOException {
+        // the path of a jrt:/ URI is /$moduleName/$entryName
+        String path = uri.getPath();
+        int endOfModuleName = path.indexOf('/', 1);
+        Optional<IndexedModule> module = endOfModuleName > 0 ? SystemModules.find(path.substring(1, endOfModuleName)) : Optional.empty();
+        return module.isPresent()
+                ? module.get().open(path.substring(endOfModuleName + 1))
+                : uri.toURL().openStream();
     }
 
     private static class ModuleLocation extends Location {
         private static final String SCHEME = "jrt";
 
-        private final ModuleReference moduleReference;
+        private final IndexedModule module;
         private final NormalizedResourceName resourceName;
 
         ModuleLocation(NormalizedUri uri) {
             super(uri);
             checkScheme(SCHEME, uri);
-            this.moduleReference = findModuleReference(uri);
+            this.module = findModule(uri);
             this.resourceName = parseResourceName(uri);
         }
 
-        ModuleLocation(ModuleReference moduleReference, NormalizedResourceName resourceName) {
-            super(createUri(moduleReference, resourceName));
-            this.moduleReference = moduleReference;
+        ModuleLocation(IndexedModule module, NormalizedResourceName resourceName) {
+            super(createUri(module.reference, resourceName));
+            this.module = module;
             this.resourceName = resourceName;
         }
 
@@ -79,11 +89,10 @@ class ModuleLocationFactory implements Location.Factory {
             return NormalizedUri.from(moduleReference.location().get() + resourceName.toAbsolutePath());
         }
 
-        private ModuleReference findModuleReference(NormalizedUri uri) {
+        private IndexedModule findModule(NormalizedUri uri) {
             String moduleName = uri.getFirstSegment();
-            Optional<ModuleReference> moduleReference = ModuleFinder.ofSystem().find(moduleName);
-            checkState(moduleReference.isPresent(), "Couldn't find module %s of URI %s", moduleName, uri);
-            return moduleReference.get();
+            return SystemModules.find(moduleName).orElseThrow(() ->
+                    new IllegalStateException(String.format("Couldn't find module %s of URI %s", moduleName, uri)));
         }
 
         private NormalizedResourceName parseResourceName(NormalizedUri uri) {
@@ -102,10 +111,9 @@ class ModuleLocationFactory implements Location.Factory {
 
         @Override
         Collection<NormalizedResourceName> readResourceEntries() {
-            return doWithModuleReader(moduleReference, moduleReader -> moduleReader.list()
-                    .filter(resourceName::isStartOf)
+            return module.entriesStartingWith(resourceName)
                     .map(NormalizedResourceName::from)
-                    .collect(toList()));
+                    .collect(toList());
         }
 
         @Override
@@ -113,31 +121,95 @@ class ModuleLocationFactory implements Location.Factory {
             if (!importOptions.include(this)) {
                 return Collections::emptyListIterator;
             }
-            return new ModuleClassFileSource(moduleReference, resourceName, importOptions);
+            return new ModuleClassFileSource(module, resourceName, importOptions);
+        }
+    }
+
+    /**
+     * The system modules are part of the runtime image, which can't change while the JVM is running.
+     * Thus, we look up every module and list its entries only once per JVM, no matter how often
+     * locations within the module are imported or classes are resolved from it.
+     */
+    private static class SystemModules {
+        private static final Map<String, ModuleReference> REFERENCES_BY_NAME = ModuleFinder.ofSystem().findAll().stream()
+                .filter(reference -> reference.location().isPresent())
+                .collect(toMap(reference -> reference.descriptor().name(), Function.identity()));
+        private static final Map<String, IndexedModule> INDEXED_MODULES = new ConcurrentHashMap<>();
+
+        static Optional<IndexedModule> find(String moduleName) {
+            ModuleReference reference = REFERENCES_BY_NAME.get(moduleName);
+            return reference != null
+                    ? Optional.of(INDEXED_MODULES.computeIfAbsent(moduleName, name -> IndexedModule.of(reference)))
+                    : Optional.empty();
+        }
+    }
+
+    /**
+     * Holds the sorted entries of a module, so all entries beneath some package can be found by a binary search,
+     * instead of walking the whole module again. The module is read by a single {@link ModuleReader} that stays open,
+     * instead of opening a new reader for every single class file. The reader of a system module is backed
+     * by the shared reader of the runtime image, which the JDK itself uses concurrently (e.g. for {@code jrt:/} URLs),
+     * so class files can be read in parallel by all import threads.
+     */
+    private static class IndexedModule {
+        private final ModuleReference reference;
+        private final ModuleReader reader;
+        private final String[] sortedEntries;
+
+        private IndexedModule(ModuleReference reference, ModuleReader reader, String[] sortedEntries) {
+            this.reference = reference;
+            this.reader = reader;
+            this.sortedEntries = sortedEntries;
+        }
+
+        static IndexedModule of(ModuleReference reference) {
+            try {
+                ModuleReader reader = reference.open();
+                String[] entries;
+                try (Stream<String> list = reader.list()) {
+                    entries = list.sorted().toArray(String[]::new);
+                }
+                return new IndexedModule(reference, reader, entries);
+            } catch (IOException e) {
+                String message = String.format("Unexpected error while processing module %s", reference);
+                throw new RuntimeException(message, e);
+            }
+        }
+
+        Stream<String> entriesStartingWith(NormalizedResourceName resourceName) {
+            String prefix = resourceName.toString();
+            int insertionPoint = Arrays.binarySearch(sortedEntries, prefix);
+            int start = insertionPoint >= 0 ? insertionPoint : -insertionPoint - 1;
+            int end = start;
+            while (end < sortedEntries.length && sortedEntries[end].startsWith(prefix)) {
+                end++;
+            }
+            return Arrays.stream(sortedEntries, start, end);
+        }
+
+        InputStream open(String entry) {
+            try {
+                return reader.open(entry).orElseThrow(() -> new IllegalStateException(
+                        String.format("Entry %s of module %s could not be opened. This is most likely a bug.", entry, reference)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
 
     private static class ModuleClassFileSource implements ClassFileSource {
-        private final Stream<ClassFileLocation> locations;
+        private final List<ClassFileLocation> locations;
 
         ModuleClassFileSource(
-                ModuleReference moduleReference,
+                IndexedModule module,
                 NormalizedResourceName resourceName,
                 ImportOptions importOptions) {
 
-            Set<String> entries = loadEntries(moduleReference, resourceName);
-            locations = entries.stream()
-                    .map(entry -> new ModuleClassFileLocation(moduleReference, entry))
-                    .filter(classFileLocation -> classFileLocation.isIncludedBy(importOptions))
-                    .map(Function.identity()); // thanks Java type system :-(
-        }
-
-        private Set<String> loadEntries(ModuleReference moduleReference, NormalizedResourceName resourceName) {
-            return doWithModuleReader(moduleReference, moduleReader -> moduleReader.list()
-                    .filter(resourceName::isStartOf)
+            locations = module.entriesStartingWith(resourceName)
                     .filter(FileToImport::isRelevant)
-                    .map(entry -> "/" + entry)
-                    .collect(toSet()));
+                    .map(entry -> new ModuleClassFileLocation(module, "/" + entry))
+                    .filter(classFileLocation -> classFileLocation.isIncludedBy(importOptions))
+                    .collect(toList());
         }
 
         @Override
@@ -147,25 +219,19 @@ class ModuleLocationFactory implements Location.Factory {
     }
 
     private static class ModuleClassFileLocation implements ClassFileLocation {
-        private final ModuleReference moduleReference;
+        private final IndexedModule module;
         private final NormalizedResourceName entry;
         private final ModuleLocation location;
 
-        ModuleClassFileLocation(ModuleReference moduleReference, String entry) {
-            this(moduleReference, NormalizedResourceName.from(entry));
-        }
-
-        ModuleClassFileLocation(ModuleReference moduleReference, NormalizedResourceName entry) {
-            this.moduleReference = moduleReference;
-            this.entry = entry;
-            location = new ModuleLocation(moduleReference, entry);
+        ModuleClassFileLocation(IndexedModule module, String entry) {
+            this.module = module;
+            this.entry = NormalizedResourceName.from(entry);
+            location = new ModuleLocation(module, this.entry);
         }
 
         @Override
         public InputStream openStream() {
-            return doWithModuleReader(moduleReference, moduleReader ->
-                    moduleReader.open(entry.toString()).orElseThrow(() -> new IllegalStateException(
-                            String.format("Entry %s parsed from JRT location %s could not be opened. This is most likely a bug.", entry, location))));
+            return module.open(entry.toString());
         }
 
         @Override
@@ -182,9 +248,4 @@ class ModuleLocationFactory implements Location.Factory {
             return getClass().getSimpleName() + "{uri=" + getUri() + '}';
         }
     }
-
-    @FunctionalInterface
-    private interface ModuleReaderProcessor<T> {
-        T process(ModuleReader reader) throws IOException;
-    }
 }
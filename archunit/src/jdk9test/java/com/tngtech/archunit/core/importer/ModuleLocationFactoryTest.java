@@ -2,18 +2,24 @@ package com.tngtech.archunit.core.importer;
 
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.module.ModuleFinder;
 import java.lang.module.ModuleReference;
 import java.net.URI;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.junit.Test;
 
+import static com.google.common.io.ByteStreams.toByteArray;
 import static com.tngtech.archunit.core.importer.ClassFileSourceTest.MODULE_INFO_FILE_NAME;
 import static com.tngtech.archunit.testutil.TestUtils.uriOf;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ModuleLocationFactoryTest {
@@ -74,6 +80,44 @@ public class ModuleLocationFactoryTest {
                 .isFalse();
     }
 
+    @Test
+    public void reads_class_files_concurrently() {
+        Location jrtJavaIo = locationFactory.create(parentOf(uriOf(File.class)));
+
+        List<ClassFileLocation> classFileLocations = StreamSupport.stream(jrtJavaIo.asClassFileSource(new ImportOptions()).spliterator(), false)
+                .collect(toList());
+
+        assertThat(classFileLocations).isNotEmpty();
+        classFileLocations.parallelStream().forEach(classFileLocation ->
+                assertThat(bytesOf(classFileLocation.openStream()))
+                        .as("bytes of " + classFileLocation.getUri())
+                        .isEqualTo(bytesOf(openViaUrl(classFileLocation.getUri()))));
+    }
+
+    @Test
+    public void opens_single_class_file_resolved_from_jrt() throws IOException {
+        URI jrtJavaIoFile = uriOf(File.class);
+
+        assertThat(bytesOf(locationFactory.openStream(jrtJavaIoFile))).isEqualTo(bytesOf(openViaUrl(jrtJavaIoFile)));
+        assertThat(bytesOf(Location.openStream(jrtJavaIoFile))).isEqualTo(bytesOf(openViaUrl(jrtJavaIoFile)));
+    }
+
+    private static InputStream openViaUrl(URI uri) {
+        try {
+            return uri.toURL().openStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] bytesOf(InputStream inputStream) {
+        try (InputStream in = inputStream) {
+            return toByteArray(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @SuppressWarnings("SameParameterValue")
     private URI createModuleUriContaining(Class<?> clazz) {
         URI someJrt = uriOf(clazz);
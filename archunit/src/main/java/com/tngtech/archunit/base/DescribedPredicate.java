@@ -299,8 +299,8 @@ public abstract class DescribedPredicate<T> implements Predicate<T> {
         }
     };
 
-    private static class AsPredicate<T> extends DescribedPredicate<T> {
-        private final DescribedPredicate<T> current;
+    static class AsPredicate<T> extends DescribedPredicate<T> {
+        final DescribedPredicate<T> current;
 
         AsPredicate(DescribedPredicate<T> current, String description, Object... params) {
             super(description, params);
@@ -313,9 +313,9 @@ public abstract class DescribedPredicate<T> implements Predicate<T> {
         }
     }
 
-    private static class AndPredicate<T> extends DescribedPredicate<T> {
-        private final DescribedPredicate<T> current;
-        private final DescribedPredicate<? super T> other;
+    static class AndPredicate<T> extends DescribedPredicate<T> {
+        final DescribedPredicate<T> current;
+        final DescribedPredicate<? super T> other;
 
         AndPredicate(DescribedPredicate<T> current, DescribedPredicate<? super T> other) {
             super(current.getDescription() + " and " + other.getDescription());
@@ -329,9 +329,9 @@ public abstract class DescribedPredicate<T> implements Predicate<T> {
         }
     }
 
-    private static class OrPredicate<T> extends DescribedPredicate<T> {
-        private final DescribedPredicate<T> current;
-        private final DescribedPredicate<? super T> other;
+    static class OrPredicate<T> extends DescribedPredicate<T> {
+        final DescribedPredicate<T> current;
+        final DescribedPredicate<? super T> other;
 
         OrPredicate(DescribedPredicate<T> current, DescribedPredicate<? super T> other) {
             super(current.getDescription() + " or " + other.getDescription());
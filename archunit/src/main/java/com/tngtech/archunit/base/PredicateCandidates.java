@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.base;
+
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import com.tngtech.archunit.Internal;
+import com.tngtech.archunit.base.DescribedPredicate.AndPredicate;
+import com.tngtech.archunit.base.DescribedPredicate.AsPredicate;
+import com.tngtech.archunit.base.DescribedPredicate.OrPredicate;
+
+/**
+ * Narrows down the objects that can possibly match a {@link DescribedPredicate} by means of some index,
+ * so not every single object has to be tested. Predicates joined by {@link DescribedPredicate#and(DescribedPredicate) and(..)}
+ * or {@link DescribedPredicate#or(DescribedPredicate) or(..)}, as well as predicates with a changed
+ * {@link DescribedPredicate#as(String, Object...) description}, are traversed, any other predicate is passed to the index.
+ * <br><br>
+ * The candidates are a superset of the matching objects, i.e. each candidate must still be tested against the predicate.
+ */
+@Internal
+public final class PredicateCandidates {
+    private PredicateCandidates() {
+    }
+
+    /**
+     * @param predicate the predicate to find candidates for
+     * @param findCandidatesOfIndexedPredicate finds the candidates of a single predicate that is not composed of other predicates,
+     *                                         or returns {@link Optional#empty()} if the index does not know this predicate
+     * @param intersection combines the candidates of predicates joined by <i>and</i>
+     * @param union combines the candidates of predicates joined by <i>or</i>
+     * @param <C> the type of the candidates
+     * @return the candidates possibly matching the predicate, or {@link Optional#empty()} if all objects are candidates
+     */
+    public static <C> Optional<C> find(
+            DescribedPredicate<?> predicate,
+            Function<? super DescribedPredicate<?>, Optional<C>> findCandidatesOfIndexedPredicate,
+            BinaryOperator<C> intersection,
+            BinaryOperator<C> union) {
+
+        if (predicate instanceof AsPredicate) {
+            return find(((AsPredicate<?>) predicate).current, findCandidatesOfIndexedPredicate, intersection, union);
+        }
+        if (predicate instanceof AndPredicate) {
+            Optional<C> first = find(((AndPredicate<?>) predicate).current, findCandidatesOfIndexedPredicate, intersection, union);
+            Optional<C> second = find(((AndPredicate<?>) predicate).other, findCandidatesOfIndexedPredicate, intersection, union);
+            return first.isPresent() && second.isPresent()
+                    ? Optional.of(intersection.apply(first.get(), second.get()))
+                    : first.isPresent() ? first : second;
+        }
+        if (predicate instanceof OrPredicate) {
+            Optional<C> first = find(((OrPredicate<?>) predicate).current, findCandidatesOfIndexedPredicate, intersection, union);
+            Optional<C> second = find(((OrPredicate<?>) predicate).other, findCandidatesOfIndexedPredicate, intersection, union);
+            return first.isPresent() && second.isPresent()
+                    ? Optional.of(union.apply(first.get(), second.get()))
+                    : Optional.empty();
+        }
+        return findCandidatesOfIndexedPredicate.apply(predicate);
+    }
+}
@@ -21,7 +21,8 @@ import static com.google.common.base.Preconditions.checkState;
 
 @Internal
 public class InitialConfiguration<T> {
-    private T value;
+    // read by every Location created, possibly by many concurrent imports, so reading must not lock
+    private volatile T value;
 
     public synchronized void set(T object) {
         checkState(this.value == null, String.format(
@@ -30,9 +31,10 @@ public class InitialConfiguration<T> {
         this.value = object;
     }
 
-    public synchronized T get() {
-        checkState(value != null, "No value was ever set");
+    public T get() {
+        T result = value;
+        checkState(result != null, "No value was ever set");
 
-        return value;
+        return result;
     }
 }
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import com.tngtech.archunit.Internal;
@@ -68,6 +69,12 @@ public class DomainObjectCreationContext {
         return JavaClasses.of(selectedClasses, allClasses, importContext);
     }
 
+    public static JavaClasses createJavaClasses(
+            Map<String, JavaClass> selectedClasses, Collection<JavaClass> allClasses, ImportContext importContext, Executor executor, int numberOfChunks) {
+
+        return JavaClasses.of(selectedClasses, allClasses, importContext, executor, numberOfChunks);
+    }
+
     public static JavaClass createJavaClass(JavaClassBuilder builder) {
         return new JavaClass(builder);
     }
@@ -172,6 +179,10 @@ public class DomainObjectCreationContext {
         return new Source(uri, sourceFileName, md5InClassSourcesEnabled);
     }
 
+    public static Source createSource(URI uri, Optional<String> sourceFileName, byte[] md5Bytes) {
+        return new Source(uri, sourceFileName, md5Bytes);
+    }
+
     public static ReferencedClassObject createReferencedClassObject(JavaCodeUnit codeUnit, JavaClass javaClass, int lineNumber) {
         return ReferencedClassObject.from(codeUnit, javaClass, lineNumber);
     }
@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import com.tngtech.archunit.Internal;
 import com.tngtech.archunit.core.importer.DomainBuilders.TryCatchBlockBuilder;
@@ -43,6 +44,12 @@ public interface ImportContext {
 
     Optional<JavaStaticInitializer> createStaticInitializer(JavaClass owner);
 
+    /**
+     * @return A {@link Supplier} of an {@link ImportContext} to create the members of the owner from,
+     *         if the import of the members of the owner has been deferred until they are first accessed
+     */
+    Optional<Supplier<ImportContext>> createDeferredMembersContext(JavaClass owner);
+
     Map<String, JavaAnnotation<JavaClass>> createAnnotations(JavaClass owner);
 
     Map<String, JavaAnnotation<JavaMember>> createAnnotations(JavaMember owner);
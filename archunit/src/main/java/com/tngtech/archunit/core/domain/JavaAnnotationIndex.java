@@ -0,0 +1,156 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.domain;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import com.tngtech.archunit.PublicAPI;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+/**
+ * An index from annotation types to the classes, members and parameters of some {@link JavaClasses}
+ * that are (meta-)annotated with them. Thus, looking up all elements meta-annotated with a certain type
+ * does not need to walk all classes and recurse through the annotations of every single element.
+ * <br><br>
+ * The meta-annotation types of each annotation type are only determined once per {@link JavaClasses}.
+ * Classes are looked up via the same class-level index that is used to select classes by their annotations,
+ * only members and parameters are indexed in addition.
+ * In line with {@link JavaClass#isMetaAnnotatedWith(String)} every element that is annotated with some type
+ * is also considered meta-annotated with this type.
+ * <br><br>
+ * All returned sets keep the order of the classes and their members within the {@link JavaClasses}.
+ */
+@PublicAPI(usage = ACCESS)
+public final class JavaAnnotationIndex {
+    private final JavaClassesIndex classesIndex;
+    private final ImmutableSetMultimap<String, JavaMember> membersByAnnotationTypeName;
+    private final ImmutableSetMultimap<String, JavaMember> membersByMetaAnnotationTypeName;
+    private final ImmutableSetMultimap<String, JavaParameter> parametersByAnnotationTypeName;
+    private final ImmutableSetMultimap<String, JavaParameter> parametersByMetaAnnotationTypeName;
+
+    JavaAnnotationIndex(JavaClassesIndex classesIndex) {
+        this.classesIndex = classesIndex;
+        ElementsByAnnotationType<JavaMember> membersByAnnotationType = new ElementsByAnnotationType<>(classesIndex.getMetaAnnotationTypeNames());
+        ElementsByAnnotationType<JavaParameter> parametersByAnnotationType = new ElementsByAnnotationType<>(classesIndex.getMetaAnnotationTypeNames());
+        for (JavaClass javaClass : classesIndex.getClasses()) {
+            for (JavaMember member : javaClass.getMembers()) {
+                membersByAnnotationType.add(member, member.getAnnotations());
+            }
+            for (JavaCodeUnit codeUnit : javaClass.getCodeUnits()) {
+                for (JavaParameter parameter : codeUnit.getParameters()) {
+                    parametersByAnnotationType.add(parameter, parameter.getAnnotations());
+                }
+            }
+        }
+        membersByAnnotationTypeName = membersByAnnotationType.annotated.build();
+        membersByMetaAnnotationTypeName = membersByAnnotationType.metaAnnotated.build();
+        parametersByAnnotationTypeName = parametersByAnnotationType.annotated.build();
+        parametersByMetaAnnotationTypeName = parametersByAnnotationType.metaAnnotated.build();
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaClass> getClassesAnnotatedWith(Class<? extends Annotation> annotationType) {
+        return getClassesAnnotatedWith(annotationType.getName());
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaClass> getClassesAnnotatedWith(String annotationTypeName) {
+        return classesIndex.getClasses(classesIndex.getClassesAnnotatedWith(annotationTypeName)).collect(toImmutableSet());
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaClass> getClassesMetaAnnotatedWith(Class<? extends Annotation> annotationType) {
+        return getClassesMetaAnnotatedWith(annotationType.getName());
+    }
+
+    /**
+     * @return all classes that are {@link JavaClass#isMetaAnnotatedWith(String) meta-annotated} with the given annotation type
+     */
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaClass> getClassesMetaAnnotatedWith(String annotationTypeName) {
+        return classesIndex.getClasses(classesIndex.getClassesMetaAnnotatedWith(annotationTypeName)).collect(toImmutableSet());
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaMember> getMembersAnnotatedWith(Class<? extends Annotation> annotationType) {
+        return getMembersAnnotatedWith(annotationType.getName());
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaMember> getMembersAnnotatedWith(String annotationTypeName) {
+        return membersByAnnotationTypeName.get(annotationTypeName);
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaMember> getMembersMetaAnnotatedWith(Class<? extends Annotation> annotationType) {
+        return getMembersMetaAnnotatedWith(annotationType.getName());
+    }
+
+    /**
+     * @return all members that are {@link JavaMember#isMetaAnnotatedWith(String) meta-annotated} with the given annotation type
+     */
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaMember> getMembersMetaAnnotatedWith(String annotationTypeName) {
+        return membersByMetaAnnotationTypeName.get(annotationTypeName);
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaParameter> getParametersAnnotatedWith(Class<? extends Annotation> annotationType) {
+        return getParametersAnnotatedWith(annotationType.getName());
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaParameter> getParametersAnnotatedWith(String annotationTypeName) {
+        return parametersByAnnotationTypeName.get(annotationTypeName);
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaParameter> getParametersMetaAnnotatedWith(Class<? extends Annotation> annotationType) {
+        return getParametersMetaAnnotatedWith(annotationType.getName());
+    }
+
+    /**
+     * @return all parameters that are {@link JavaParameter#isMetaAnnotatedWith(String) meta-annotated} with the given annotation type
+     */
+    @PublicAPI(usage = ACCESS)
+    public Set<JavaParameter> getParametersMetaAnnotatedWith(String annotationTypeName) {
+        return parametersByMetaAnnotationTypeName.get(annotationTypeName);
+    }
+
+    private static class ElementsByAnnotationType<T> {
+        private final MetaAnnotationTypeNames metaAnnotationTypeNames;
+        private final ImmutableSetMultimap.Builder<String, T> annotated = ImmutableSetMultimap.builder();
+        private final ImmutableSetMultimap.Builder<String, T> metaAnnotated = ImmutableSetMultimap.builder();
+
+        ElementsByAnnotationType(MetaAnnotationTypeNames metaAnnotationTypeNames) {
+            this.metaAnnotationTypeNames = metaAnnotationTypeNames;
+        }
+
+        void add(T element, Collection<? extends JavaAnnotation<?>> annotations) {
+            for (JavaAnnotation<?> annotation : annotations) {
+                annotated.put(annotation.getRawType().getName(), element);
+                for (String metaAnnotationTypeName : metaAnnotationTypeNames.of(annotation.getRawType())) {
+                    metaAnnotated.put(metaAnnotationTypeName, element);
+                }
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.tngtech.archunit.core.domain;
 
 import java.lang.annotation.Annotation;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -24,6 +25,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -35,6 +37,7 @@ import com.tngtech.archunit.base.MayResolveTypesViaReflection;
 import com.tngtech.archunit.base.Optionals;
 import com.tngtech.archunit.base.ResolvesTypesViaReflection;
 import com.tngtech.archunit.base.Suppliers;
+import com.tngtech.archunit.core.domain.JavaClassDependencyGraph.DependencyKind;
 import com.tngtech.archunit.core.domain.properties.CanBeAnnotated;
 import com.tngtech.archunit.core.domain.properties.HasAnnotations;
 import com.tngtech.archunit.core.domain.properties.HasModifiers;
@@ -67,6 +70,7 @@ import static com.tngtech.archunit.core.domain.properties.HasType.Functions.GET_
 import static java.util.Arrays.stream;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
 import static java.util.stream.Collectors.toSet;
 
 public class JavaClass
@@ -85,7 +89,8 @@ public class JavaClass
     private final Set<JavaModifier> modifiers;
     private List<JavaTypeVariable<JavaClass>> typeParameters = emptyList();
     private final Supplier<Class<?>> reflectSupplier;
-    private JavaClassMembers members = JavaClassMembers.empty(this);
+    private volatile JavaClassMembers members = JavaClassMembers.empty(this);
+    private volatile Supplier<ImportContext> deferredMembersContext;
     private Superclass superclass = Superclass.ABSENT;
     private final Supplier<List<JavaClass>> allRawSuperclasses = Suppliers.memoize(() -> {
         ImmutableList.Builder<JavaClass> result = ImmutableList.builder();
@@ -126,6 +131,7 @@ public class JavaClass
     private Map<String, JavaAnnotation<JavaClass>> annotations = emptyMap();
     private JavaClassDependencies javaClassDependencies = new JavaClassDependencies(this);  // just for stubs; will be overwritten for imported classes
     private ReverseDependencies reverseDependencies = ReverseDependencies.EMPTY;  // just for stubs; will be overwritten for imported classes
+    private Supplier<JavaClassDependencyGraph> dependencyGraph = () -> JavaClassDependencyGraph.of(singleton(this));  // just for stubs; will be overwritten for imported classes
     private final CompletionProcess completionProcess;
 
     JavaClass(JavaClassBuilder builder) {
@@ -253,7 +259,7 @@ public class JavaClass
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaEnumConstant> getEnumConstants() {
-        return members.getEnumConstants();
+        return members().getEnumConstants();
     }
 
     @PublicAPI(usage = ACCESS)
@@ -641,12 +647,12 @@ public class JavaClass
 
     @PublicAPI(usage = ACCESS)
     public Set<InstanceofCheck> getInstanceofChecks() {
-        return members.getInstanceofChecks();
+        return members().getInstanceofChecks();
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<ReferencedClassObject> getReferencedClassObjects() {
-        return members.getReferencedClassObjects();
+        return members().getReferencedClassObjects();
     }
 
     @Override
@@ -775,22 +781,22 @@ public class JavaClass
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaMember> getMembers() {
-        return members.get();
+        return members().get();
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaMember> getAllMembers() {
-        return members.getAll();
+        return members().getAll();
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaField> getFields() {
-        return members.getFields();
+        return members().getFields();
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaField> getAllFields() {
-        return members.getAllFields();
+        return members().getAllFields();
     }
 
     /**
@@ -799,7 +805,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public JavaField getField(String name) {
-        return members.getField(name);
+        return members().getField(name);
     }
 
     /**
@@ -807,12 +813,12 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Optional<JavaField> tryGetField(String name) {
-        return members.tryGetField(name);
+        return members().tryGetField(name);
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaCodeUnit> getCodeUnits() {
-        return members.getCodeUnits();
+        return members().getCodeUnits();
     }
 
     /**
@@ -857,7 +863,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public JavaCodeUnit getCodeUnitWithParameterTypeNames(String name, List<String> parameters) {
-        return members.getCodeUnitWithParameterTypeNames(name, parameters);
+        return members().getCodeUnitWithParameterTypeNames(name, parameters);
     }
 
     /**
@@ -866,7 +872,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Optional<JavaCodeUnit> tryGetCodeUnitWithParameterTypeNames(String name, List<String> parameters) {
-        return members.tryGetCodeUnitWithParameterTypeNames(name, parameters);
+        return members().tryGetCodeUnitWithParameterTypeNames(name, parameters);
     }
 
     /**
@@ -875,7 +881,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public JavaMethod getMethod(String name) {
-        return members.getMethod(name, Collections.emptyList());
+        return members().getMethod(name, Collections.emptyList());
     }
 
     /**
@@ -884,7 +890,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public JavaMethod getMethod(String name, Class<?>... parameters) {
-        return members.getMethod(name, formatNamesOf(parameters));
+        return members().getMethod(name, formatNamesOf(parameters));
     }
 
     /**
@@ -892,7 +898,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public JavaMethod getMethod(String name, String... parameters) {
-        return members.getMethod(name, ImmutableList.copyOf(parameters));
+        return members().getMethod(name, ImmutableList.copyOf(parameters));
     }
 
     /**
@@ -901,7 +907,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Optional<JavaMethod> tryGetMethod(String name) {
-        return members.tryGetMethod(name, Collections.emptyList());
+        return members().tryGetMethod(name, Collections.emptyList());
     }
 
     /**
@@ -910,7 +916,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Optional<JavaMethod> tryGetMethod(String name, Class<?>... parameters) {
-        return members.tryGetMethod(name, formatNamesOf(parameters));
+        return members().tryGetMethod(name, formatNamesOf(parameters));
     }
 
     /**
@@ -918,17 +924,17 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Optional<JavaMethod> tryGetMethod(String name, String... parameters) {
-        return members.tryGetMethod(name, ImmutableList.copyOf(parameters));
+        return members().tryGetMethod(name, ImmutableList.copyOf(parameters));
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaMethod> getMethods() {
-        return members.getMethods();
+        return members().getMethods();
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaMethod> getAllMethods() {
-        return members.getAllMethods();
+        return members().getAllMethods();
     }
 
     /**
@@ -937,7 +943,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public JavaConstructor getConstructor() {
-        return members.getConstructor(Collections.emptyList());
+        return members().getConstructor(Collections.emptyList());
     }
 
     /**
@@ -951,7 +957,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public JavaConstructor getConstructor(Class<?>... parameters) {
-        return members.getConstructor(formatNamesOf(parameters));
+        return members().getConstructor(formatNamesOf(parameters));
     }
 
     /**
@@ -959,7 +965,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public JavaConstructor getConstructor(String... parameters) {
-        return members.getConstructor(ImmutableList.copyOf(parameters));
+        return members().getConstructor(ImmutableList.copyOf(parameters));
     }
 
     /**
@@ -968,7 +974,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Optional<JavaConstructor> tryGetConstructor() {
-        return members.tryGetConstructor(Collections.emptyList());
+        return members().tryGetConstructor(Collections.emptyList());
     }
 
     /**
@@ -977,7 +983,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Optional<JavaConstructor> tryGetConstructor(Class<?>... parameters) {
-        return members.tryGetConstructor(formatNamesOf(parameters));
+        return members().tryGetConstructor(formatNamesOf(parameters));
     }
 
     /**
@@ -985,22 +991,22 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Optional<JavaConstructor> tryGetConstructor(String... parameters) {
-        return members.tryGetConstructor(ImmutableList.copyOf(parameters));
+        return members().tryGetConstructor(ImmutableList.copyOf(parameters));
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaConstructor> getConstructors() {
-        return members.getConstructors();
+        return members().getConstructors();
     }
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaConstructor> getAllConstructors() {
-        return members.getAllConstructors();
+        return members().getAllConstructors();
     }
 
     @PublicAPI(usage = ACCESS)
     public Optional<JavaStaticInitializer> getStaticInitializer() {
-        return members.getStaticInitializer();
+        return members().getStaticInitializer();
     }
 
     /**
@@ -1048,7 +1054,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaFieldAccess> getFieldAccessesFromSelf() {
-        return members.getFieldAccessesFromSelf();
+        return members().getFieldAccessesFromSelf();
     }
 
     /**
@@ -1100,7 +1106,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaMethodCall> getMethodCallsFromSelf() {
-        return members.getMethodCallsFromSelf();
+        return members().getMethodCallsFromSelf();
     }
 
     /**
@@ -1117,7 +1123,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaConstructorCall> getConstructorCallsFromSelf() {
-        return members.getConstructorCallsFromSelf();
+        return members().getConstructorCallsFromSelf();
     }
 
     /**
@@ -1151,7 +1157,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaMethodReference> getMethodReferencesFromSelf() {
-        return members.getMethodReferencesFromSelf();
+        return members().getMethodReferencesFromSelf();
     }
 
     /**
@@ -1168,7 +1174,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaConstructorReference> getConstructorReferencesFromSelf() {
-        return members.getConstructorReferencesFromSelf();
+        return members().getConstructorReferencesFromSelf();
     }
 
     /**
@@ -1180,15 +1186,26 @@ public class JavaClass
         return javaClassDependencies.getDirectDependenciesFromClass();
     }
 
+    Stream<Dependency> getDirectDependenciesFromSelf(DependencyKind kind) {
+        return javaClassDependencies.getDirectDependenciesFromClass(kind);
+    }
+
+    Stream<JavaClass> getDirectDependencyTargetsFromSelf(DependencyKind kind) {
+        return javaClassDependencies.getDirectDependencyTargetsFromClass(kind);
+    }
+
     /**
      * Returns the transitive closure of all dependencies originating from this class, i.e. its direct dependencies
      * and the dependencies from all imported target classes.
+     * The transitive closure is shared by all classes imported together, i.e. the classes reached from this class
+     * are only determined once for all classes (compare {@link JavaClassDependencyGraph#getTransitiveTargets(int)}).
      * @return all transitive dependencies (including direct dependencies) from this class
      * @see #getDirectDependenciesFromSelf()
      */
     @PublicAPI(usage = ACCESS)
     public Set<Dependency> getTransitiveDependenciesFromSelf() {
-        return JavaClassTransitiveDependencies.findTransitiveDependenciesFrom(this);
+        JavaClassDependencyGraph graph = dependencyGraph.get();
+        return graph.getTransitiveDependenciesFrom(graph.indexOf(this));
     }
 
     /**
@@ -1204,7 +1221,7 @@ public class JavaClass
 
     @PublicAPI(usage = ACCESS)
     public Set<JavaFieldAccess> getFieldAccessesToSelf() {
-        return members.getFieldAccessesToSelf();
+        return members().getFieldAccessesToSelf();
     }
 
     /**
@@ -1236,7 +1253,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaMethodCall> getMethodCallsToSelf() {
-        return members.getMethodCallsToSelf();
+        return members().getMethodCallsToSelf();
     }
 
     /**
@@ -1244,7 +1261,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaMethodReference> getMethodReferencesToSelf() {
-        return members.getMethodReferencesToSelf();
+        return members().getMethodReferencesToSelf();
     }
 
     /**
@@ -1252,7 +1269,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaConstructorCall> getConstructorCallsToSelf() {
-        return members.getConstructorCallsToSelf();
+        return members().getConstructorCallsToSelf();
     }
 
     /**
@@ -1260,7 +1277,7 @@ public class JavaClass
      */
     @PublicAPI(usage = ACCESS)
     public Set<JavaConstructorReference> getConstructorReferencesToSelf() {
-        return members.getConstructorReferencesToSelf();
+        return members().getConstructorReferencesToSelf();
     }
 
     /**
@@ -1467,19 +1484,56 @@ public class JavaClass
     }
 
     void completeMembers(final ImportContext context) {
-        members = JavaClassMembers.create(this, context);
+        Optional<Supplier<ImportContext>> deferredContext = context.createDeferredMembersContext(this);
+        if (deferredContext.isPresent()) {
+            deferredMembersContext = deferredContext.get();
+        } else {
+            members = JavaClassMembers.create(this, context);
+        }
         completionProcess.markMembersComplete();
     }
 
+    /**
+     * @return {@code true}, if the members of this class have not been imported yet, but will be imported on first access
+     */
+    boolean hasDeferredMembers() {
+        return deferredMembersContext != null;
+    }
+
+    private JavaClassMembers members() {
+        if (deferredMembersContext != null) {
+            importDeferredMembers();
+        }
+        return members;
+    }
+
+    private synchronized void importDeferredMembers() {
+        if (deferredMembersContext == null) {
+            return;
+        }
+
+        ImportContext context = deferredMembersContext.get();
+        JavaClassMembers importedMembers = JavaClassMembers.create(this, context);
+        importedMembers.completeAnnotations(context);
+        importedMembers.completeAccessesFrom(context);
+        importedMembers.setReverseDependencies(reverseDependencies);
+        members = importedMembers;
+        deferredMembersContext = null;
+    }
+
     void completeAnnotations(final ImportContext context) {
         annotations = context.createAnnotations(this);
-        members.completeAnnotations(context);
+        if (!hasDeferredMembers()) {
+            members.completeAnnotations(context);
+        }
         completionProcess.markAnnotationsComplete();
     }
 
     JavaClassDependencies completeFrom(ImportContext context) {
         completeComponentType(context);
-        members.completeAccessesFrom(context);
+        if (!hasDeferredMembers()) {
+            members.completeAccessesFrom(context);
+        }
         javaClassDependencies = new JavaClassDependencies(this);
         return javaClassDependencies;
     }
@@ -1493,9 +1547,15 @@ public class JavaClass
         }
     }
 
-    void setReverseDependencies(ReverseDependencies reverseDependencies) {
+    void setDependencyGraph(Supplier<JavaClassDependencyGraph> dependencyGraph) {
+        this.dependencyGraph = dependencyGraph;
+    }
+
+    synchronized void setReverseDependencies(ReverseDependencies reverseDependencies) {
         this.reverseDependencies = reverseDependencies;
-        members.setReverseDependencies(reverseDependencies);
+        if (!hasDeferredMembers()) {
+            members.setReverseDependencies(reverseDependencies);
+        }
         completionProcess.markDependenciesComplete();
     }
 
@@ -2145,7 +2205,7 @@ public class JavaClass
 
         @PublicAPI(usage = ACCESS)
         public static DescribedPredicate<JavaClass> simpleName(final String name) {
-            return equalTo(name).onResultOf(GET_SIMPLE_NAME).as("simple name '%s'", name);
+            return new SimpleNameEqualsPredicate(name);
         }
 
         @PublicAPI(usage = ACCESS)
@@ -2202,7 +2262,7 @@ public class JavaClass
          */
         @PublicAPI(usage = ACCESS)
         public static DescribedPredicate<JavaClass> assignableTo(final String typeName) {
-            return assignableTo(GET_NAME.is(equalTo(typeName)).as(typeName));
+            return new AssignableToTypePredicate(typeName);
         }
 
         /**
@@ -2504,7 +2564,26 @@ public class JavaClass
             }
         }
 
-        private static class SimpleNameStartingWithPredicate extends DescribedPredicate<JavaClass> {
+        private static class SimpleNameEqualsPredicate extends DescribedPredicate<JavaClass> implements JavaClassesIndex.IndexedPredicate {
+            private final String name;
+
+            SimpleNameEqualsPredicate(String name) {
+                super(String.format("simple name '%s'", name));
+                this.name = name;
+            }
+
+            @Override
+            public boolean test(JavaClass input) {
+                return input.getSimpleName().equals(name);
+            }
+
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesWithSimpleName(name);
+            }
+        }
+
+        private static class SimpleNameStartingWithPredicate extends DescribedPredicate<JavaClass> implements JavaClassesIndex.IndexedPredicate {
             private final String prefix;
 
             SimpleNameStartingWithPredicate(String prefix) {
@@ -2516,6 +2595,11 @@ public class JavaClass
             public boolean test(JavaClass input) {
                 return input.getSimpleName().startsWith(prefix);
             }
+
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesWithSimpleNameStartingWith(prefix);
+            }
         }
 
         private static class SimpleNameContainingPredicate extends DescribedPredicate<JavaClass> {
@@ -2532,7 +2616,7 @@ public class JavaClass
             }
         }
 
-        private static class SimpleNameEndingWithPredicate extends DescribedPredicate<JavaClass> {
+        private static class SimpleNameEndingWithPredicate extends DescribedPredicate<JavaClass> implements JavaClassesIndex.IndexedPredicate {
             private final String suffix;
 
             SimpleNameEndingWithPredicate(String suffix) {
@@ -2544,6 +2628,11 @@ public class JavaClass
             public boolean test(JavaClass input) {
                 return input.getSimpleName().endsWith(suffix);
             }
+
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesWithSimpleNameEndingWith(suffix);
+            }
         }
 
         private static class AssignableToPredicate extends DescribedPredicate<JavaClass> {
@@ -2560,6 +2649,20 @@ public class JavaClass
             }
         }
 
+        private static class AssignableToTypePredicate extends AssignableToPredicate implements JavaClassesIndex.IndexedPredicate {
+            private final String typeName;
+
+            AssignableToTypePredicate(String typeName) {
+                super(GET_NAME.is(equalTo(typeName)).as(typeName));
+                this.typeName = typeName;
+            }
+
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesAssignableTo(typeName);
+            }
+        }
+
         private static class AssignableFromPredicate extends DescribedPredicate<JavaClass> {
             private final DescribedPredicate<? super JavaClass> predicate;
 
@@ -2574,7 +2677,7 @@ public class JavaClass
             }
         }
 
-        private static class PackageMatchesPredicate extends DescribedPredicate<JavaClass> {
+        private static class PackageMatchesPredicate extends DescribedPredicate<JavaClass> implements JavaClassesIndex.IndexedPredicate {
             private final Set<PackageMatcher> packageMatchers;
 
             PackageMatchesPredicate(Set<PackageMatcher> packageMatchers, String description) {
@@ -2584,7 +2687,16 @@ public class JavaClass
 
             @Override
             public boolean test(JavaClass input) {
-                return packageMatchers.stream().anyMatch(matcher -> matcher.matches(input.getPackageName()));
+                return matches(input.getPackageName());
+            }
+
+            private boolean matches(String packageName) {
+                return packageMatchers.stream().anyMatch(matcher -> matcher.matches(packageName));
+            }
+
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesInPackagesMatching(this::matches);
             }
         }
 
@@ -15,6 +15,7 @@
  */
 package com.tngtech.archunit.core.domain;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -23,6 +24,7 @@ import java.util.stream.Stream;
 import com.google.common.collect.Streams;
 import com.tngtech.archunit.base.HasDescription;
 import com.tngtech.archunit.core.domain.JavaAnnotation.DefaultParameterVisitor;
+import com.tngtech.archunit.core.domain.JavaClassDependencyGraph.DependencyKind;
 import com.tngtech.archunit.core.domain.properties.HasAnnotations;
 
 import static com.google.common.base.Predicates.instanceOf;
@@ -39,19 +41,11 @@ class JavaClassDependencies {
     }
 
     private Supplier<Set<Dependency>> createDirectDependenciesFromClassSupplier() {
+        // the order of the dependency kinds determines the order of the dependencies
         return memoize(() ->
-                Streams.concat(
-                        dependenciesFromAccesses(javaClass.getAccessesFromSelf()),
-                        inheritanceDependenciesFromSelf(),
-                        fieldDependenciesFromSelf(),
-                        returnTypeDependenciesFromSelf(),
-                        codeUnitParameterDependenciesFromSelf(),
-                        throwsDeclarationDependenciesFromSelf(),
-                        annotationDependenciesFromSelf(),
-                        instanceofCheckDependenciesFromSelf(),
-                        referencedClassObjectDependenciesFromSelf(),
-                        typeParameterDependenciesFromSelf()
-                ).collect(toImmutableSet())
+                Arrays.stream(DependencyKind.values())
+                        .flatMap(this::getDirectDependenciesFromClass)
+                        .collect(toImmutableSet())
         );
     }
 
@@ -59,6 +53,136 @@ class JavaClassDependencies {
         return directDependenciesFromClass.get();
     }
 
+    /**
+     * Determines the targets of the dependencies of the given kind without creating any {@link Dependency} (or its description).
+     * Each target is reported as its base component type (compare {@link JavaClass#getBaseComponentType()}),
+     * targets of which the {@link #getDirectDependenciesFromClass() dependencies} would all be dropped (e.g. the class itself) are omitted.
+     * A target is reported once for every dependency cause, i.e. possibly several times.
+     */
+    Stream<JavaClass> getDirectDependencyTargetsFromClass(DependencyKind kind) {
+        return rawDirectDependencyTargetsFromClass(kind)
+                .filter(this::isDependencyTarget)
+                .map(JavaClass::getBaseComponentType);
+    }
+
+    // compare Dependency.tryCreateDependency(..): a dependency is created for each component type of an array and the array itself,
+    // except for dependencies on the class itself or on primitives
+    private boolean isDependencyTarget(JavaClass rawTarget) {
+        if (rawTarget.getBaseComponentType().equals(javaClass)) {
+            return false;
+        }
+        return rawTarget.isArray() || !rawTarget.isPrimitive();
+    }
+
+    // must report the raw targets of getDirectDependenciesFromClass(kind) for each kind, compare JavaClassDependencyGraphTest
+    private Stream<JavaClass> rawDirectDependencyTargetsFromClass(DependencyKind kind) {
+        switch (kind) {
+            case MEMBER_ACCESS:
+                return Stream.concat(javaClass.getFieldAccessesFromSelf().stream(), javaClass.getCodeUnitAccessesFromSelf().stream())
+                        .map(JavaAccess::getTargetOwner);
+            case INHERITANCE:
+                return Streams.concat(
+                        javaClass.getRawInterfaces().stream(),
+                        javaClass.getRawSuperclass().map(Stream::of).orElse(Stream.empty()),
+                        typeArgumentsOf(javaClass.getSuperclass().orElse(null)),
+                        getGenericInterfacesOf(javaClass).flatMap(JavaClassDependencies::typeArgumentsOf));
+            case FIELD_TYPE:
+                return javaClass.getFields().stream()
+                        .flatMap(field -> Stream.concat(Stream.of(field.getRawType()), typeArgumentsOf(field.getType())));
+            case RETURN_TYPE:
+                return javaClass.getMethods().stream()
+                        .flatMap(method -> Stream.concat(Stream.of(method.getRawReturnType()), typeArgumentsOf(method.getReturnType())));
+            case PARAMETER_TYPE:
+                return javaClass.getCodeUnits().stream()
+                        .flatMap(codeUnit -> Stream.concat(
+                                codeUnit.getRawParameterTypes().stream(),
+                                codeUnit.getParameterTypes().stream()
+                                        .filter(parameterType -> parameterType instanceof JavaParameterizedType)
+                                        .flatMap(parameterType -> dependenciesOfParameterizedType((JavaParameterizedType) parameterType))));
+            case THROWS_DECLARATION:
+                return javaClass.getThrowsDeclarations().stream().map(ThrowsDeclaration::getRawType);
+            case ANNOTATION:
+                return annotatedElementsOfClass().flatMap(annotated -> annotated.getAnnotations().stream()).flatMap(JavaClassDependencies::annotationTargets);
+            case INSTANCEOF_CHECK:
+                return javaClass.getInstanceofChecks().stream().map(InstanceofCheck::getRawType);
+            case REFERENCED_CLASS_OBJECT:
+                return javaClass.getReferencedClassObjects().stream().map(ReferencedClassObject::getRawType);
+            case TYPE_PARAMETER:
+                return Stream.concat(
+                                javaClass.getTypeParameters().stream(),
+                                javaClass.getCodeUnits().stream().flatMap(codeUnit -> codeUnit.getTypeParameters().stream()))
+                        .flatMap(typeVariable -> dependenciesOfTypes(typeVariable.getUpperBounds()));
+            default:
+                throw new IllegalArgumentException("Unknown kind of dependency " + kind);
+        }
+    }
+
+    private static Stream<JavaClass> typeArgumentsOf(JavaType type) {
+        return type instanceof JavaParameterizedType
+                ? dependenciesOfTypes(((JavaParameterizedType) type).getActualTypeArguments())
+                : Stream.empty();
+    }
+
+    private Stream<HasAnnotations<?>> annotatedElementsOfClass() {
+        return Streams.concat(
+                Stream.of(javaClass),
+                javaClass.getFields().stream(),
+                javaClass.getMethods().stream(),
+                javaClass.getMethods().stream().flatMap(method -> method.getParameters().stream()),
+                javaClass.getConstructors().stream(),
+                javaClass.getConstructors().stream().flatMap(constructor -> constructor.getParameters().stream()));
+    }
+
+    private static Stream<JavaClass> annotationTargets(JavaAnnotation<?> annotation) {
+        Stream.Builder<JavaClass> result = Stream.builder();
+        result.add(annotation.getRawType());
+        annotation.accept(new DefaultParameterVisitor() {
+            @Override
+            public void visitClass(String propertyName, JavaClass javaClass) {
+                result.add(javaClass);
+            }
+
+            @Override
+            public void visitEnumConstant(String propertyName, JavaEnumConstant enumConstant) {
+                result.add(enumConstant.getDeclaringClass());
+            }
+
+            @Override
+            public void visitAnnotation(String propertyName, JavaAnnotation<?> memberAnnotation) {
+                result.add(memberAnnotation.getRawType());
+                memberAnnotation.accept(this);
+            }
+        });
+        return result.build();
+    }
+
+    Stream<Dependency> getDirectDependenciesFromClass(DependencyKind kind) {
+        switch (kind) {
+            case MEMBER_ACCESS:
+                return dependenciesFromAccesses(javaClass.getAccessesFromSelf());
+            case INHERITANCE:
+                return inheritanceDependenciesFromSelf();
+            case FIELD_TYPE:
+                return fieldDependenciesFromSelf();
+            case RETURN_TYPE:
+                return returnTypeDependenciesFromSelf();
+            case PARAMETER_TYPE:
+                return codeUnitParameterDependenciesFromSelf();
+            case THROWS_DECLARATION:
+                return throwsDeclarationDependenciesFromSelf();
+            case ANNOTATION:
+                return annotationDependenciesFromSelf();
+            case INSTANCEOF_CHECK:
+                return instanceofCheckDependenciesFromSelf();
+            case REFERENCED_CLASS_OBJECT:
+                return referencedClassObjectDependenciesFromSelf();
+            case TYPE_PARAMETER:
+                return typeParameterDependenciesFromSelf();
+            default:
+                throw new IllegalArgumentException("Unknown kind of dependency " + kind);
+        }
+    }
+
     private Stream<Dependency> dependenciesFromAccesses(Set<JavaAccess<?>> accesses) {
         return accesses.stream().flatMap(access -> Dependency.tryCreateFromAccess(access).stream());
     }
@@ -210,7 +334,7 @@ class JavaClassDependencies {
                 .flatMap(typeParameterDependency -> Dependency.tryCreateFromTypeParameter(typeVariable, typeParameterDependency).stream());
     }
 
-    private Stream<JavaClass> dependenciesOfTypes(Collection<JavaType> types) {
+    private static Stream<JavaClass> dependenciesOfTypes(Collection<JavaType> types) {
         return types.stream().flatMap(JavaClassDependencies::dependenciesOfType);
     }
 
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.tngtech.archunit.PublicAPI;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+import static com.tngtech.archunit.base.Suppliers.memoize;
+
+/**
+ * A compact and immutable view of the dependencies between classes, as given by {@link JavaClass#getDirectDependenciesFromSelf()}.
+ * Each class is identified by an index between {@code 0} and {@link #size()} {@code - 1}. The classes of the {@link JavaClasses}
+ * this graph was created from have the indexes {@code 0} to {@link #getNumberOfContainedClasses()} {@code - 1},
+ * further classes only reachable via dependencies follow afterwards.
+ * <br><br>
+ * The graph only records which class depends on which other class by which {@link DependencyKind kinds} of dependencies.
+ * Thus, algorithms walking the whole graph (e.g. to find cycles or to compute metrics) can operate on plain {@code int} indexes.
+ * The {@link Dependency} objects behind an edge can be obtained via {@link #getDependencies(int, int)}.
+ * <br><br>
+ * Note that dependencies on array types are represented by edges to their base component type
+ * (compare {@link JavaClass#getBaseComponentType()}) and that a class never has an edge to itself.
+ */
+@PublicAPI(usage = ACCESS)
+public final class JavaClassDependencyGraph {
+    private final List<JavaClass> classes;
+    private final Map<JavaClass, Integer> indexes;
+    private final int numberOfContainedClasses;
+    private final Adjacency targets;
+    private final Adjacency origins;
+    private final Supplier<JavaClassTransitiveDependencies> transitiveDependencies;
+
+    private JavaClassDependencyGraph(List<JavaClass> classes, Map<JavaClass, Integer> indexes, int numberOfContainedClasses, Adjacency targets) {
+        this.classes = ImmutableList.copyOf(classes);
+        this.indexes = indexes;
+        this.numberOfContainedClasses = numberOfContainedClasses;
+        this.targets = targets;
+        this.origins = targets.reverse();
+        this.transitiveDependencies = memoize(() -> new JavaClassTransitiveDependencies(targets.offsets, targets.neighbors));
+    }
+
+    /**
+     * @return the number of classes within this graph, i.e. the classes this graph was created from
+     *         and all classes reachable from those via dependencies
+     */
+    @PublicAPI(usage = ACCESS)
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * @return the number of classes of the {@link JavaClasses} this graph was created from.
+     *         These classes have the indexes {@code 0} to {@code getNumberOfContainedClasses() - 1}.
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfContainedClasses() {
+        return numberOfContainedClasses;
+    }
+
+    /**
+     * @return the number of edges within this graph, i.e. the number of pairs of classes
+     *         where the first class has at least one dependency on the second class
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfEdges() {
+        return targets.size();
+    }
+
+    /**
+     * @param index the index of a class within this graph
+     * @return the class with the given index
+     */
+    @PublicAPI(usage = ACCESS)
+    public JavaClass getJavaClass(int index) {
+        return classes.get(index);
+    }
+
+    /**
+     * @param javaClass a class
+     * @return the index of the class within this graph, or {@code -1} if the class is not part of this graph
+     */
+    @PublicAPI(usage = ACCESS)
+    public int indexOf(JavaClass javaClass) {
+        Integer index = indexes.get(javaClass);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @param origin the index of a class within this graph
+     * @return the indexes of all classes the class with index {@code origin} directly depends on, in ascending order
+     */
+    @PublicAPI(usage = ACCESS)
+    public int[] getTargets(int origin) {
+        return targets.getNeighbors(checkElementIndex(origin, size()));
+    }
+
+    /**
+     * @param target the index of a class within this graph
+     * @return the indexes of all classes directly depending on the class with index {@code target}, in ascending order
+     */
+    @PublicAPI(usage = ACCESS)
+    public int[] getOrigins(int target) {
+        return origins.getNeighbors(checkElementIndex(target, size()));
+    }
+
+    /**
+     * @param origin the index of the origin class within this graph
+     * @param target the index of the target class within this graph
+     * @return the {@link DependencyKind kinds} of the dependencies from {@code origin} to {@code target},
+     *         empty if {@code origin} does not depend on {@code target}
+     */
+    @PublicAPI(usage = ACCESS)
+    public Set<DependencyKind> getDependencyKinds(int origin, int target) {
+        return DependencyKind.fromBitmask(targets.getKinds(checkElementIndex(origin, size()), checkElementIndex(target, size())));
+    }
+
+    /**
+     * @param origin the index of the origin class within this graph
+     * @param target the index of the target class within this graph
+     * @param kind a {@link DependencyKind kind} of dependency
+     * @return true, if {@code origin} has a dependency of the given kind on {@code target}, false otherwise
+     */
+    @PublicAPI(usage = ACCESS)
+    public boolean hasDependency(int origin, int target, DependencyKind kind) {
+        return (targets.getKinds(checkElementIndex(origin, size()), checkElementIndex(target, size())) & kind.mask) != 0;
+    }
+
+    /**
+     * @param origin the index of the origin class within this graph
+     * @param target the index of the target class within this graph
+     * @return all {@link Dependency dependencies} from {@code origin} to {@code target} (or to arrays of {@code target}),
+     *         as contained in {@link JavaClass#getDirectDependenciesFromSelf()} of the origin class
+     */
+    @PublicAPI(usage = ACCESS)
+    public Set<Dependency> getDependencies(int origin, int target) {
+        if (targets.getKinds(checkElementIndex(origin, size()), checkElementIndex(target, size())) == 0) {
+            return ImmutableSet.of();
+        }
+        JavaClass targetClass = classes.get(target);
+        return classes.get(origin).getDirectDependenciesFromSelf().stream()
+                .filter(dependency -> dependency.getTargetClass().getBaseComponentType().equals(targetClass))
+                .collect(toImmutableSet());
+    }
+
+    /**
+     * The transitive closure is computed on demand and memoized, i.e. all classes within a dependency cycle share the same result,
+     * and the result for one class is reused for all classes depending on it.
+     *
+     * @param origin the index of a class within this graph
+     * @return the indexes of all classes the class with index {@code origin} depends on directly or transitively, in ascending order.
+     *         {@code origin} itself is only contained, if the class is part of a dependency cycle.
+     */
+    @PublicAPI(usage = ACCESS)
+    public int[] getTransitiveTargets(int origin) {
+        return transitiveDependencies.get().getTransitiveTargets(checkElementIndex(origin, size())).stream().toArray();
+    }
+
+    /**
+     * @param origin the index of the origin class within this graph
+     * @param target the index of the target class within this graph
+     * @return true, if the class with index {@code origin} depends directly or transitively on the class with index {@code target}
+     * @see #getTransitiveTargets(int)
+     */
+    @PublicAPI(usage = ACCESS)
+    public boolean dependsTransitivelyOn(int origin, int target) {
+        return transitiveDependencies.get().getTransitiveTargets(checkElementIndex(origin, size())).get(checkElementIndex(target, size()));
+    }
+
+    /**
+     * @return the direct dependencies of the class with index {@code origin} and of all classes it transitively depends on
+     * @see JavaClass#getTransitiveDependenciesFromSelf()
+     */
+    Set<Dependency> getTransitiveDependenciesFrom(int origin) {
+        ImmutableSet.Builder<Dependency> result = ImmutableSet.<Dependency>builder()
+                .addAll(classes.get(origin).getDirectDependenciesFromSelf());
+        BitSet transitiveTargets = transitiveDependencies.get().getTransitiveTargets(origin);
+        for (int target = transitiveTargets.nextSetBit(0); target >= 0; target = transitiveTargets.nextSetBit(target + 1)) {
+            result.addAll(classes.get(target).getDirectDependenciesFromSelf());
+        }
+        return result.build();
+    }
+
+    static JavaClassDependencyGraph of(Collection<JavaClass> containedClasses) {
+        List<JavaClass> classes = new ArrayList<>(containedClasses);
+        Map<JavaClass, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < classes.size(); i++) {
+            indexes.put(classes.get(i), i);
+        }
+
+        Adjacency.Builder targets = new Adjacency.Builder();
+        // further classes are appended while iterating, so all classes reachable via dependencies will be visited
+        for (int origin = 0; origin < classes.size(); origin++) {
+            JavaClass originClass = classes.get(origin);
+            Map<Integer, Integer> kindsByTarget = new LinkedHashMap<>();
+            for (DependencyKind kind : DependencyKind.values()) {
+                originClass.getDirectDependencyTargetsFromSelf(kind).forEach(targetClass ->
+                        kindsByTarget.merge(indexOf(targetClass, classes, indexes), kind.mask, (a, b) -> a | b));
+            }
+            targets.add(kindsByTarget);
+        }
+        return new JavaClassDependencyGraph(classes, indexes, containedClasses.size(), targets.build(classes.size()));
+    }
+
+    private static int indexOf(JavaClass javaClass, List<JavaClass> classes, Map<JavaClass, Integer> indexes) {
+        return indexes.computeIfAbsent(javaClass, newClass -> {
+            classes.add(newClass);
+            return classes.size() - 1;
+        });
+    }
+
+    /**
+     * Adjacency lists of all classes in compressed sparse row format, i.e. the neighbors of class {@code i}
+     * are {@code neighbors[offsets[i]]} to {@code neighbors[offsets[i + 1] - 1]}, sorted ascending,
+     * and {@code kinds} holds the bitmask of {@link DependencyKind kinds} of the respective edge.
+     */
+    private static class Adjacency {
+        private final int[] offsets;
+        private final int[] neighbors;
+        private final int[] kinds;
+
+        private Adjacency(int[] offsets, int[] neighbors, int[] kinds) {
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+            this.kinds = kinds;
+        }
+
+        int size() {
+            return neighbors.length;
+        }
+
+        int[] getNeighbors(int node) {
+            return Arrays.copyOfRange(neighbors, offsets[node], offsets[node + 1]);
+        }
+
+        int getKinds(int node, int neighbor) {
+            int position = Arrays.binarySearch(neighbors, offsets[node], offsets[node + 1], neighbor);
+            return position >= 0 ? kinds[position] : 0;
+        }
+
+        Adjacency reverse() {
+            int numberOfNodes = offsets.length - 1;
+            int[] reverseOffsets = new int[numberOfNodes + 1];
+            for (int neighbor : neighbors) {
+                reverseOffsets[neighbor + 1]++;
+            }
+            for (int node = 0; node < numberOfNodes; node++) {
+                reverseOffsets[node + 1] += reverseOffsets[node];
+            }
+
+            int[] nextPositions = Arrays.copyOf(reverseOffsets, numberOfNodes);
+            int[] reverseNeighbors = new int[neighbors.length];
+            int[] reverseKinds = new int[kinds.length];
+            // nodes are visited in ascending order, so the reverse neighbors end up sorted as well
+            for (int node = 0; node < numberOfNodes; node++) {
+                for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                    int position = nextPositions[neighbors[i]]++;
+                    reverseNeighbors[position] = node;
+                    reverseKinds[position] = kinds[i];
+                }
+            }
+            return new Adjacency(reverseOffsets, reverseNeighbors, reverseKinds);
+        }
+
+        private static class Builder {
+            private final List<int[]> neighborsByNode = new ArrayList<>();
+            private final List<int[]> kindsByNode = new ArrayList<>();
+            private int numberOfEdges = 0;
+
+            void add(Map<Integer, Integer> kindsByNeighbor) {
+                int[] nodeNeighbors = kindsByNeighbor.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                int[] nodeKinds = new int[nodeNeighbors.length];
+                for (int i = 0; i < nodeNeighbors.length; i++) {
+                    nodeKinds[i] = kindsByNeighbor.get(nodeNeighbors[i]);
+                }
+                neighborsByNode.add(nodeNeighbors);
+                kindsByNode.add(nodeKinds);
+                numberOfEdges += nodeNeighbors.length;
+            }
+
+            Adjacency build(int numberOfNodes) {
+                int[] offsets = new int[numberOfNodes + 1];
+                int[] neighbors = new int[numberOfEdges];
+                int[] kinds = new int[numberOfEdges];
+                for (int node = 0; node < numberOfNodes; node++) {
+                    int[] nodeNeighbors = neighborsByNode.get(node);
+                    System.arraycopy(nodeNeighbors, 0, neighbors, offsets[node], nodeNeighbors.length);
+                    System.arraycopy(kindsByNode.get(node), 0, kinds, offsets[node], nodeNeighbors.length);
+                    offsets[node + 1] = offsets[node] + nodeNeighbors.length;
+                }
+                return new Adjacency(offsets, neighbors, kinds);
+            }
+        }
+    }
+
+    /**
+     * The kinds of {@link Dependency dependencies} distinguished by a {@link JavaClassDependencyGraph}.
+     * Compare the enumeration within the documentation of {@link Dependency}.
+     */
+    @PublicAPI(usage = ACCESS)
+    public enum DependencyKind {
+        /**
+         * A field access, method call, constructor call or method/constructor reference
+         */
+        @PublicAPI(usage = ACCESS)
+        MEMBER_ACCESS,
+        /**
+         * Inheritance from a superclass or an interface, including their type arguments
+         */
+        @PublicAPI(usage = ACCESS)
+        INHERITANCE,
+        /**
+         * The type of a field, including its type arguments
+         */
+        @PublicAPI(usage = ACCESS)
+        FIELD_TYPE,
+        /**
+         * The return type of a method, including its type arguments
+         */
+        @PublicAPI(usage = ACCESS)
+        RETURN_TYPE,
+        /**
+         * The type of a method/constructor parameter, including its type arguments
+         */
+        @PublicAPI(usage = ACCESS)
+        PARAMETER_TYPE,
+        /**
+         * A type declared within the throws clause of a method/constructor
+         */
+        @PublicAPI(usage = ACCESS)
+        THROWS_DECLARATION,
+        /**
+         * The type of an annotation or a type referenced by an annotation parameter
+         */
+        @PublicAPI(usage = ACCESS)
+        ANNOTATION,
+        /**
+         * A type checked via {@code instanceof}
+         */
+        @PublicAPI(usage = ACCESS)
+        INSTANCEOF_CHECK,
+        /**
+         * A referenced class object, e.g. {@code Example.class}
+         */
+        @PublicAPI(usage = ACCESS)
+        REFERENCED_CLASS_OBJECT,
+        /**
+         * A bound of a type parameter of the class or of a method/constructor
+         */
+        @PublicAPI(usage = ACCESS)
+        TYPE_PARAMETER;
+
+        private final int mask = 1 << ordinal();
+
+        private static Set<DependencyKind> fromBitmask(int bitmask) {
+            EnumSet<DependencyKind> result = EnumSet.noneOf(DependencyKind.class);
+            for (DependencyKind kind : values()) {
+                if ((bitmask & kind.mask) != 0) {
+                    result.add(kind);
+                }
+            }
+            return result;
+        }
+    }
+}
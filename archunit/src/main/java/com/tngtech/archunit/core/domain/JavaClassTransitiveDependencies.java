@@ -15,33 +15,182 @@
  */
 package com.tngtech.archunit.core.domain;
 
-import java.util.HashSet;
-import java.util.Set;
-
-import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.function.IntConsumer;
 
+/**
+ * Computes the transitive closure of a {@link JavaClassDependencyGraph}. The graph is first condensed into its strongly connected components,
+ * i.e. all classes of a dependency cycle share the same closure. The closure of each component is computed only once on demand
+ * from the closures of the components it depends on, and then kept as {@link BitSet} of class indexes.
+ */
 class JavaClassTransitiveDependencies {
-    private JavaClassTransitiveDependencies() {
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] componentOfNode;
+    private final int[] componentOffsets;
+    private final int[] componentMembers;
+    private final BitSet[] closureOfComponent;
+
+    /**
+     * @param offsets the targets of node {@code i} are {@code targets[offsets[i]]} to {@code targets[offsets[i + 1] - 1]}
+     * @param targets the targets of all nodes
+     */
+    JavaClassTransitiveDependencies(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.componentOfNode = findStronglyConnectedComponents(offsets, targets);
+        int numberOfComponents = Arrays.stream(componentOfNode).max().orElse(-1) + 1;
+        this.componentOffsets = new int[numberOfComponents + 1];
+        this.componentMembers = new int[componentOfNode.length];
+        groupMembersByComponent();
+        this.closureOfComponent = new BitSet[numberOfComponents];
     }
 
-    static Set<Dependency> findTransitiveDependenciesFrom(JavaClass javaClass) {
-        ImmutableSet.Builder<Dependency> transitiveDependencies = ImmutableSet.builder();
-        Set<JavaClass> analyzedClasses = new HashSet<>();  // to avoid infinite recursion for cyclic dependencies
-        addTransitiveDependenciesFrom(javaClass, transitiveDependencies, analyzedClasses);
-        return transitiveDependencies.build();
+    private void groupMembersByComponent() {
+        for (int component : componentOfNode) {
+            componentOffsets[component + 1]++;
+        }
+        for (int component = 0; component < componentOffsets.length - 1; component++) {
+            componentOffsets[component + 1] += componentOffsets[component];
+        }
+        int[] nextPositions = Arrays.copyOf(componentOffsets, componentOffsets.length - 1);
+        for (int node = 0; node < componentOfNode.length; node++) {
+            componentMembers[nextPositions[componentOfNode[node]]++] = node;
+        }
     }
 
-    private static void addTransitiveDependenciesFrom(JavaClass javaClass, ImmutableSet.Builder<Dependency> transitiveDependencies, Set<JavaClass> analyzedClasses) {
-        analyzedClasses.add(javaClass);  // currently being analyzed
-        Set<JavaClass> targetClassesToRecurse = new HashSet<>();
-        for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
-            transitiveDependencies.add(dependency);
-            targetClassesToRecurse.add(dependency.getTargetClass().getBaseComponentType());
+    /**
+     * @return all nodes reachable from {@code origin} via at least one edge, i.e. {@code origin} itself is only contained
+     *         if it is part of a cycle. The result is shared and must not be modified.
+     */
+    synchronized BitSet getTransitiveTargets(int origin) {
+        int component = componentOfNode[origin];
+        if (closureOfComponent[component] == null) {
+            computeClosuresReachableFrom(component);
         }
-        for (JavaClass targetClass : targetClassesToRecurse) {
-            if (!analyzedClasses.contains(targetClass)) {
-                addTransitiveDependenciesFrom(targetClass, transitiveDependencies, analyzedClasses);
+        return closureOfComponent[component];
+    }
+
+    /**
+     * Components are numbered in reverse topological order, i.e. every component only depends on components
+     * with a smaller number. Thus, processing all components reachable from {@code start} in ascending order
+     * guarantees that the closures of all dependencies are known once a component is processed.
+     */
+    private void computeClosuresReachableFrom(int start) {
+        BitSet componentsToProcess = new BitSet();
+        Deque<Integer> toVisit = new ArrayDeque<>();
+        componentsToProcess.set(start);
+        toVisit.push(start);
+        while (!toVisit.isEmpty()) {
+            int component = toVisit.pop();
+            forEachTargetComponent(component, target -> {
+                if (closureOfComponent[target] == null && !componentsToProcess.get(target)) {
+                    componentsToProcess.set(target);
+                    toVisit.push(target);
+                }
+            });
+        }
+
+        for (int component = componentsToProcess.nextSetBit(0); component >= 0; component = componentsToProcess.nextSetBit(component + 1)) {
+            closureOfComponent[component] = computeClosure(component);
+        }
+    }
+
+    private BitSet computeClosure(int component) {
+        BitSet closure = new BitSet();
+        if (componentOffsets[component + 1] - componentOffsets[component] > 1) {
+            addMembers(closure, component);
+        }
+        forEachTargetComponent(component, target -> {
+            if (target != component) {
+                addMembers(closure, target);
+                closure.or(closureOfComponent[target]);
+            }
+        });
+        return closure;
+    }
+
+    private void addMembers(BitSet nodes, int component) {
+        for (int i = componentOffsets[component]; i < componentOffsets[component + 1]; i++) {
+            nodes.set(componentMembers[i]);
+        }
+    }
+
+    private void forEachTargetComponent(int component, IntConsumer consumer) {
+        for (int i = componentOffsets[component]; i < componentOffsets[component + 1]; i++) {
+            int node = componentMembers[i];
+            for (int j = offsets[node]; j < offsets[node + 1]; j++) {
+                consumer.accept(componentOfNode[targets[j]]);
+            }
+        }
+    }
+
+    /**
+     * Tarjan's algorithm with an explicit stack instead of recursion, so deep dependency chains can not cause a {@link StackOverflowError}.
+     *
+     * @return the number of the strongly connected component of each node, numbered in reverse topological order
+     */
+    private static int[] findStronglyConnectedComponents(int[] offsets, int[] targets) {
+        int numberOfNodes = offsets.length - 1;
+        int[] componentOfNode = new int[numberOfNodes];
+        int[] discoveryIndex = new int[numberOfNodes];
+        int[] lowLink = new int[numberOfNodes];
+        int[] nextEdge = new int[numberOfNodes];
+        boolean[] onComponentStack = new boolean[numberOfNodes];
+        int[] componentStack = new int[numberOfNodes];
+        int[] callStack = new int[numberOfNodes];
+        Arrays.fill(discoveryIndex, -1);
+
+        int nextDiscoveryIndex = 0;
+        int numberOfComponents = 0;
+        int componentStackSize = 0;
+        for (int root = 0; root < numberOfNodes; root++) {
+            if (discoveryIndex[root] >= 0) {
+                continue;
+            }
+            int callStackSize = 0;
+            callStack[callStackSize++] = root;
+            discoveryIndex[root] = lowLink[root] = nextDiscoveryIndex++;
+            nextEdge[root] = offsets[root];
+            componentStack[componentStackSize++] = root;
+            onComponentStack[root] = true;
+
+            while (callStackSize > 0) {
+                int node = callStack[callStackSize - 1];
+                if (nextEdge[node] < offsets[node + 1]) {
+                    int target = targets[nextEdge[node]++];
+                    if (discoveryIndex[target] < 0) {
+                        callStack[callStackSize++] = target;
+                        discoveryIndex[target] = lowLink[target] = nextDiscoveryIndex++;
+                        nextEdge[target] = offsets[target];
+                        componentStack[componentStackSize++] = target;
+                        onComponentStack[target] = true;
+                    } else if (onComponentStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], discoveryIndex[target]);
+                    }
+                    continue;
+                }
+
+                callStackSize--;
+                if (lowLink[node] == discoveryIndex[node]) {
+                    int member;
+                    do {
+                        member = componentStack[--componentStackSize];
+                        onComponentStack[member] = false;
+                        componentOfNode[member] = numberOfComponents;
+                    } while (member != node);
+                    numberOfComponents++;
+                }
+                if (callStackSize > 0) {
+                    int caller = callStack[callStackSize - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+                }
             }
         }
+        return componentOfNode;
     }
+
 }
@@ -17,11 +17,19 @@ package com.tngtech.archunit.core.domain;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.tngtech.archunit.PublicAPI;
 import com.tngtech.archunit.base.DescribedIterable;
 import com.tngtech.archunit.base.DescribedPredicate;
@@ -30,13 +38,20 @@ import com.tngtech.archunit.core.domain.properties.CanOverrideDescription;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
-import static java.util.stream.Collectors.toMap;
+import static com.tngtech.archunit.base.Suppliers.memoize;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
 
 public final class JavaClasses extends ForwardingCollection<JavaClass> implements DescribedIterable<JavaClass>, CanOverrideDescription<JavaClasses> {
     private final ImmutableMap<String, JavaClass> classes;
     private final JavaPackage defaultPackage;
     private final String description;
+    private final Supplier<JavaClassDependencyGraph> dependencyGraph;
+    private final Supplier<JavaClassesIndex> index;
 
     private JavaClasses(JavaPackage defaultPackage, Map<String, JavaClass> classes) {
         this(defaultPackage, classes, "classes");
@@ -46,24 +61,42 @@ public final class JavaClasses extends ForwardingCollection<JavaClass> implement
         this.classes = ImmutableMap.copyOf(classes);
         this.defaultPackage = checkNotNull(defaultPackage);
         this.description = checkNotNull(description);
+        this.dependencyGraph = memoize(() -> JavaClassDependencyGraph.of(this.classes.values()));
+        this.index = memoize(() -> new JavaClassesIndex(this.classes.values()));
+    }
+
+    private JavaClasses(JavaClasses original, String description) {
+        this.classes = original.classes;
+        this.defaultPackage = original.defaultPackage;
+        this.description = checkNotNull(description);
+        this.dependencyGraph = original.dependencyGraph;
+        this.index = original.index;
     }
 
     /**
+     * Common predicates, like {@link JavaClass.Predicates#resideInAPackage(String)}, {@link JavaClass.Predicates#simpleNameEndingWith(String)}
+     * or {@link com.tngtech.archunit.core.domain.properties.CanBeAnnotated.Predicates#annotatedWith(Class) annotatedWith(..)}, are only tested against the classes possibly matching according to
+     * some index (compare {@link JavaClassesIndex}), instead of all classes.
+     *
      * @param predicate a {@link DescribedPredicate} to determine which classes match
      * @return {@link JavaClasses} matching the given predicate; the description will be adjusted according to the predicate's description
      */
     @PublicAPI(usage = ACCESS)
     public JavaClasses that(DescribedPredicate<? super JavaClass> predicate) {
-        Map<String, JavaClass> matchingElements = classes.entrySet().stream()
-                .filter(e -> predicate.test(e.getValue()))
-                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+        JavaClassesIndex index = this.index.get();
+        Stream<JavaClass> candidates = index.findCandidates(predicate)
+                .map(index::getClasses)
+                .orElseGet(() -> classes.values().stream());
+        Map<String, JavaClass> matchingElements = candidates
+                .filter(predicate)
+                .collect(toImmutableMap(JavaClass::getName, identity()));
         String newDescription = String.format("%s that %s", description, predicate.getDescription());
         return new JavaClasses(defaultPackage, matchingElements, newDescription);
     }
 
     @Override
     public JavaClasses as(String description) {
-        return new JavaClasses(defaultPackage, classes, description);
+        return new JavaClasses(this, description);
     }
 
     @Override
@@ -150,6 +183,24 @@ public final class JavaClasses extends ForwardingCollection<JavaClass> implement
         return defaultPackage;
     }
 
+    /**
+     * @return a compact {@link JavaClassDependencyGraph} of the dependencies between these classes
+     *         (and further classes reachable via dependencies). The graph is created on first access and then reused.
+     */
+    @PublicAPI(usage = ACCESS)
+    public JavaClassDependencyGraph getDependencyGraph() {
+        return dependencyGraph.get();
+    }
+
+    /**
+     * @return a {@link JavaAnnotationIndex} to look up the classes, members and parameters (meta-)annotated with a certain type.
+     *         The index is created on first access and then reused.
+     */
+    @PublicAPI(usage = ACCESS)
+    public JavaAnnotationIndex getAnnotationIndex() {
+        return index.get().getAnnotationIndex();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(classes.keySet(), description);
@@ -194,18 +245,56 @@ public final class JavaClasses extends ForwardingCollection<JavaClass> implement
 
     static JavaClasses of(
             Map<String, JavaClass> selectedClasses, Collection<JavaClass> allClasses, ImportContext importContext) {
+        return of(selectedClasses, allClasses, importContext, directExecutor(), 1);
+    }
+
+    /**
+     * Completes the classes in {@code numberOfChunks} consecutive chunks, which are run by the given {@link Executor}.
+     * Each chunk registers the reverse dependencies of its classes separately, these registrations are then merged
+     * in the original order of {@code allClasses}, so the result does not depend on the number of chunks.
+     */
+    static JavaClasses of(
+            Map<String, JavaClass> selectedClasses, Collection<JavaClass> allClasses, ImportContext importContext, Executor executor, int numberOfChunks) {
 
-        ReverseDependencies.Creation reverseDependenciesCreation = new ReverseDependencies.Creation();
         JavaPackage defaultPackage = JavaPackage.from(allClasses);
+        // subpackages are created on demand, so this must not happen concurrently
         for (JavaClass clazz : allClasses) {
             setPackage(clazz, defaultPackage);
-            JavaClassDependencies classDependencies = clazz.completeFrom(importContext);
-            reverseDependenciesCreation.registerDependenciesOf(clazz, classDependencies);
         }
+
+        List<JavaClass> classes = ImmutableList.copyOf(allClasses);
+        int chunkSize = Math.max(1, (classes.size() + numberOfChunks - 1) / numberOfChunks);
+        List<CompletableFuture<ReverseDependencies.Creation>> chunks = Lists.partition(classes, chunkSize).stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> complete(chunk, importContext), executor))
+                .collect(toList());
+        ReverseDependencies.Creation reverseDependenciesCreation = ReverseDependencies.Creation.merge(
+                chunks.stream().map(JavaClasses::getCompleted).collect(toList()));
         reverseDependenciesCreation.finish(allClasses);
+        Supplier<JavaClassDependencyGraph> dependencyGraphOfAllClasses = memoize(() -> JavaClassDependencyGraph.of(allClasses));
+        for (JavaClass clazz : allClasses) {
+            clazz.setDependencyGraph(dependencyGraphOfAllClasses);
+        }
         return new JavaClasses(defaultPackage, selectedClasses);
     }
 
+    private static ReverseDependencies.Creation complete(List<JavaClass> classes, ImportContext importContext) {
+        ReverseDependencies.Creation reverseDependenciesCreation = new ReverseDependencies.Creation();
+        for (JavaClass clazz : classes) {
+            JavaClassDependencies classDependencies = clazz.completeFrom(importContext);
+            reverseDependenciesCreation.registerDependenciesOf(clazz, classDependencies);
+        }
+        return reverseDependenciesCreation;
+    }
+
+    private static ReverseDependencies.Creation getCompleted(CompletableFuture<ReverseDependencies.Creation> chunk) {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            throwIfUnchecked(e.getCause());
+            throw new IllegalStateException("Error while completing classes", e.getCause());
+        }
+    }
+
     private static void setPackage(JavaClass clazz, JavaPackage defaultPackage) {
         JavaPackage javaPackage = clazz.getPackageName().isEmpty()
                 ? defaultPackage
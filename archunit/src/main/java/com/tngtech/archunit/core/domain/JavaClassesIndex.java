@@ -0,0 +1,231 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.domain;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableList;
+import com.tngtech.archunit.Internal;
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.base.PredicateCandidates;
+
+import static com.tngtech.archunit.base.Suppliers.memoize;
+
+/**
+ * Indexes of {@link JavaClasses} to quickly find the classes possibly matching common predicates like
+ * {@link JavaClass.Predicates#resideInAPackage(String)} or {@link JavaClass.Predicates#simpleNameEndingWith(String)}.
+ * The meta-annotation types of each annotation type are only determined once and shared with the {@link JavaAnnotationIndex}
+ * of {@link JavaClasses#getAnnotationIndex()}, which in turn looks up (meta-)annotated classes via this index.
+ * Each index is only created once it is needed by a predicate.
+ * Classes are identified by their position within the {@link JavaClasses}, so a set of classes is a {@link BitSet} of positions.
+ */
+@Internal
+public final class JavaClassesIndex {
+    private final List<JavaClass> classes;
+    private final Supplier<SortedKeys> names;
+    private final Supplier<SortedKeys> simpleNames;
+    private final Supplier<SortedKeys> reversedSimpleNames;
+    private final Supplier<Map<String, BitSet>> classesByPackageName;
+    private final Supplier<Map<String, BitSet>> classesByAssignableTypeName;
+    private final MetaAnnotationTypeNames metaAnnotationTypeNames = new MetaAnnotationTypeNames();
+    private final Supplier<Map<String, BitSet>> classesByAnnotationTypeName;
+    private final Supplier<Map<String, BitSet>> classesByMetaAnnotationTypeName;
+    private final Supplier<JavaAnnotationIndex> annotationIndex;
+
+    JavaClassesIndex(Collection<JavaClass> classes) {
+        this.classes = ImmutableList.copyOf(classes);
+        names = memoize(() -> new SortedKeys(this.classes, JavaClass::getName));
+        simpleNames = memoize(() -> new SortedKeys(this.classes, JavaClass::getSimpleName));
+        reversedSimpleNames = memoize(() -> new SortedKeys(this.classes, javaClass -> reverse(javaClass.getSimpleName())));
+        classesByPackageName = memoize(() -> groupBy(javaClass -> Stream.of(javaClass.getPackageName())));
+        classesByAssignableTypeName = memoize(() -> groupBy(javaClass -> Stream.concat(
+                javaClass.getClassHierarchy().stream(), javaClass.getAllRawInterfaces().stream()).map(JavaClass::getName)));
+        classesByAnnotationTypeName = memoize(() -> groupBy(javaClass -> javaClass.getAnnotations().stream().map(annotation -> annotation.getRawType().getName())));
+        classesByMetaAnnotationTypeName = memoize(() -> groupBy(javaClass -> metaAnnotationTypeNames.of(javaClass.getAnnotations())));
+        annotationIndex = memoize(() -> new JavaAnnotationIndex(this));
+    }
+
+    private Map<String, BitSet> groupBy(Function<JavaClass, Stream<String>> getKeys) {
+        Map<String, BitSet> result = new HashMap<>();
+        for (int position = 0; position < classes.size(); position++) {
+            int finalPosition = position;
+            getKeys.apply(classes.get(position)).forEach(key -> result.computeIfAbsent(key, newKey -> new BitSet()).set(finalPosition));
+        }
+        return result;
+    }
+
+    public BitSet getClassesWithName(String name) {
+        return names.get().withKey(name);
+    }
+
+    public BitSet getClassesWithNameStartingWith(String prefix) {
+        return names.get().withKeyStartingWith(prefix);
+    }
+
+    public BitSet getClassesWithSimpleName(String simpleName) {
+        return simpleNames.get().withKey(simpleName);
+    }
+
+    public BitSet getClassesWithSimpleNameStartingWith(String prefix) {
+        return simpleNames.get().withKeyStartingWith(prefix);
+    }
+
+    public BitSet getClassesWithSimpleNameEndingWith(String suffix) {
+        return reversedSimpleNames.get().withKeyStartingWith(reverse(suffix));
+    }
+
+    public BitSet getClassesInPackagesMatching(Predicate<String> packageNameMatches) {
+        BitSet result = new BitSet();
+        classesByPackageName.get().forEach((packageName, classesInPackage) -> {
+            if (packageNameMatches.test(packageName)) {
+                result.or(classesInPackage);
+            }
+        });
+        return result;
+    }
+
+    public BitSet getClassesAssignableTo(String typeName) {
+        return copyOfClassesWithKey(classesByAssignableTypeName.get(), typeName);
+    }
+
+    public BitSet getClassesAnnotatedWith(String annotationTypeName) {
+        return copyOfClassesWithKey(classesByAnnotationTypeName.get(), annotationTypeName);
+    }
+
+    public BitSet getClassesMetaAnnotatedWith(String annotationTypeName) {
+        return copyOfClassesWithKey(classesByMetaAnnotationTypeName.get(), annotationTypeName);
+    }
+
+    JavaAnnotationIndex getAnnotationIndex() {
+        return annotationIndex.get();
+    }
+
+    MetaAnnotationTypeNames getMetaAnnotationTypeNames() {
+        return metaAnnotationTypeNames;
+    }
+
+    List<JavaClass> getClasses() {
+        return classes;
+    }
+
+    private static BitSet copyOfClassesWithKey(Map<String, BitSet> classesByKey, String key) {
+        BitSet classesWithKey = classesByKey.get(key);
+        return classesWithKey != null ? (BitSet) classesWithKey.clone() : new BitSet();
+    }
+
+    /**
+     * @return the positions of the classes possibly matching the predicate, or {@link Optional#empty()} if any class might match
+     */
+    Optional<BitSet> findCandidates(DescribedPredicate<?> predicate) {
+        return PredicateCandidates.find(predicate,
+                indexedPredicate -> indexedPredicate instanceof IndexedPredicate
+                        ? Optional.of(((IndexedPredicate) indexedPredicate).findCandidates(this))
+                        : Optional.empty(),
+                (first, second) -> {
+                    BitSet result = (BitSet) first.clone();
+                    result.and(second);
+                    return result;
+                },
+                (first, second) -> {
+                    BitSet result = (BitSet) first.clone();
+                    result.or(second);
+                    return result;
+                });
+    }
+
+    Stream<JavaClass> getClasses(BitSet positions) {
+        return positions.stream().mapToObj(classes::get);
+    }
+
+    private static String reverse(String string) {
+        return new StringBuilder(string).reverse().toString();
+    }
+
+    /**
+     * Implemented by {@link DescribedPredicate predicates} that can determine their candidates from a {@link JavaClassesIndex}.
+     */
+    @Internal
+    public interface IndexedPredicate {
+        /**
+         * @return the positions of all classes that might match this predicate
+         */
+        BitSet findCandidates(JavaClassesIndex index);
+    }
+
+    /**
+     * Some key of each class (e.g. the simple name) in lexicographical order, so all classes with a key starting with
+     * a certain prefix form a consecutive range that can be found by binary search.
+     */
+    private static class SortedKeys {
+        private final String[] keys;
+        private final int[] positions;
+
+        SortedKeys(List<JavaClass> classes, Function<JavaClass, String> getKey) {
+            String[] keysByPosition = classes.stream().map(getKey).toArray(String[]::new);
+            Integer[] sortedPositions = new Integer[classes.size()];
+            Arrays.setAll(sortedPositions, position -> position);
+            Arrays.sort(sortedPositions, Comparator.comparing(position -> keysByPosition[position]));
+
+            keys = new String[sortedPositions.length];
+            positions = new int[sortedPositions.length];
+            for (int i = 0; i < sortedPositions.length; i++) {
+                keys[i] = keysByPosition[sortedPositions[i]];
+                positions[i] = sortedPositions[i];
+            }
+        }
+
+        BitSet withKey(String key) {
+            BitSet result = new BitSet();
+            for (int i = firstIndexNotBefore(key); i < keys.length && keys[i].equals(key); i++) {
+                result.set(positions[i]);
+            }
+            return result;
+        }
+
+        BitSet withKeyStartingWith(String prefix) {
+            BitSet result = new BitSet();
+            for (int i = firstIndexNotBefore(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+                result.set(positions[i]);
+            }
+            return result;
+        }
+
+        private int firstIndexNotBefore(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.domain;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The names of the types some annotation types are (transitively) meta-annotated with, determined only once for each annotation type.
+ * In line with {@link JavaClass#isMetaAnnotatedWith(String)} every annotation type is considered meta-annotated with itself.
+ */
+class MetaAnnotationTypeNames {
+    private final Map<String, Set<String>> metaAnnotationTypeNamesByAnnotationTypeName = new ConcurrentHashMap<>();
+
+    Stream<String> of(Collection<? extends JavaAnnotation<?>> annotations) {
+        return annotations.stream().flatMap(annotation -> of(annotation.getRawType()).stream()).distinct();
+    }
+
+    /**
+     * @return the names of the given annotation type and all types it is (transitively) meta-annotated with
+     */
+    Set<String> of(JavaClass annotationType) {
+        return metaAnnotationTypeNamesByAnnotationTypeName.computeIfAbsent(annotationType.getName(), name -> find(annotationType));
+    }
+
+    // annotation types can be cyclically meta-annotated (e.g. @Documented is annotated with @Documented),
+    // so we simply walk the annotation types once for each type instead of combining the results of their meta-annotations
+    private static Set<String> find(JavaClass annotationType) {
+        Set<String> result = new LinkedHashSet<>();
+        Deque<JavaClass> toVisit = new ArrayDeque<>();
+        toVisit.add(annotationType);
+        while (!toVisit.isEmpty()) {
+            JavaClass next = toVisit.poll();
+            if (result.add(next.getName())) {
+                for (JavaAnnotation<JavaClass> metaAnnotation : next.getAnnotations()) {
+                    toVisit.add(metaAnnotation.getRawType());
+                }
+            }
+        }
+        return ImmutableSet.copyOf(result);
+    }
+}
@@ -157,7 +157,15 @@ final class ReverseDependencies {
         private final ImmutableSetMultimap.Builder<JavaClass, InstanceofCheck> instanceofCheckDependencies = ImmutableSetMultimap.builder();
         private final List<JavaClassDependencies> allDependencies = new ArrayList<>();
 
+        /**
+         * Classes with deferred members (compare {@link JavaClass#hasDeferredMembers()}) are dependencies of the import only,
+         * thus they don't contribute any reverse dependencies, so their members don't need to be imported.
+         */
         public void registerDependenciesOf(JavaClass clazz, JavaClassDependencies classDependencies) {
+            if (clazz.hasDeferredMembers()) {
+                return;
+            }
+
             registerAccesses(clazz);
             registerFields(clazz);
             registerMethods(clazz);
@@ -259,6 +267,36 @@ final class ReverseDependencies {
             }
         }
 
+        /**
+         * Combines several {@link Creation Creations} (e.g. of consecutive chunks of classes registered concurrently)
+         * in the given order, so the result is the same as if all classes had been registered by one {@link Creation}.
+         */
+        static Creation merge(List<Creation> creations) {
+            if (creations.size() == 1) {
+                return creations.get(0);
+            }
+
+            Creation result = new Creation();
+            for (Creation creation : creations) {
+                result.fieldAccessDependencies.putAll(creation.fieldAccessDependencies.build());
+                result.methodCallDependencies.putAll(creation.methodCallDependencies.build());
+                result.methodReferenceDependencies.putAll(creation.methodReferenceDependencies.build());
+                result.constructorCallDependencies.putAll(creation.constructorCallDependencies.build());
+                result.constructorReferenceDependencies.putAll(creation.constructorReferenceDependencies.build());
+                result.fieldTypeDependencies.putAll(creation.fieldTypeDependencies.build());
+                result.methodParameterTypeDependencies.putAll(creation.methodParameterTypeDependencies.build());
+                result.methodReturnTypeDependencies.putAll(creation.methodReturnTypeDependencies.build());
+                result.methodsThrowsDeclarationDependencies.putAll(creation.methodsThrowsDeclarationDependencies.build());
+                result.constructorParameterTypeDependencies.putAll(creation.constructorParameterTypeDependencies.build());
+                result.constructorThrowsDeclarationDependencies.putAll(creation.constructorThrowsDeclarationDependencies.build());
+                result.annotationTypeDependencies.putAll(creation.annotationTypeDependencies.build());
+                result.annotationParameterTypeDependencies.putAll(creation.annotationParameterTypeDependencies.build());
+                result.instanceofCheckDependencies.putAll(creation.instanceofCheckDependencies.build());
+                result.allDependencies.addAll(creation.allDependencies);
+            }
+            return result;
+        }
+
         void finish(Iterable<JavaClass> classes) {
             ReverseDependencies reverseDependencies = new ReverseDependencies(this);
             for (JavaClass clazz : classes) {
@@ -54,6 +54,12 @@ public class Source {
         md5sum = md5InClassSourcesEnabled ? Md5sum.of(uri) : Md5sum.DISABLED;
     }
 
+    Source(URI uri, Optional<String> fileName, byte[] md5Bytes) {
+        this.uri = checkNotNull(uri);
+        this.fileName = checkNotNull(fileName);
+        this.md5sum = Md5sum.fromDigest(md5Bytes);
+    }
+
     @PublicAPI(usage = ACCESS)
     public URI getUri() {
         return uri;
@@ -106,8 +112,6 @@ public class Source {
          */
         static final Md5sum DISABLED = new Md5sum("DISABLED");
 
-        private static final MessageDigest MD5_DIGEST = getMd5Digest();
-
         private final byte[] md5Bytes;
         private final String text;
 
@@ -117,10 +121,21 @@ public class Source {
         }
 
         private Md5sum(byte[] input, MessageDigest md5Digest) {
-            this.md5Bytes = md5Digest.digest(input);
+            this(md5Digest.digest(input));
+        }
+
+        private Md5sum(byte[] md5Bytes) {
+            this.md5Bytes = md5Bytes;
             text = toHex(md5Bytes);
         }
 
+        /**
+         * @param md5Bytes the md5 sum of a class file that has already been digested while importing the class file
+         */
+        static Md5sum fromDigest(byte[] md5Bytes) {
+            return new Md5sum(Arrays.copyOf(md5Bytes, md5Bytes.length));
+        }
+
         static String toHex(byte[] bytes) {
             StringBuilder sb = new StringBuilder(2 * bytes.length);
             for (byte b : bytes) {
@@ -167,13 +182,15 @@ public class Source {
             }
         }
 
+        // NOTE: MessageDigest is not thread safe, so we must not share one instance between concurrent imports
         private static Md5sum of(URI uri) {
-            if (MD5_DIGEST == null) {
+            MessageDigest md5Digest = getMd5Digest();
+            if (md5Digest == null) {
                 return NOT_SUPPORTED;
             }
 
             Optional<byte[]> bytesFromUri = read(uri);
-            return bytesFromUri.isPresent() ? new Md5sum(bytesFromUri.get(), MD5_DIGEST) : UNDETERMINED;
+            return bytesFromUri.isPresent() ? new Md5sum(bytesFromUri.get(), md5Digest) : UNDETERMINED;
         }
 
         private static Optional<byte[]> read(URI uri) {
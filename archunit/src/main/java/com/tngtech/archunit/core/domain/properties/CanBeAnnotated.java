@@ -18,6 +18,7 @@ package com.tngtech.archunit.core.domain.properties;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -27,6 +28,7 @@ import com.tngtech.archunit.PublicAPI;
 import com.tngtech.archunit.base.ArchUnitException.InvalidSyntaxUsageException;
 import com.tngtech.archunit.base.DescribedPredicate;
 import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClassesIndex;
 
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 import static com.tngtech.archunit.base.DescribedPredicate.equalTo;
@@ -131,8 +133,7 @@ public interface CanBeAnnotated {
          */
         @PublicAPI(usage = ACCESS)
         public static DescribedPredicate<CanBeAnnotated> annotatedWith(final String annotationTypeName) {
-            DescribedPredicate<HasType> typeNameMatches = GET_RAW_TYPE.then(GET_NAME).is(equalTo(annotationTypeName));
-            return annotatedWith(typeNameMatches.as("@" + ensureSimpleName(annotationTypeName)));
+            return new AnnotatedWithTypePredicate(annotationTypeName);
         }
 
         /**
@@ -159,6 +160,20 @@ public interface CanBeAnnotated {
             }
         }
 
+        private static class AnnotatedWithTypePredicate extends AnnotatedPredicate implements JavaClassesIndex.IndexedPredicate {
+            private final String annotationTypeName;
+
+            AnnotatedWithTypePredicate(String annotationTypeName) {
+                super(GET_RAW_TYPE.then(GET_NAME).is(equalTo(annotationTypeName)).as("@" + ensureSimpleName(annotationTypeName)));
+                this.annotationTypeName = annotationTypeName;
+            }
+
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesAnnotatedWith(annotationTypeName);
+            }
+        }
+
         /**
          * Returns a predicate that matches elements that are meta-annotated with the given annotation type.
          * A meta-annotation is an annotation that is declared on another annotation.
@@ -181,8 +196,7 @@ public interface CanBeAnnotated {
          */
         @PublicAPI(usage = ACCESS)
         public static DescribedPredicate<CanBeAnnotated> metaAnnotatedWith(final String annotationTypeName) {
-            DescribedPredicate<HasType> typeNameMatches = GET_RAW_TYPE.then(GET_NAME).is(equalTo(annotationTypeName));
-            return metaAnnotatedWith(typeNameMatches.as("@" + ensureSimpleName(annotationTypeName)));
+            return new MetaAnnotatedWithTypePredicate(annotationTypeName);
         }
 
         /**
@@ -213,6 +227,20 @@ public interface CanBeAnnotated {
                 return input.isMetaAnnotatedWith(predicate);
             }
         }
+
+        private static class MetaAnnotatedWithTypePredicate extends MetaAnnotatedPredicate implements JavaClassesIndex.IndexedPredicate {
+            private final String annotationTypeName;
+
+            MetaAnnotatedWithTypePredicate(String annotationTypeName) {
+                super(GET_RAW_TYPE.then(GET_NAME).is(equalTo(annotationTypeName)).as("@" + ensureSimpleName(annotationTypeName)));
+                this.annotationTypeName = annotationTypeName;
+            }
+
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesMetaAnnotatedWith(annotationTypeName);
+            }
+        }
     }
 
     final class Utils {
@@ -15,6 +15,7 @@
  */
 package com.tngtech.archunit.core.domain.properties;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -22,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 import com.tngtech.archunit.PublicAPI;
 import com.tngtech.archunit.base.ChainableFunction;
 import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClassesIndex;
 
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 import static com.tngtech.archunit.core.domain.properties.HasName.Utils.namesOf;
@@ -135,7 +137,7 @@ public interface HasName {
             return new NameEndingWithPredicate(postfix);
         }
 
-        private static class NameEqualsPredicate extends DescribedPredicate<HasName> {
+        private static class NameEqualsPredicate extends DescribedPredicate<HasName> implements JavaClassesIndex.IndexedPredicate {
             private final String name;
 
             NameEqualsPredicate(String name) {
@@ -147,6 +149,11 @@ public interface HasName {
             public boolean test(HasName input) {
                 return input.getName().equals(name);
             }
+
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesWithName(name);
+            }
         }
 
         private static class NameMatchingPredicate extends DescribedPredicate<HasName> {
@@ -163,7 +170,7 @@ public interface HasName {
             }
         }
 
-        private static class NameStartingWithPredicate extends DescribedPredicate<HasName> {
+        private static class NameStartingWithPredicate extends DescribedPredicate<HasName> implements JavaClassesIndex.IndexedPredicate {
             private final String prefix;
 
             NameStartingWithPredicate(String prefix) {
@@ -176,6 +183,10 @@ public interface HasName {
                 return input.getName().startsWith(prefix);
             }
 
+            @Override
+            public BitSet findCandidates(JavaClassesIndex index) {
+                return index.getClassesWithNameStartingWith(prefix);
+            }
         }
 
         private static class NameContainingPredicate extends DescribedPredicate<HasName> {
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.net.URI;
+
+import com.tngtech.archunit.Internal;
+
+@Internal
+public final class ArchiveUris {
+    private ArchiveUris() {
+    }
+
+    /**
+     * @return {@code true}, if the {@link URI} points into an archive, i.e. a JAR file or the JDK runtime image (JRT),
+     *         which doesn't come and go like single class files within directories
+     */
+    public static boolean isArchive(URI uri) {
+        return "jar".equals(uri.getScheme()) || "jrt".equals(uri.getScheme());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Detects class files with the same content within one import, e.g. shaded copies of a library,
+ * the same classes within main and test output or the same JAR file on the classpath twice.
+ * Such duplicates would be skipped anyway, since a class with the same name has already been imported,
+ * but detecting them by the hash of their bytes saves parsing them again.
+ * <br><br>
+ * One index is shared by all threads of an import. Since the threads might add class files in any order,
+ * every class file is added together with its position within the import, and only class files
+ * at an earlier position count as earlier class files with the same content.
+ * <br><br>
+ * If md5 sums of class sources are enabled, the md5 sum is used as content hash, so it only has to be digested once
+ * for the {@link com.tngtech.archunit.core.domain.Source Source} and the index. Otherwise, a cheaper hash is used.
+ */
+class ClassFileContentIndex {
+    private static final HashFunction CONTENT_HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final boolean md5InClassSourcesEnabled;
+    private final ConcurrentMap<HashCode, PositionedLocation> firstLocationsByContent = new ConcurrentHashMap<>();
+
+    ClassFileContentIndex(boolean md5InClassSourcesEnabled) {
+        this.md5InClassSourcesEnabled = md5InClassSourcesEnabled;
+    }
+
+    /**
+     * @param position The position of the class file within the import
+     * @return The {@link ClassFileContent} of the class file, telling if a class file with the same content
+     *         has been added at an earlier position
+     */
+    ClassFileContent add(URI uri, int position, byte[] classFileBytes) {
+        Optional<byte[]> md5Bytes = md5InClassSourcesEnabled ? tryDigestMd5(classFileBytes) : Optional.empty();
+        HashCode contentHash = md5Bytes.isPresent()
+                ? HashCode.fromBytes(md5Bytes.get())
+                : CONTENT_HASH_FUNCTION.hashBytes(classFileBytes);
+        return add(uri, position, contentHash, md5Bytes);
+    }
+
+    /**
+     * Like {@link #add(URI, int, byte[])}, but for a class file that has already been hashed before
+     * (e.g. by an earlier import of the same {@link ImportSession}), so its bytes don't need to be read again.
+     */
+    ClassFileContent add(ClassFileContent content, int position) {
+        return add(content.uri, position, content.contentHash, content.md5Bytes);
+    }
+
+    private ClassFileContent add(URI uri, int position, HashCode contentHash, Optional<byte[]> md5Bytes) {
+        PositionedLocation firstLocation = firstLocationsByContent.merge(contentHash, new PositionedLocation(uri, position),
+                (previous, added) -> previous.position <= added.position ? previous : added);
+        Optional<URI> earlierLocation = firstLocation.position < position ? Optional.of(firstLocation.uri) : Optional.empty();
+        return new ClassFileContent(uri, contentHash, md5Bytes, earlierLocation);
+    }
+
+    private static Optional<byte[]> tryDigestMd5(byte[] bytes) {
+        try {
+            return Optional.of(MessageDigest.getInstance("MD5").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static class PositionedLocation {
+        private final URI uri;
+        private final int position;
+
+        PositionedLocation(URI uri, int position) {
+            this.uri = uri;
+            this.position = position;
+        }
+    }
+
+    static class ClassFileContent {
+        private final URI uri;
+        private final HashCode contentHash;
+        private final Optional<byte[]> md5Bytes;
+        private final Optional<URI> earlierLocationWithSameContent;
+
+        private ClassFileContent(URI uri, HashCode contentHash, Optional<byte[]> md5Bytes, Optional<URI> earlierLocationWithSameContent) {
+            this.uri = uri;
+            this.contentHash = contentHash;
+            this.md5Bytes = md5Bytes;
+            this.earlierLocationWithSameContent = earlierLocationWithSameContent;
+        }
+
+        /**
+         * @return The location of a class file with the same content at an earlier position, if any
+         */
+        Optional<URI> getEarlierLocationWithSameContent() {
+            return earlierLocationWithSameContent;
+        }
+
+        SourceDescriptor toSourceDescriptor(boolean md5InClassSourcesEnabled) {
+            return md5Bytes.isPresent()
+                    ? new SourceDescriptor(uri, md5Bytes.get())
+                    : new SourceDescriptor(uri, md5InClassSourcesEnabled);
+        }
+    }
+}
@@ -33,6 +33,7 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.SetMultimap;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType;
 import com.tngtech.archunit.core.domain.JavaMember;
 import com.tngtech.archunit.core.domain.JavaMethod;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaAnnotationBuilder;
@@ -45,6 +46,7 @@ import com.tngtech.archunit.core.importer.DomainBuilders.JavaStaticInitializerBu
 import com.tngtech.archunit.core.importer.DomainBuilders.TryCatchBlockBuilder;
 import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
 import com.tngtech.archunit.core.importer.RawAccessRecord.MemberSignature;
+import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +57,7 @@ import static com.tngtech.archunit.core.importer.JavaClassDescriptorImporter.isL
 import static com.tngtech.archunit.core.importer.JavaClassDescriptorImporter.isSyntheticAccessMethodName;
 import static com.tngtech.archunit.core.importer.JavaClassDescriptorImporter.isSyntheticEnumSwitchMapFieldName;
 import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
 
 class ClassFileImportRecord {
     private static final Logger log = LoggerFactory.getLogger(ClassFileImportRecord.class);
@@ -77,15 +80,28 @@ class ClassFileImportRecord {
     private final Map<String, JavaAnnotationBuilder.ValueBuilder> annotationDefaultValuesByOwner = new HashMap<>();
     private final EnclosingDeclarationsByInnerClasses enclosingDeclarationsByOwner = new EnclosingDeclarationsByInnerClasses();
     private final SetMultimap<String, TryCatchBlockBuilder> tryCatchBlocksByOwner = HashMultimap.create();
+    private final Set<String> namesOfClassesWithDeferredMembers = new HashSet<>();
 
-    private final Set<RawAccessRecord.ForField> rawFieldAccessRecords = new HashSet<>();
-    private final Set<RawAccessRecord> rawMethodCallRecords = new HashSet<>();
-    private final Set<RawAccessRecord> rawConstructorCallRecords = new HashSet<>();
-    private final Set<RawAccessRecord> rawMethodReferenceRecords = new HashSet<>();
-    private final Set<RawAccessRecord> rawConstructorReferenceRecords = new HashSet<>();
+    private final RawAccessRecordStore.ForFieldAccesses rawFieldAccessRecords;
+    private final RawAccessRecordStore.ForAccesses rawMethodCallRecords;
+    private final RawAccessRecordStore.ForAccesses rawConstructorCallRecords;
+    private final RawAccessRecordStore.ForAccesses rawMethodReferenceRecords;
+    private final RawAccessRecordStore.ForAccesses rawConstructorReferenceRecords;
     private final SyntheticAccessRecorder syntheticLambdaAccessRecorder = createSyntheticLambdaAccessRecorder();
     private final SyntheticAccessRecorder syntheticPrivateAccessRecorder = createSyntheticPrivateAccessRecorder();
 
+    ClassFileImportRecord() {
+        this(ImportMemoryBudget.unlimited());
+    }
+
+    ClassFileImportRecord(ImportMemoryBudget memoryBudget) {
+        rawFieldAccessRecords = RawAccessRecordStore.forFieldAccesses(memoryBudget);
+        rawMethodCallRecords = RawAccessRecordStore.forAccesses(memoryBudget);
+        rawConstructorCallRecords = RawAccessRecordStore.forAccesses(memoryBudget);
+        rawMethodReferenceRecords = RawAccessRecordStore.forAccesses(memoryBudget);
+        rawConstructorReferenceRecords = RawAccessRecordStore.forAccesses(memoryBudget);
+    }
+
     void setSuperclass(String ownerName, String superclassName) {
         checkState(!superclassNamesByOwner.containsKey(ownerName),
                 "Attempted to add %s as a second superclass to %s, this is most likely a bug",
@@ -152,6 +168,14 @@ class ClassFileImportRecord {
         tryCatchBlocksByOwner.putAll(getMemberKey(declaringClassName, methodName, descriptor), tryCatchBlocks);
     }
 
+    void deferMembersOf(String ownerName) {
+        namesOfClassesWithDeferredMembers.add(ownerName);
+    }
+
+    boolean hasDeferredMembers(String ownerName) {
+        return namesOfClassesWithDeferredMembers.contains(ownerName);
+    }
+
     Optional<String> getSuperclassFor(String name) {
         return Optional.ofNullable(superclassNamesByOwner.get(name));
     }
@@ -215,30 +239,49 @@ class ClassFileImportRecord {
         return tryCatchBlocksByOwner.get(getMemberKey(codeUnit));
     }
 
-    void registerFieldAccess(RawAccessRecord.ForField record) {
-        if (!isSyntheticEnumSwitchMapFieldName(record.target.name)) {
-            rawFieldAccessRecords.add(record);
+    List<String> getCaughtThrowableNames() {
+        return tryCatchBlocksByOwner.values().stream()
+                .flatMap(TryCatchBlockBuilder::streamCaughtThrowableNames)
+                .distinct()
+                .sorted()
+                .collect(toList());
+    }
+
+    /**
+     * @return the {@link RawAccessRecord#id id} of the recorded access or {@link RawAccessRecord#NO_ID} if the access is not recorded
+     */
+    long registerFieldAccess(CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType) {
+        return !isSyntheticEnumSwitchMapFieldName(target.name)
+                ? rawFieldAccessRecords.add(caller, target, lineNumber, accessType)
+                : RawAccessRecord.NO_ID;
+    }
+
+    /**
+     * @return the {@link RawAccessRecord#id id} of the recorded call or {@link RawAccessRecord#NO_ID} if the call is
+     *         only recorded to fix the origin of other accesses
+     */
+    long registerMethodCall(CodeUnit caller, TargetInfo target, int lineNumber) {
+        if (isSyntheticAccessMethodName(target.name)) {
+            syntheticPrivateAccessRecorder.registerSyntheticMethodInvocation(new RawAccessRecord.Builder()
+                    .withCaller(caller)
+                    .withTarget(target)
+                    .withLineNumber(lineNumber)
+                    .build());
+            return RawAccessRecord.NO_ID;
         }
+        return rawMethodCallRecords.add(caller, target, lineNumber);
     }
 
-    void registerMethodCall(RawAccessRecord record) {
-        if (isSyntheticAccessMethodName(record.target.name)) {
-            syntheticPrivateAccessRecorder.registerSyntheticMethodInvocation(record);
-        } else {
-            rawMethodCallRecords.add(record);
-        }
-    }
-
-    void registerConstructorCall(RawAccessRecord record) {
-        rawConstructorCallRecords.add(record);
+    long registerConstructorCall(CodeUnit caller, TargetInfo target, int lineNumber) {
+        return rawConstructorCallRecords.add(caller, target, lineNumber);
     }
 
-    void registerMethodReference(RawAccessRecord record) {
-        rawMethodReferenceRecords.add(record);
+    long registerMethodReference(CodeUnit caller, TargetInfo target, int lineNumber) {
+        return rawMethodReferenceRecords.add(caller, target, lineNumber);
     }
 
-    void registerConstructorReference(RawAccessRecord record) {
-        rawConstructorReferenceRecords.add(record);
+    long registerConstructorReference(CodeUnit caller, TargetInfo target, int lineNumber) {
+        return rawConstructorReferenceRecords.add(caller, target, lineNumber);
     }
 
     void registerLambdaInvocation(RawAccessRecord record) {
@@ -246,42 +289,52 @@ class ClassFileImportRecord {
     }
 
     void forEachRawFieldAccessRecord(Consumer<RawAccessRecord.ForField> doWithRecord) {
-        fixSyntheticOrigins(
+        try (Stream<RawAccessRecord.ForField> records = fixSyntheticOrigins(
                 rawFieldAccessRecords, COPY_RAW_FIELD_ACCESS_RECORD,
                 syntheticPrivateAccessRecorder, syntheticLambdaAccessRecorder
-        ).forEach(doWithRecord);
+        )) {
+            records.forEach(doWithRecord);
+        }
     }
 
     void forEachRawMethodCallRecord(Consumer<RawAccessRecord> doWithRecord) {
-        fixSyntheticOrigins(
+        try (Stream<RawAccessRecord> records = fixSyntheticOrigins(
                 rawMethodCallRecords, COPY_RAW_ACCESS_RECORD,
                 syntheticPrivateAccessRecorder, syntheticLambdaAccessRecorder
-        ).forEach(doWithRecord);
+        )) {
+            records.forEach(doWithRecord);
+        }
     }
 
     void forEachRawConstructorCallRecord(Consumer<RawAccessRecord> doWithRecord) {
-        fixSyntheticOrigins(
+        try (Stream<RawAccessRecord> records = fixSyntheticOrigins(
                 rawConstructorCallRecords, COPY_RAW_ACCESS_RECORD,
                 syntheticLambdaAccessRecorder
-        ).forEach(doWithRecord);
+        )) {
+            records.forEach(doWithRecord);
+        }
     }
 
     void forEachRawMethodReferenceRecord(Consumer<RawAccessRecord> doWithRecord) {
-        fixSyntheticOrigins(
+        try (Stream<RawAccessRecord> records = fixSyntheticOrigins(
                 rawMethodReferenceRecords, COPY_RAW_ACCESS_RECORD,
                 syntheticPrivateAccessRecorder, syntheticLambdaAccessRecorder
-        ).forEach(doWithRecord);
+        )) {
+            records.forEach(doWithRecord);
+        }
     }
 
     void forEachRawConstructorReferenceRecord(Consumer<RawAccessRecord> doWithRecord) {
-        fixSyntheticOrigins(
+        try (Stream<RawAccessRecord> records = fixSyntheticOrigins(
                 rawConstructorReferenceRecords, COPY_RAW_ACCESS_RECORD,
                 syntheticLambdaAccessRecorder
-        ).forEach(doWithRecord);
+        )) {
+            records.forEach(doWithRecord);
+        }
     }
 
     private <ACCESS extends RawAccessRecord> Stream<ACCESS> fixSyntheticOrigins(
-            Set<ACCESS> rawAccessRecordsIncludingSyntheticAccesses,
+            RawAccessRecordStore<ACCESS> rawAccessRecordsIncludingSyntheticAccesses,
             Function<ACCESS, ? extends RawAccessRecord.BaseBuilder<ACCESS, ?>> createAccessWithNewOrigin,
             SyntheticAccessRecorder... syntheticAccessRecorders
     ) {
@@ -293,6 +346,18 @@ class ClassFileImportRecord {
         return result;
     }
 
+    /**
+     * Releases the memory budget and the spill files of the recorded accesses, if this record will not be completed
+     * (e.g. because the class files have been imported again into another record).
+     */
+    void discard() {
+        rawFieldAccessRecords.discard();
+        rawMethodCallRecords.discard();
+        rawConstructorCallRecords.discard();
+        rawMethodReferenceRecords.discard();
+        rawConstructorReferenceRecords.discard();
+    }
+
     void add(JavaClass javaClass) {
         classes.put(javaClass.getName(), javaClass);
     }
@@ -301,6 +366,72 @@ class ClassFileImportRecord {
         return classes;
     }
 
+    /**
+     * Adds everything recorded by {@code other} to this record. Assumes that both records contain
+     * distinct classes, as it is the case if they have been filled from disjoint class files.
+     */
+    void addAll(ClassFileImportRecord other) {
+        classes.putAll(other.classes);
+        other.superclassNamesByOwner.forEach(superclassNamesByOwner::putIfAbsent);
+        interfaceNamesByOwner.putAll(other.interfaceNamesByOwner);
+        typeParametersBuilderByOwner.putAll(other.typeParametersBuilderByOwner);
+        genericSuperclassBuilderByOwner.putAll(other.genericSuperclassBuilderByOwner);
+        genericInterfaceBuildersByOwner.putAll(other.genericInterfaceBuildersByOwner);
+        fieldBuildersByOwner.putAll(other.fieldBuildersByOwner);
+        methodBuildersByOwner.putAll(other.methodBuildersByOwner);
+        constructorBuildersByOwner.putAll(other.constructorBuildersByOwner);
+        other.staticInitializerBuildersByOwner.forEach(staticInitializerBuildersByOwner::putIfAbsent);
+        annotationsByOwner.putAll(other.annotationsByOwner);
+        annotationDefaultValuesByOwner.putAll(other.annotationDefaultValuesByOwner);
+        enclosingDeclarationsByOwner.addAll(other.enclosingDeclarationsByOwner);
+        tryCatchBlocksByOwner.putAll(other.tryCatchBlocksByOwner);
+        namesOfClassesWithDeferredMembers.addAll(other.namesOfClassesWithDeferredMembers);
+
+        // the stores of other are merged without copying, thus the ids of its accesses stay valid
+        rawFieldAccessRecords.addAll(other.rawFieldAccessRecords);
+        rawMethodCallRecords.addAll(other.rawMethodCallRecords);
+        rawConstructorCallRecords.addAll(other.rawConstructorCallRecords);
+        rawMethodReferenceRecords.addAll(other.rawMethodReferenceRecords);
+        rawConstructorReferenceRecords.addAll(other.rawConstructorReferenceRecords);
+        syntheticLambdaAccessRecorder.addAll(other.syntheticLambdaAccessRecorder);
+        syntheticPrivateAccessRecorder.addAll(other.syntheticPrivateAccessRecorder);
+    }
+
+    /**
+     * Removes everything recorded for the given classes, e.g. because classes with the same names have already been
+     * imported from earlier class files. Accesses from within these classes are skipped when the record is streamed.
+     */
+    void removeClasses(Set<String> classNames) {
+        if (classNames.isEmpty()) {
+            return;
+        }
+
+        classes.keySet().removeAll(classNames);
+        superclassNamesByOwner.keySet().removeAll(classNames);
+        interfaceNamesByOwner.keySet().removeAll(classNames);
+        typeParametersBuilderByOwner.keySet().removeAll(classNames);
+        genericSuperclassBuilderByOwner.keySet().removeAll(classNames);
+        genericInterfaceBuildersByOwner.keySet().removeAll(classNames);
+        fieldBuildersByOwner.keySet().removeAll(classNames);
+        methodBuildersByOwner.keySet().removeAll(classNames);
+        constructorBuildersByOwner.keySet().removeAll(classNames);
+        staticInitializerBuildersByOwner.keySet().removeAll(classNames);
+        // class annotations are recorded by the class name, member annotations by the member key
+        annotationsByOwner.keySet().removeIf(key -> classNames.contains(getOwnerName(key)));
+        annotationDefaultValuesByOwner.keySet().removeIf(key -> classNames.contains(getOwnerName(key)));
+        enclosingDeclarationsByOwner.removeAll(classNames);
+        tryCatchBlocksByOwner.keySet().removeIf(key -> classNames.contains(getOwnerName(key)));
+        namesOfClassesWithDeferredMembers.removeAll(classNames);
+
+        rawFieldAccessRecords.skipCallersDeclaredIn(classNames);
+        rawMethodCallRecords.skipCallersDeclaredIn(classNames);
+        rawConstructorCallRecords.skipCallersDeclaredIn(classNames);
+        rawMethodReferenceRecords.skipCallersDeclaredIn(classNames);
+        rawConstructorReferenceRecords.skipCallersDeclaredIn(classNames);
+        syntheticLambdaAccessRecorder.removeCallersDeclaredIn(classNames);
+        syntheticPrivateAccessRecorder.removeCallersDeclaredIn(classNames);
+    }
+
     private static final Function<RawAccessRecord, RawAccessRecord.Builder> COPY_RAW_ACCESS_RECORD =
             access -> new RawAccessRecord.Builder()
                     .withCaller(access.caller)
@@ -344,6 +475,11 @@ class ClassFileImportRecord {
         return declaringClassName + "|" + methodName + "|" + descriptor;
     }
 
+    private static String getOwnerName(String key) {
+        int endOfOwnerName = key.indexOf('|');
+        return endOfOwnerName >= 0 ? key.substring(0, endOfOwnerName) : key;
+    }
+
     private static class EnclosingDeclarationsByInnerClasses {
         private final Map<String, String> innerClassNameToEnclosingClassName = new HashMap<>();
         private final Map<String, CodeUnit> innerClassNameToEnclosingCodeUnit = new HashMap<>();
@@ -364,6 +500,16 @@ class ClassFileImportRecord {
             innerClassNameToEnclosingCodeUnit.put(innerName, codeUnit);
         }
 
+        void removeAll(Set<String> innerNames) {
+            innerClassNameToEnclosingClassName.keySet().removeAll(innerNames);
+            innerClassNameToEnclosingCodeUnit.keySet().removeAll(innerNames);
+        }
+
+        void addAll(EnclosingDeclarationsByInnerClasses other) {
+            other.innerClassNameToEnclosingClassName.forEach(innerClassNameToEnclosingClassName::putIfAbsent);
+            other.innerClassNameToEnclosingCodeUnit.forEach(innerClassNameToEnclosingCodeUnit::putIfAbsent);
+        }
+
         Optional<String> getEnclosingClassName(String ownerName) {
             return Optional.ofNullable(innerClassNameToEnclosingClassName.get(ownerName));
         }
@@ -390,6 +536,14 @@ class ClassFileImportRecord {
             rawSyntheticMethodInvocationRecordsByTarget.put(getMemberKey(record.target), record);
         }
 
+        void removeCallersDeclaredIn(Set<String> classNames) {
+            rawSyntheticMethodInvocationRecordsByTarget.values().removeIf(record -> classNames.contains(record.caller.getDeclaringClassName()));
+        }
+
+        void addAll(SyntheticAccessRecorder other) {
+            rawSyntheticMethodInvocationRecordsByTarget.putAll(other.rawSyntheticMethodInvocationRecordsByTarget);
+        }
+
         <ACCESS extends RawAccessRecord> Optional<ACCESS> fixSyntheticAccess(
                 ACCESS access,
                 Function<ACCESS, ? extends RawAccessRecord.BaseBuilder<ACCESS, ?>> copyAccess
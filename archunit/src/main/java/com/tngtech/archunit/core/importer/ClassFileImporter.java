@@ -15,6 +15,7 @@
  */
 package com.tngtech.archunit.core.importer;
 
+import java.net.URI;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -25,6 +26,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.jar.JarFile;
+import java.util.stream.Stream;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -33,13 +35,17 @@ import com.tngtech.archunit.ArchConfiguration;
 import com.tngtech.archunit.PublicAPI;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.Source;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolverFromClasspath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+import static com.tngtech.archunit.core.importer.ImportStatistics.Phase.LOCATE_CLASS_FILES;
 import static java.util.Arrays.stream;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toSet;
@@ -74,6 +80,13 @@ import static java.util.stream.Collectors.toSet;
  * important to ensure that all relevant classes are imported, even if those might be classes
  * from the JDK (like {@link RuntimeException} or {@link Exception}).
  * <br><br>
+ * {@link ClassFileImporter} is immutable and thread-safe, i.e. the same instance can run several imports concurrently
+ * (e.g. to check several modules of a build in parallel threads). Each import reads the {@link ArchConfiguration}
+ * of the thread calling it and creates its own {@link ClassResolver}, while all imports of the JVM share their caches
+ * (e.g. the entries of archives, the locations of the classpath, resolved class files and canonical class and member names).
+ * A {@link ImportStatisticsListener} passed to {@link #withStatisticsListener(ImportStatisticsListener)} is then notified
+ * concurrently as well.
+ * <br><br>
  * For further information consult the ArchUnit user guide.
  *
  * @see ArchConfiguration
@@ -81,7 +94,15 @@ import static java.util.stream.Collectors.toSet;
 public final class ClassFileImporter {
     private static final Logger LOG = LoggerFactory.getLogger(ClassFileImporter.class);
 
+    static final String LOG_STATISTICS_PROPERTY_NAME = "import.logStatistics";
+    private static final ImportStatisticsListener NO_STATISTICS_LISTENER = statistics -> {
+    };
+
     private final ImportOptions importOptions;
+    private final int parallelism;
+    private final boolean importCodeUnitBodies;
+    private final ImportStatisticsListener statisticsListener;
+    private final ImportSession importSession;
 
     @PublicAPI(usage = ACCESS)
     public ClassFileImporter() {
@@ -90,7 +111,20 @@ public final class ClassFileImporter {
 
     @PublicAPI(usage = ACCESS)
     public ClassFileImporter(ImportOptions importOptions) {
+        this(importOptions, 1, true, NO_STATISTICS_LISTENER, ImportSession.none());
+    }
+
+    private ClassFileImporter(
+            ImportOptions importOptions,
+            int parallelism,
+            boolean importCodeUnitBodies,
+            ImportStatisticsListener statisticsListener,
+            ImportSession importSession) {
         this.importOptions = importOptions;
+        this.parallelism = parallelism;
+        this.importCodeUnitBodies = importCodeUnitBodies;
+        this.statisticsListener = statisticsListener;
+        this.importSession = importSession;
     }
 
     /**
@@ -102,7 +136,77 @@ public final class ClassFileImporter {
      */
     @PublicAPI(usage = ACCESS)
     public ClassFileImporter withImportOption(ImportOption option) {
-        return new ClassFileImporter(importOptions.with(option));
+        return new ClassFileImporter(importOptions.with(option), parallelism, importCodeUnitBodies, statisticsListener, importSession);
+    }
+
+    /**
+     * Allows to parse the class files to import concurrently by the given number of threads.
+     * The resulting {@link JavaClasses} will be the same as for a sequential import,
+     * only the time spent reading and parsing class files will be spread over several threads.
+     * If missing dependencies are resolved from the classpath (compare {@link ClassResolverFromClasspath}),
+     * all missing classes of one iteration of the dependency resolution will be looked up concurrently as well.
+     * Completing the imported classes (e.g. their members and dependencies to and from other classes) is also done concurrently.
+     * Note that this object will not be modified, but instead a copy with adjusted behavior will be returned.
+     *
+     * @param parallelism The number of threads to parse class files with. {@code 1} means sequential import (the default).
+     * @return A {@link ClassFileImporter} which parses class files with the given parallelism
+     */
+    @PublicAPI(usage = ACCESS)
+    public ClassFileImporter withParallelism(int parallelism) {
+        checkArgument(parallelism > 0, "Parallelism must be positive, but was %s", parallelism);
+        return new ClassFileImporter(importOptions, parallelism, importCodeUnitBodies, statisticsListener, importSession);
+    }
+
+    /**
+     * Allows to import only the signatures of classes, i.e. their supertypes, members, type parameters and annotations,
+     * but to skip the bodies of methods, constructors and static initializers. This considerably reduces the time
+     * and memory consumed by the import, if the rules to check only refer to names, annotations or the class hierarchy.
+     * Note that this object will not be modified, but instead a copy with adjusted behavior will be returned.
+     * <br><br>
+     * Classes imported this way will not contain any accesses (e.g. field accesses, method calls, ...),
+     * {@link com.tngtech.archunit.core.domain.TryCatchBlock try-catch blocks}, referenced class objects
+     * or instanceof checks. Thus, any dependency originating from code unit bodies will be missing,
+     * as well as the line numbers of code units.
+     *
+     * @return A {@link ClassFileImporter} which skips the bodies of code units
+     */
+    @PublicAPI(usage = ACCESS)
+    public ClassFileImporter withoutCodeUnitBodies() {
+        return new ClassFileImporter(importOptions, parallelism, false, statisticsListener, importSession);
+    }
+
+    /**
+     * Allows to observe where the time of each import goes, e.g. to tune {@link ImportOption ImportOptions}
+     * or the resolution of missing classes on large code bases. After every import the given listener will be called
+     * with the {@link ImportStatistics} of this import. Note that this object will not be modified,
+     * but instead a copy with adjusted behavior will be returned.
+     * <br><br>
+     * To simply log the {@link ImportStatistics} of every import, configure
+     * <pre><code>{@value #LOG_STATISTICS_PROPERTY_NAME}=true</code></pre>
+     * within your {@value ArchConfiguration#ARCHUNIT_PROPERTIES_RESOURCE_NAME}.
+     *
+     * @param statisticsListener A listener to be notified about the {@link ImportStatistics} of every import
+     * @return A {@link ClassFileImporter} which notifies the given listener about its imports
+     */
+    @PublicAPI(usage = ACCESS)
+    public ClassFileImporter withStatisticsListener(ImportStatisticsListener statisticsListener) {
+        return new ClassFileImporter(importOptions, parallelism, importCodeUnitBodies, checkNotNull(statisticsListener), importSession);
+    }
+
+    /**
+     * Allows several imports of overlapping scopes to share their work, e.g. if many tests within the same JVM import
+     * packages that have most of their classes in common. Every import of all {@link ClassFileImporter ClassFileImporters}
+     * with the same {@link ImportSession} reuses the {@link Location locations} of packages and the parsed class files
+     * of the earlier imports, so only the class graph has to be created again.
+     * Note that this object will not be modified, but instead a copy with adjusted behavior will be returned.
+     *
+     * @param importSession The {@link ImportSession} to share between imports
+     * @return A {@link ClassFileImporter} which shares the work of its imports via the given {@link ImportSession}
+     * @see ImportSession
+     */
+    @PublicAPI(usage = ACCESS)
+    public ClassFileImporter withImportSession(ImportSession importSession) {
+        return new ClassFileImporter(importOptions, parallelism, importCodeUnitBodies, statisticsListener, checkNotNull(importSession));
     }
 
     /**
@@ -196,7 +300,7 @@ public final class ClassFileImporter {
     @PublicAPI(usage = ACCESS)
     public JavaClasses importPackages(Collection<String> packages) {
         Set<Location> locations = packages.stream()
-                .flatMap(pkg -> Locations.ofPackage(pkg).stream())
+                .flatMap(pkg -> importSession.locationsOfPackage(pkg).stream())
                 .collect(toSet());
         return importLocations(locations);
     }
@@ -249,7 +353,7 @@ public final class ClassFileImporter {
      */
     @PublicAPI(usage = ACCESS)
     public JavaClasses importClasspath(ImportOptions options) {
-        return new ClassFileImporter(options).importLocations(Locations.inClassPath());
+        return new ClassFileImporter(options, parallelism, importCodeUnitBodies, statisticsListener, importSession).importLocations(Locations.inClassPath());
     }
 
     /**
@@ -316,14 +420,91 @@ public final class ClassFileImporter {
      */
     @PublicAPI(usage = ACCESS)
     public JavaClasses importLocations(Collection<Location> locations) {
+        ImportStatisticsRecorder statistics = new ImportStatisticsRecorder();
+        ClassFileSource source = statistics.measure(LOCATE_CLASS_FILES, () -> classFileSourceOf(locations));
+        return process(source, statistics);
+    }
+
+    /**
+     * Imports the class files at the given {@link Location locations} one by one, as the returned {@link Stream} is consumed,
+     * instead of building one {@link JavaClasses} graph of all classes. This allows to check simple properties of single classes
+     * (e.g. names, modifiers, members or annotations) for huge amounts of class files with a fixed amount of memory,
+     * since only the class currently processed is kept in memory.
+     * <br><br>
+     * Note that each class is imported in isolation, i.e. all other classes it refers to (e.g. its superclass, enclosing class,
+     * annotation types or targets of accesses) will be stubs with only a name, no matter if they are at the given
+     * {@link Location locations} as well. No missing dependencies are resolved and
+     * dependencies from other classes to the streamed class are unknown.
+     * Rules depending on these relations need a {@link JavaClasses} graph imported by {@link #importLocations(Collection)}.
+     * <br><br>
+     * The class files are always imported sequentially by the thread consuming the {@link Stream},
+     * i.e. {@link #withParallelism(int)} does not apply to streaming.
+     *
+     * @param locations The {@link Location locations} to import class files from
+     * @return A {@link Stream} importing one {@link JavaClass} per class file on demand
+     */
+    @PublicAPI(usage = ACCESS)
+    public Stream<JavaClass> streamLocations(Collection<Location> locations) {
+        return new ClassFileProcessor(1, importCodeUnitBodies, new ImportStatisticsRecorder(), ImportSession.none()).processInIsolation(classFileSourceOf(locations));
+    }
+
+    /**
+     * Imports all class files at the given {@link Location locations} like {@link #importLocations(Collection)},
+     * but only parses those class files again that have been added or modified since the previous import.
+     * This relies on the {@link ImportSession} of this importer (compare {@link #withImportSession(ImportSession)}),
+     * which must also have been used to import {@code previousClasses}. The class graph is then created from the
+     * class files recorded by the session and the ones parsed again. If none of the class files at the given
+     * {@link Location locations} has been added, removed or modified, {@code previousClasses} are returned as they are.
+     * <br><br>
+     * Like for the {@link ImportSession}, class files within directories are considered modified as soon as their
+     * last modified timestamp or size changes, while class files within archives are assumed not to change.
+     * Without {@link ImportSession} all class files are imported again.
+     * Also note that changes of classes that are resolved from outside the given {@link Location locations}
+     * (compare {@link ClassFileImporter}) are only detected, if they need to be resolved again.
+     *
+     * @param previousClasses Classes previously imported from the given {@link Location locations} with the same {@link ImportSession}
+     * @param locations The {@link Location locations} to import class files from
+     * @return {@code previousClasses}, if nothing has changed, otherwise {@link JavaClasses} imported again
+     */
+    @PublicAPI(usage = ACCESS)
+    public JavaClasses reimportLocations(JavaClasses previousClasses, Collection<Location> locations) {
+        ImportStatisticsRecorder statistics = new ImportStatisticsRecorder();
+        ClassFileSource source = statistics.measure(LOCATE_CLASS_FILES, () -> classFileSourceOf(locations));
+        Set<URI> previousClassFileUris = previousClasses.stream()
+                .flatMap(javaClass -> javaClass.getSource().map(Source::getUri).map(Stream::of).orElse(Stream.empty()))
+                .collect(toSet());
+        if (new ClassFileProcessor(parallelism, importCodeUnitBodies, statistics, importSession).isRecordedUnchanged(source, previousClassFileUris)) {
+            LOG.debug("No class files have changed at {}, reusing previously imported classes", locations);
+            return previousClasses;
+        }
+        return process(source, statistics);
+    }
+
+    private JavaClasses process(ClassFileSource source, ImportStatisticsRecorder statistics) {
+        boolean logStatistics = Boolean.parseBoolean(ArchConfiguration.get().getPropertyOrDefault(LOG_STATISTICS_PROPERTY_NAME, "false"));
+        JavaClasses result = importSession.runImport(() -> new ClassFileProcessor(parallelism, importCodeUnitBodies, statistics, importSession).process(source));
+
+        ImportStatistics importStatistics = statistics.getStatistics();
+        if (logStatistics) {
+            LOG.info("{}", importStatistics);
+        }
+        statisticsListener.onImportFinished(importStatistics);
+        return result;
+    }
+
+    private ClassFileSource classFileSourceOf(Collection<Location> locations) {
         List<ClassFileSource> sources = new ArrayList<>();
         for (Location location : locations) {
             tryAdd(sources, location);
         }
-        return new ClassFileProcessor().process(unify(sources));
+        return unify(sources);
     }
 
     private void tryAdd(List<ClassFileSource> sources, Location location) {
+        if (importOptions.excludeEverythingBeneath(location)) {
+            LOG.debug("Skipping {}, since all class files within are excluded by the import options", location);
+            return;
+        }
         try {
             sources.add(location.asClassFileSource(importOptions));
         } catch (Exception e) {
@@ -18,15 +18,29 @@ package com.tngtech.archunit.core.importer;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.io.CountingInputStream;
 import com.tngtech.archunit.ArchConfiguration;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaClassDescriptor;
 import com.tngtech.archunit.core.domain.JavaClasses;
 import com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType;
+import com.tngtech.archunit.core.importer.ClassFileContentIndex.ClassFileContent;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaAnnotationBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaClassTypeParametersBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaConstructorBuilder;
@@ -35,44 +49,326 @@ import com.tngtech.archunit.core.importer.DomainBuilders.JavaMethodBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaParameterizedTypeBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaStaticInitializerBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.TryCatchBlockBuilder;
+import com.tngtech.archunit.core.importer.ImportSession.ParsingMode;
 import com.tngtech.archunit.core.importer.JavaClassProcessor.AccessHandler;
 import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
 import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
+import com.tngtech.archunit.core.importer.RecordedClassFile.Recorder;
 import com.tngtech.archunit.core.importer.TryCatchRecorder.TryCatchBlocksFinishedListener;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver.ClassUriImporter;
+import com.tngtech.archunit.core.importer.resolvers.ClassResolverFromClasspath;
+import com.tngtech.archunit.core.importer.resolvers.SelectedClassResolverFromClasspath;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Label;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.io.ByteStreams.toByteArray;
 import static com.tngtech.archunit.core.domain.JavaConstructor.CONSTRUCTOR_NAME;
+import static com.tngtech.archunit.core.importer.ImportStatistics.Phase.PARSE_CLASS_FILES;
+import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.objectweb.asm.Opcodes.ASM9;
 
 class ClassFileProcessor {
     private static final Logger LOG = LoggerFactory.getLogger(ClassFileProcessor.class);
 
     static final int ASM_API_VERSION = ASM9;
+    private static final int CHUNKS_PER_THREAD = 4;
 
     private final boolean md5InClassSourcesEnabled = ArchConfiguration.get().md5InClassSourcesEnabled();
+    private final int readAheadThreads = ClassFileReadAhead.threadsFromConfiguration();
     private final ClassResolver.Factory classResolverFactory = new ClassResolver.Factory();
+    private final int parallelism;
+    private final boolean importCodeUnitBodies;
+    private final ImportStatisticsRecorder statistics;
+    private final ImportSession session;
+
+    ClassFileProcessor() {
+        this(1, true, new ImportStatisticsRecorder(), ImportSession.none());
+    }
+
+    ClassFileProcessor(int parallelism, boolean importCodeUnitBodies, ImportStatisticsRecorder statistics, ImportSession session) {
+        this.parallelism = parallelism;
+        this.importCodeUnitBodies = importCodeUnitBodies;
+        this.statistics = statistics;
+        this.session = session;
+    }
 
     JavaClasses process(ClassFileSource source) {
+        ImportMemoryBudget memoryBudget = ImportMemoryBudget.fromConfiguration();
+        ClassFileImportRecord importRecord = new ClassFileImportRecord(memoryBudget);
+        DependencyResolutionProcess dependencyResolutionProcess = new DependencyResolutionProcess();
+        NameTable names = new NameTable();
+        ClassFileContentIndex contentIndex = new ClassFileContentIndex(md5InClassSourcesEnabled);
+        try (ImportExecutor executor = new ImportExecutor(parallelism, readAheadThreads)) {
+            ClassFileReadAhead readAhead = ClassFileReadAhead.of(executor);
+            statistics.measure(PARSE_CLASS_FILES, () -> {
+                if (executor.isConcurrent()) {
+                    importInParallel(source, importRecord, dependencyResolutionProcess, names, contentIndex, memoryBudget, readAhead, executor);
+                } else {
+                    importClassFiles(source, 0, readAhead, importRecord, dependencyResolutionProcess, names, contentIndex);
+                }
+            });
+            statistics.onClassesImported(importRecord.getClasses().size());
+            ClassDetailsRecorder classDetailsRecorder = new ClassDetailsRecorder(importRecord, dependencyResolutionProcess);
+            boolean deferMembers = dependencyResolutionProcess.shouldDeferMembersOfResolvedClasses();
+            ClassResolver classResolver = getClassResolver(classDetailsRecorder, names, deferMembers);
+            return new ClassGraphCreator(
+                    importRecord, dependencyResolutionProcess, classResolver, resolutionExecutorFor(classResolver, executor), statistics,
+                    new DeferredMembersImporter(classReaderParsingOptions())).complete();
+        } catch (RuntimeException | Error e) {
+            // spill files of records that have not been streamed would otherwise be left behind
+            importRecord.discard();
+            throw e;
+        }
+    }
+
+    /**
+     * @return {@code true}, if the class files of the source are exactly the class files at the given {@link URI URIs},
+     *         and the session has recorded each of them since it has last been modified
+     */
+    boolean isRecordedUnchanged(ClassFileSource source, Set<URI> classFileUris) {
+        ParsingMode parsingMode = ParsingMode.ofImportedClassFiles(importCodeUnitBodies, md5InClassSourcesEnabled);
+        Set<URI> remainingClassFileUris = new HashSet<>(classFileUris);
+        for (ClassFileLocation location : source) {
+            if (!remainingClassFileUris.remove(location.getUri()) || !session.getRecordedClassFile(location.getUri(), parsingMode).isPresent()) {
+                LOG.debug("Class file {} has changed since the previous import", location.getUri());
+                return false;
+            }
+        }
+        return remainingClassFileUris.isEmpty();
+    }
+
+    /**
+     * Imports every class file of the source on its own, as soon as the returned {@link Stream} requests the next class.
+     * Classes do not know each other, i.e. all referenced classes (like supertypes or targets of accesses) are stubs,
+     * but no more than one class file has to be held in memory at the same time.
+     * The class files are imported sequentially by the thread consuming the {@link Stream}, independent of the parallelism.
+     */
+    Stream<JavaClass> processInIsolation(ClassFileSource source) {
+        return StreamSupport.stream(source.spliterator(), false)
+                .map(this::processInIsolation)
+                .filter(Optional::isPresent)
+                .map(Optional::get);
+    }
+
+    private Optional<JavaClass> processInIsolation(ClassFileLocation location) {
         ClassFileImportRecord importRecord = new ClassFileImportRecord();
         DependencyResolutionProcess dependencyResolutionProcess = new DependencyResolutionProcess();
-        RecordAccessHandler accessHandler = new RecordAccessHandler(importRecord, dependencyResolutionProcess);
+        // a table strongly references all names it has seen, the JVM wide canonical names are only weakly referenced,
+        // so with a table per class file the names can be released together with the streamed class
+        importClassFiles(singleton(location), 0, ClassFileReadAhead.disabled(), importRecord, dependencyResolutionProcess,
+                new NameTable(), new ClassFileContentIndex(md5InClassSourcesEnabled));
+        if (importRecord.getClasses().isEmpty()) {
+            return Optional.empty();
+        }
+        JavaClasses classes = new ClassGraphCreator(importRecord, dependencyResolutionProcess, new ResolvingNothing()).complete();
+        return Optional.of(getOnlyElement(classes));
+    }
+
+    // custom ClassResolvers have never been required to be thread-safe, so only the ones from the classpath are called concurrently
+    private ImportExecutor resolutionExecutorFor(ClassResolver classResolver, ImportExecutor executor) {
+        return classResolver instanceof ClassResolverFromClasspath || classResolver instanceof SelectedClassResolverFromClasspath
+                ? executor
+                : ImportExecutor.sequential();
+    }
+
+    /**
+     * @param positionOfFirstLocation The position of the first location within the whole import,
+     *                                to tell which of several class files with the same content has been the first one
+     */
+    private void importClassFiles(
+            Iterable<ClassFileLocation> locations,
+            int positionOfFirstLocation,
+            ClassFileReadAhead readAhead,
+            ClassFileImportRecord importRecord,
+            DependencyResolutionProcess dependencyResolutionProcess,
+            NameTable names,
+            ClassFileContentIndex contentIndex) {
+
+        AccessHandler accessHandler = importCodeUnitBodies
+                ? new RecordAccessHandler(importRecord, dependencyResolutionProcess, names)
+                : new AccessHandler.NoOp();
         ClassDetailsRecorder classDetailsRecorder = new ClassDetailsRecorder(importRecord, dependencyResolutionProcess);
-        for (ClassFileLocation location : source) {
+        ParsingMode parsingMode = ParsingMode.ofImportedClassFiles(importCodeUnitBodies, md5InClassSourcesEnabled);
+        // the session is asked before reading ahead, so class files that can be replayed are never read
+        Iterable<ClassFileLocation> locationsToImport = readAhead.readAhead(
+                Iterables.transform(locations, location -> withRecordedClassFile(location, parsingMode)),
+                location -> !(location instanceof RecordedClassFileLocation));
+        int nextPosition = positionOfFirstLocation;
+        for (ClassFileLocation location : locationsToImport) {
+            int position = nextPosition++;
+            if (location instanceof RecordedClassFileLocation) {
+                RecordedClassFile recordedClassFile = ((RecordedClassFileLocation) location).recordedClassFile;
+                ClassFileContent content = contentIndex.add(recordedClassFile.getContent().get(), position);
+                if (!isDuplicate(location, content)) {
+                    statistics.onClassFileReused();
+                    recordedClassFile.replayTo(classDetailsRecorder, accessHandler).ifPresent(importRecord::add);
+                }
+                continue;
+            }
+
             try (InputStream s = location.openStream()) {
-                JavaClassProcessor javaClassProcessor =
-                        new JavaClassProcessor(new SourceDescriptor(location.getUri(), md5InClassSourcesEnabled), classDetailsRecorder, accessHandler);
-                new ClassReader(s).accept(javaClassProcessor, 0);
+                byte[] classFileBytes = toByteArray(s);
+                statistics.onClassFileRead(classFileBytes.length);
+                ClassFileContent content = contentIndex.add(location.getUri(), position, classFileBytes);
+                if (isDuplicate(location, content)) {
+                    continue;
+                }
+                Optional<Recorder> recorder = session.tryRecord(classDetailsRecorder, accessHandler);
+                JavaClassProcessor javaClassProcessor = new JavaClassProcessor(
+                        content.toSourceDescriptor(md5InClassSourcesEnabled),
+                        recorder.map(Recorder::getDeclarationHandler).orElse(classDetailsRecorder),
+                        recorder.map(Recorder::getAccessHandler).orElse(accessHandler),
+                        names);
+                new ClassReader(classFileBytes).accept(javaClassProcessor, classReaderParsingOptions());
                 javaClassProcessor.createJavaClass().ifPresent(importRecord::add);
+                recorder.flatMap(it -> it.finish(javaClassProcessor, Optional.of(content)))
+                        .ifPresent(recorded -> session.addRecordedClassFile(location.getUri(), parsingMode, recorded));
             } catch (Exception e) {
                 LOG.warn(String.format("Couldn't import class from %s", location.getUri()), e);
             }
         }
-        return new ClassGraphCreator(importRecord, dependencyResolutionProcess, getClassResolver(classDetailsRecorder)).complete();
+    }
+
+    private ClassFileLocation withRecordedClassFile(ClassFileLocation location, ParsingMode parsingMode) {
+        return session.getRecordedClassFile(location.getUri(), parsingMode)
+                .<ClassFileLocation>map(recordedClassFile -> new RecordedClassFileLocation(location, recordedClassFile))
+                .orElse(location);
+    }
+
+    private boolean isDuplicate(ClassFileLocation location, ClassFileContent content) {
+        if (!content.getEarlierLocationWithSameContent().isPresent()) {
+            return false;
+        }
+        LOG.debug("Skipping class file {}, since it has the same content as {}", location.getUri(), content.getEarlierLocationWithSameContent().get());
+        statistics.onDuplicateClassFileSkipped();
+        return true;
+    }
+
+    /**
+     * Splits the locations into consecutive chunks, which are parsed concurrently into separate records.
+     * The records are then merged in the original order of the locations. Classes that have already been imported
+     * from an earlier chunk are removed from the record of a chunk before merging it, so the first location of a class
+     * wins as if all locations had been imported sequentially. The only difference is that types referenced solely
+     * by such removed classes are still registered to be resolved.
+     * <br><br>
+     * All chunks share one {@link ClassFileContentIndex}, so a class file is not even parsed,
+     * if a class file with the same content is located within an earlier chunk.
+     */
+    private void importInParallel(
+            ClassFileSource source,
+            ClassFileImportRecord importRecord,
+            DependencyResolutionProcess dependencyResolutionProcess,
+            NameTable names,
+            ClassFileContentIndex contentIndex,
+            ImportMemoryBudget memoryBudget,
+            ClassFileReadAhead readAhead,
+            ImportExecutor executor) {
+        List<ClassFileLocation> locations = ImmutableList.copyOf(source);
+        int numberOfChunks = CHUNKS_PER_THREAD * executor.getParallelism();
+        int chunkSize = Math.max(1, (locations.size() + numberOfChunks - 1) / numberOfChunks);
+        List<List<ClassFileLocation>> partitions = Lists.partition(locations, chunkSize);
+        List<ImportChunk> chunks = IntStream.range(0, partitions.size())
+                .mapToObj(i -> new ImportChunk(partitions.get(i), i * chunkSize, names, contentIndex, memoryBudget, readAhead))
+                .collect(toList());
+
+        try {
+            for (Future<?> future : executor.invokeAll(chunks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunks.forEach(chunk -> chunk.importRecord.discard());
+            throw new IllegalStateException("Interrupted while importing classes", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.importRecord.discard());
+            throw new IllegalStateException("Error while importing classes", e.getCause());
+        }
+
+        for (ImportChunk chunk : chunks) {
+            Set<String> classNamesImportedBefore = chunk.importRecord.getClasses().keySet().stream()
+                    .filter(importRecord.getClasses()::containsKey)
+                    .collect(toSet());
+            chunk.importRecord.removeClasses(classNamesImportedBefore);
+            importRecord.addAll(chunk.importRecord);
+            dependencyResolutionProcess.addAll(chunk.dependencyResolutionProcess);
+        }
+    }
+
+    private class ImportChunk implements Callable<Void> {
+        private final List<ClassFileLocation> locations;
+        private final int positionOfFirstLocation;
+        private final NameTable names;
+        private final ClassFileContentIndex contentIndex;
+        private final ClassFileReadAhead readAhead;
+        private final ClassFileImportRecord importRecord;
+        // created by the calling thread, since the resolution process reads the (possibly thread local) ArchConfiguration
+        private final DependencyResolutionProcess dependencyResolutionProcess = new DependencyResolutionProcess();
+
+        ImportChunk(
+                List<ClassFileLocation> locations,
+                int positionOfFirstLocation,
+                NameTable names,
+                ClassFileContentIndex contentIndex,
+                ImportMemoryBudget memoryBudget,
+                ClassFileReadAhead readAhead) {
+            this.locations = locations;
+            this.positionOfFirstLocation = positionOfFirstLocation;
+            this.names = names;
+            this.contentIndex = contentIndex;
+            this.readAhead = readAhead;
+            this.importRecord = new ClassFileImportRecord(memoryBudget);
+        }
+
+        @Override
+        public Void call() {
+            return statistics.measureAllocations(() -> {
+                importClassFiles(locations, positionOfFirstLocation, readAhead, importRecord, dependencyResolutionProcess, names, contentIndex);
+                return null;
+            });
+        }
+    }
+
+    private static class RecordedClassFileLocation implements ClassFileLocation {
+        private final ClassFileLocation location;
+        private final RecordedClassFile recordedClassFile;
+
+        RecordedClassFileLocation(ClassFileLocation location, RecordedClassFile recordedClassFile) {
+            this.location = location;
+            this.recordedClassFile = recordedClassFile;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return location.openStream();
+        }
+
+        @Override
+        public URI getUri() {
+            return location.getUri();
+        }
+    }
+
+    /**
+     * Creates daemon threads that use the context {@link ClassLoader} of the thread that created this factory,
+     * so resources are looked up the same way as if everything was imported by the calling thread.
+     */
+    static class ImportThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "archunit-import-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        }
     }
 
     private static class ClassDetailsRecorder implements DeclarationHandler {
@@ -116,6 +412,11 @@ class ClassFileProcessor {
             importRecord.addGenericInterfaces(ownerName, genericInterfaceBuilders);
         }
 
+        @Override
+        public void onDeferredMembers() {
+            importRecord.deferMembersOf(ownerName);
+        }
+
         @Override
         public void onDeclaredField(JavaFieldBuilder fieldBuilder, String fieldTypeName) {
             importRecord.addField(ownerName, fieldBuilder);
@@ -205,13 +506,15 @@ class ClassFileProcessor {
 
         private final ClassFileImportRecord importRecord;
         private final DependencyResolutionProcess dependencyResolutionProcess;
+        private final NameTable names;
         private CodeUnit codeUnit;
         private int lineNumber;
         private final TryCatchRecorder tryCatchRecorder = new TryCatchRecorder(this);
 
-        private RecordAccessHandler(ClassFileImportRecord importRecord, DependencyResolutionProcess dependencyResolutionProcess) {
+        private RecordAccessHandler(ClassFileImportRecord importRecord, DependencyResolutionProcess dependencyResolutionProcess, NameTable names) {
             this.importRecord = importRecord;
             this.dependencyResolutionProcess = dependencyResolutionProcess;
+            this.names = names;
         }
 
         @Override
@@ -234,46 +537,37 @@ class ClassFileProcessor {
         public void handleFieldInstruction(int opcode, String owner, String name, String desc) {
             AccessType accessType = AccessType.forOpCode(opcode);
             LOG.trace("Found {} access to field {}.{}:{} in line {}", accessType, owner, name, desc, lineNumber);
-            TargetInfo target = new TargetInfo(owner, name, desc);
-            RawAccessRecord.ForField accessRecord = filled(new RawAccessRecord.ForField.Builder(), target)
-                    .withAccessType(accessType)
-                    .build();
-            importRecord.registerFieldAccess(accessRecord);
-            tryCatchRecorder.registerAccess(accessRecord);
+            TargetInfo target = targetInfo(owner, name, desc);
+            long accessId = importRecord.registerFieldAccess(codeUnit, target, lineNumber, accessType);
+            tryCatchRecorder.registerAccess(accessId);
             dependencyResolutionProcess.registerAccessToType(target.owner.getFullyQualifiedClassName());
         }
 
         @Override
         public void handleMethodInstruction(String owner, String name, String desc) {
             LOG.trace("Found call of method {}.{}:{} in line {}", owner, name, desc, lineNumber);
-            TargetInfo target = new TargetInfo(owner, name, desc);
-            RawAccessRecord accessRecord = filled(new RawAccessRecord.Builder(), target).build();
-            if (CONSTRUCTOR_NAME.equals(name)) {
-                importRecord.registerConstructorCall(accessRecord);
-            } else {
-                importRecord.registerMethodCall(accessRecord);
-            }
-            tryCatchRecorder.registerAccess(accessRecord);
+            TargetInfo target = targetInfo(owner, name, desc);
+            long accessId = CONSTRUCTOR_NAME.equals(name)
+                    ? importRecord.registerConstructorCall(codeUnit, target, lineNumber)
+                    : importRecord.registerMethodCall(codeUnit, target, lineNumber);
+            tryCatchRecorder.registerAccess(accessId);
             dependencyResolutionProcess.registerAccessToType(target.owner.getFullyQualifiedClassName());
         }
 
         @Override
         public void handleMethodReferenceInstruction(String owner, String name, String desc) {
             LOG.trace("Found method reference {}.{}:{} in line {}", owner, name, desc, lineNumber);
-            TargetInfo target = new TargetInfo(owner, name, desc);
-            RawAccessRecord accessRecord = filled(new RawAccessRecord.Builder(), target).build();
-            if (CONSTRUCTOR_NAME.equals(name)) {
-                importRecord.registerConstructorReference(accessRecord);
-            } else {
-                importRecord.registerMethodReference(accessRecord);
-            }
-            tryCatchRecorder.registerAccess(accessRecord);
+            TargetInfo target = targetInfo(owner, name, desc);
+            long accessId = CONSTRUCTOR_NAME.equals(name)
+                    ? importRecord.registerConstructorReference(codeUnit, target, lineNumber)
+                    : importRecord.registerMethodReference(codeUnit, target, lineNumber);
+            tryCatchRecorder.registerAccess(accessId);
             dependencyResolutionProcess.registerAccessToType(target.owner.getFullyQualifiedClassName());
         }
 
         @Override
         public void handleLambdaInstruction(String owner, String name, String desc) {
-            TargetInfo target = new TargetInfo(owner, name, desc);
+            TargetInfo target = targetInfo(owner, name, desc);
             importRecord.registerLambdaInvocation(filled(new RawAccessRecord.Builder(), target).build());
         }
 
@@ -299,6 +593,10 @@ class ClassFileProcessor {
             importRecord.addTryCatchBlocks(codeUnit.getDeclaringClassName(), codeUnit.getName(), codeUnit.getDescriptor(), tryCatchBlocks);
         }
 
+        private TargetInfo targetInfo(String owner, String name, String desc) {
+            return new TargetInfo(names.descriptorOf(owner), names.intern(name), names.intern(desc));
+        }
+
         private <BUILDER extends RawAccessRecord.BaseBuilder<?, BUILDER>> BUILDER filled(BUILDER builder, TargetInfo target) {
             return builder
                     .withCaller(codeUnit)
@@ -307,27 +605,97 @@ class ClassFileProcessor {
         }
     }
 
-    private ClassResolver getClassResolver(ClassDetailsRecorder classDetailsRecorder) {
+    // without code unit bodies there are no accesses to record, so ASM can skip the Code attributes altogether
+    private int classReaderParsingOptions() {
+        return importCodeUnitBodies ? 0 : ClassReader.SKIP_CODE;
+    }
+
+    private ClassResolver getClassResolver(ClassDetailsRecorder classDetailsRecorder, NameTable names, boolean deferMembers) {
         ClassResolver classResolver = classResolverFactory.create();
-        classResolver.setClassUriImporter(new UriImporterOfProcessor(classDetailsRecorder, md5InClassSourcesEnabled));
+        classResolver.setClassUriImporter(
+                new UriImporterOfProcessor(classDetailsRecorder, names, statistics, session,
+                        ParsingMode.ofResolvedClassFiles(deferMembers, importCodeUnitBodies, md5InClassSourcesEnabled),
+                        md5InClassSourcesEnabled, classReaderParsingOptions(), deferMembers));
         return classResolver;
     }
 
+    static class ResolvingNothing implements ClassResolver {
+        @Override
+        public void setClassUriImporter(ClassUriImporter classUriImporter) {
+        }
+
+        @Override
+        public Optional<JavaClass> tryResolve(String typeName) {
+            return Optional.empty();
+        }
+    }
+
     private static class UriImporterOfProcessor implements ClassUriImporter {
+        private static final AccessHandler NO_ACCESS_HANDLER = new AccessHandler.NoOp();
+
         private final DeclarationHandler declarationHandler;
+        private final NameTable names;
+        private final ImportStatisticsRecorder statistics;
+        private final ImportSession session;
+        private final ParsingMode parsingMode;
         private final boolean md5InClassSourcesEnabled;
-
-        UriImporterOfProcessor(DeclarationHandler declarationHandler, boolean md5InClassSourcesEnabled) {
+        private final int classReaderParsingOptions;
+        private final boolean deferMembers;
+
+        UriImporterOfProcessor(
+                DeclarationHandler declarationHandler,
+                NameTable names,
+                ImportStatisticsRecorder statistics,
+                ImportSession session,
+                ParsingMode parsingMode,
+                boolean md5InClassSourcesEnabled,
+                int classReaderParsingOptions,
+                boolean deferMembers) {
             this.declarationHandler = declarationHandler;
+            this.names = names;
+            this.statistics = statistics;
+            this.session = session;
+            this.parsingMode = parsingMode;
             this.md5InClassSourcesEnabled = md5InClassSourcesEnabled;
+            this.classReaderParsingOptions = classReaderParsingOptions;
+            this.deferMembers = deferMembers;
         }
 
+        /**
+         * Might be called concurrently by the {@link ClassResolver}. Reading the class file happens concurrently,
+         * but the parsing is serialized, since all classes are reported to the same {@link DeclarationHandler}.
+         */
         @Override
         public Optional<JavaClass> tryImport(URI uri) {
-            try (InputStream inputStream = uri.toURL().openStream()) {
-                JavaClassProcessor classProcessor = new JavaClassProcessor(new SourceDescriptor(uri, md5InClassSourcesEnabled), declarationHandler);
-                new ClassReader(inputStream).accept(classProcessor, 0);
-                return classProcessor.createJavaClass();
+            Optional<RecordedClassFile> recordedClassFile = session.getRecordedClassFile(uri, parsingMode);
+            if (recordedClassFile.isPresent()) {
+                Optional<JavaClass> result;
+                synchronized (declarationHandler) {
+                    result = recordedClassFile.get().replayTo(declarationHandler, NO_ACCESS_HANDLER);
+                }
+                statistics.onClassFileReused();
+                result.ifPresent(resolved -> statistics.onClassResolved());
+                return result;
+            }
+
+            try (CountingInputStream inputStream = new CountingInputStream(ResolvedClassFileCache.openStream(uri))) {
+                ClassReader classReader = new ClassReader(inputStream);
+                statistics.onClassFileRead(inputStream.getCount());
+                Optional<JavaClass> result;
+                synchronized (declarationHandler) {
+                    SourceDescriptor sourceDescriptor = new SourceDescriptor(uri, md5InClassSourcesEnabled);
+                    Optional<Recorder> recorder = session.tryRecord(declarationHandler, NO_ACCESS_HANDLER);
+                    DeclarationHandler handler = recorder.map(Recorder::getDeclarationHandler).orElse(declarationHandler);
+                    JavaClassProcessor classProcessor = deferMembers
+                            ? JavaClassProcessor.withDeferredMembers(sourceDescriptor, handler, names)
+                            : new JavaClassProcessor(sourceDescriptor, handler, names);
+                    classReader.accept(classProcessor, classReaderParsingOptions);
+                    result = classProcessor.createJavaClass();
+                    recorder.flatMap(it -> it.finish(classProcessor, Optional.empty()))
+                            .ifPresent(recorded -> session.addRecordedClassFile(uri, parsingMode, recorded));
+                }
+                result.ifPresent(resolved -> statistics.onClassResolved());
+                return result;
             } catch (Exception e) {
                 LOG.warn(String.format("Error during import from %s, falling back to simple import", uri), e);
                 return Optional.empty();
@@ -335,4 +703,30 @@ class ClassFileProcessor {
         }
     }
 
+    /**
+     * Imports the members of a class resolved {@link JavaClassProcessor#withDeferredMembers(SourceDescriptor, DeclarationHandler, NameTable) without members}
+     * by reading its class file again. Since this might happen long after the import has finished,
+     * it must not hold on to any state of the import.
+     */
+    static class DeferredMembersImporter {
+        private final int classReaderParsingOptions;
+
+        DeferredMembersImporter(int classReaderParsingOptions) {
+            this.classReaderParsingOptions = classReaderParsingOptions;
+        }
+
+        ClassFileImportRecord importMembersOf(JavaClass owner) {
+            ClassFileImportRecord importRecord = new ClassFileImportRecord();
+            URI uri = owner.getSource().get().getUri();
+            try (InputStream inputStream = ResolvedClassFileCache.openStream(uri)) {
+                ClassDetailsRecorder classDetailsRecorder = new ClassDetailsRecorder(importRecord, new DependencyResolutionProcess());
+                JavaClassProcessor classProcessor = new JavaClassProcessor(new SourceDescriptor(uri, false), classDetailsRecorder, new NameTable());
+                new ClassReader(inputStream).accept(classProcessor, classReaderParsingOptions);
+            } catch (Exception e) {
+                LOG.warn(String.format("Couldn't import members of %s from %s", owner.getName(), uri), e);
+            }
+            return importRecord;
+        }
+    }
+
 }
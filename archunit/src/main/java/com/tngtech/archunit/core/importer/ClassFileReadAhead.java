@@ -0,0 +1,183 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import com.tngtech.archunit.ArchConfiguration;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+
+/**
+ * Reads class files ahead of the threads parsing them, so parsing does not have to wait for the I/O of every single class file
+ * (e.g. on network mounted file systems or a cold page cache). The class files are read (and decompressed, if they are
+ * located within an archive) by the read ahead threads of the {@link ImportExecutor} in the original order of the locations.
+ * The number of class files read ahead is bounded for the whole import, no matter how many threads iterate
+ * over locations concurrently, so at most a few class files per I/O thread are held in memory. Whenever the bound is reached,
+ * the upcoming locations are returned unchanged, i.e. they are read by the consuming thread itself.
+ * <br><br>
+ * Reading ahead is disabled by default. To enable it, configure the number of I/O threads via
+ * <pre><code>{@value #READ_AHEAD_THREADS_PROPERTY_NAME}=4</code></pre>
+ * within {@value ArchConfiguration#ARCHUNIT_PROPERTIES_RESOURCE_NAME}.
+ */
+class ClassFileReadAhead {
+    static final String READ_AHEAD_THREADS_PROPERTY_NAME = "import.readAheadThreads";
+    private static final int CLASS_FILES_AHEAD_PER_THREAD = 16;
+
+    private final ImportExecutor executor;
+    private final int maxClassFilesAhead;
+    // one permit per class file being read or held, shared by all iterators of the import
+    private final Semaphore classFilesAhead;
+
+    private ClassFileReadAhead(ImportExecutor executor) {
+        this.executor = executor;
+        this.maxClassFilesAhead = executor.getReadAheadThreads() * CLASS_FILES_AHEAD_PER_THREAD;
+        this.classFilesAhead = new Semaphore(maxClassFilesAhead);
+    }
+
+    /**
+     * @return The locations in the same order, but with the content of the upcoming locations already being read,
+     *         whenever the next location is requested. If reading ahead is disabled, the locations are returned unchanged.
+     */
+    Iterable<ClassFileLocation> readAhead(Iterable<ClassFileLocation> locations) {
+        return readAhead(locations, location -> true);
+    }
+
+    /**
+     * Like {@link #readAhead(Iterable)}, but only reads the content of those locations that match {@code needsContent}
+     * (e.g. because the class file is not already known from an earlier import). All other locations are returned unchanged.
+     */
+    Iterable<ClassFileLocation> readAhead(Iterable<ClassFileLocation> locations, Predicate<ClassFileLocation> needsContent) {
+        if (maxClassFilesAhead == 0) {
+            return locations;
+        }
+        return () -> new ReadAheadIterator(locations.iterator(), needsContent);
+    }
+
+    static ClassFileReadAhead disabled() {
+        return new ClassFileReadAhead(ImportExecutor.sequential());
+    }
+
+    /**
+     * @return A {@link ClassFileReadAhead} using the read ahead threads of the {@link ImportExecutor},
+     *         i.e. disabled if the {@link ImportExecutor} has no read ahead threads
+     */
+    static ClassFileReadAhead of(ImportExecutor executor) {
+        return new ClassFileReadAhead(executor);
+    }
+
+    static int threadsFromConfiguration() {
+        String threads = ArchConfiguration.get().getPropertyOrDefault(READ_AHEAD_THREADS_PROPERTY_NAME, "0");
+        return Integer.parseInt(threads.trim());
+    }
+
+    private class ReadAheadIterator implements Iterator<ClassFileLocation> {
+        private final Iterator<ClassFileLocation> locations;
+        private final Predicate<ClassFileLocation> needsContent;
+        private final Deque<ClassFileLocation> readAhead = new ArrayDeque<>();
+
+        ReadAheadIterator(Iterator<ClassFileLocation> locations, Predicate<ClassFileLocation> needsContent) {
+            this.locations = locations;
+            this.needsContent = needsContent;
+        }
+
+        @Override
+        public boolean hasNext() {
+            fillReadAhead();
+            return !readAhead.isEmpty();
+        }
+
+        @Override
+        public ClassFileLocation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ClassFileLocation result = readAhead.poll();
+            fillReadAhead();
+            return result;
+        }
+
+        private void fillReadAhead() {
+            while (readAhead.size() < maxClassFilesAhead && locations.hasNext()) {
+                boolean mayReadAhead = classFilesAhead.tryAcquire();
+                if (!mayReadAhead && !readAhead.isEmpty()) {
+                    return;
+                }
+                ClassFileLocation location = locations.next();
+                if (mayReadAhead && needsContent.test(location)) {
+                    readAhead.add(new ReadAheadClassFileLocation(location.getUri(), executor.submitReadAhead(() -> read(location))));
+                } else {
+                    if (mayReadAhead) {
+                        classFilesAhead.release();
+                    }
+                    // if the bound of the import is reached, the consumer reads the location itself
+                    readAhead.add(location);
+                }
+            }
+        }
+
+        private byte[] read(ClassFileLocation location) throws IOException {
+            try (InputStream in = location.openStream()) {
+                return toByteArray(in);
+            }
+        }
+    }
+
+    private class ReadAheadClassFileLocation implements ClassFileLocation {
+        private final URI uri;
+        private final Future<byte[]> content;
+        private final AtomicBoolean permitReleased = new AtomicBoolean();
+
+        ReadAheadClassFileLocation(URI uri, Future<byte[]> content) {
+            this.uri = uri;
+            this.content = content;
+        }
+
+        @Override
+        public InputStream openStream() {
+            try {
+                return new ByteArrayInputStream(content.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading " + uri, e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            } finally {
+                // from now on the content is held by the consumer, like the content of any location it reads itself
+                if (permitReleased.compareAndSet(false, true)) {
+                    classFilesAhead.release();
+                }
+            }
+        }
+
+        @Override
+        public URI getUri() {
+            return uri;
+        }
+    }
+}
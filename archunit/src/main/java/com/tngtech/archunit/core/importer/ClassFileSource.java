@@ -25,9 +25,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -61,6 +64,13 @@ interface ClassFileSource extends Iterable<ClassFileLocation> {
             return classFileLocations.iterator();
         }
 
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            return importOptions.excludeEverythingBeneath(Location.of(dir))
+                    ? FileVisitResult.SKIP_SUBTREE
+                    : FileVisitResult.CONTINUE;
+        }
+
         @Override
         public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
             if (shouldBeConsidered(file)) {
@@ -95,9 +105,39 @@ interface ClassFileSource extends Iterable<ClassFileLocation> {
         }
 
         FromJar(URL jarUrl, NormalizedResourceName path, ImportOptions importOptions) {
+            Optional<IndexedJarFile> indexedJarFile = IndexedJarFile.tryOpen(jarUrl);
+            classFileLocations = indexedJarFile.isPresent()
+                    ? readClassFileLocations(jarUrl, indexedJarFile.get(), path, importOptions)
+                    : readClassFileLocationsViaConnection(jarUrl, path, importOptions);
+        }
+
+        private List<ClassFileLocation> readClassFileLocations(
+                URL jarUrl, IndexedJarFile jarFile, NormalizedResourceName path, ImportOptions importOptions) {
+
+            Location jarLocation = Location.of(jarUrl);
+            List<ClassFileLocation> result = new ArrayList<>();
+            for (int i = 0; i < jarFile.size(); i++) {
+                String entryName = jarFile.getName(i);
+                if (isClassFileBeneath(path, entryName)) {
+                    URI uri = jarLocation.append(entryName).asURI();
+                    if (importOptions.include(Location.of(uri))) {
+                        int index = i;
+                        result.add(new InputStreamSupplierClassFileLocation(uri, new InputStreamSupplier() {
+                            @Override
+                            InputStream getInputStream() throws IOException {
+                                return jarFile.openStream(index);
+                            }
+                        }));
+                    }
+                }
+            }
+            return result;
+        }
+
+        private List<ClassFileLocation> readClassFileLocationsViaConnection(URL jarUrl, NormalizedResourceName path, ImportOptions importOptions) {
             try {
                 JarURLConnection connection = (JarURLConnection) jarUrl.openConnection();
-                classFileLocations = Collections.list(connection.getJarFile().entries()).stream()
+                return Collections.list(connection.getJarFile().entries()).stream()
                         .filter(classFilesBeneath(path))
                         .map(toClassFilesInJarOf(connection))
                         .filter(by(importOptions))
@@ -109,8 +149,11 @@ interface ClassFileSource extends Iterable<ClassFileLocation> {
         }
 
         private Predicate<JarEntry> classFilesBeneath(final NormalizedResourceName prefix) {
-            return input -> input.getName().startsWith(prefix.toEntryName())
-                    && FileToImport.isRelevant(input.getName());
+            return input -> isClassFileBeneath(prefix, input.getName());
+        }
+
+        private static boolean isClassFileBeneath(NormalizedResourceName prefix, String entryName) {
+            return entryName.startsWith(prefix.toEntryName()) && FileToImport.isRelevant(entryName);
         }
 
         private Function<JarEntry, ClassFileInJar> toClassFilesInJarOf(final JarURLConnection connection) {
@@ -15,19 +15,24 @@
  */
 package com.tngtech.archunit.core.importer;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import com.tngtech.archunit.base.HasDescription;
+import com.tngtech.archunit.base.Suppliers;
 import com.tngtech.archunit.core.domain.AccessTarget;
 import com.tngtech.archunit.core.domain.AccessTarget.ConstructorCallTarget;
 import com.tngtech.archunit.core.domain.AccessTarget.ConstructorReferenceTarget;
@@ -52,6 +57,7 @@ import com.tngtech.archunit.core.domain.JavaStaticInitializer;
 import com.tngtech.archunit.core.domain.JavaType;
 import com.tngtech.archunit.core.domain.JavaTypeVariable;
 import com.tngtech.archunit.core.importer.AccessRecord.FieldAccessRecord;
+import com.tngtech.archunit.core.importer.ClassFileProcessor.DeferredMembersImporter;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaClassTypeParametersBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaConstructorCallBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaConstructorReferenceBuilder;
@@ -74,32 +80,104 @@ import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.compl
 import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.createJavaClasses;
 import static com.tngtech.archunit.core.importer.DomainBuilders.BuilderWithBuildParameter.BuildFinisher.build;
 import static com.tngtech.archunit.core.importer.DomainBuilders.buildAnnotations;
+import static com.tngtech.archunit.core.importer.ImportStatistics.Phase.COMPLETE_CLASS_GRAPH;
+import static com.tngtech.archunit.core.importer.ImportStatistics.Phase.CREATE_JAVA_CLASSES;
+import static com.tngtech.archunit.core.importer.ImportStatistics.Phase.RESOLVE_DEPENDENCIES;
 import static com.tngtech.archunit.core.importer.JavaClassDescriptorImporter.isLambdaMethodName;
 import static com.tngtech.archunit.core.importer.JavaClassDescriptorImporter.isSyntheticAccessMethodName;
 
 class ClassGraphCreator implements ImportContext {
+    private static final int CHUNKS_PER_THREAD = 4;
+
     private final ImportedClasses classes;
 
     private final ClassFileImportRecord importRecord;
     private final DependencyResolutionProcess dependencyResolutionProcess;
-
-    private final SetMultimap<JavaCodeUnit, FieldAccessRecord> processedFieldAccessRecords = HashMultimap.create();
-    private final SetMultimap<JavaCodeUnit, AccessRecord<MethodCallTarget>> processedMethodCallRecords = HashMultimap.create();
-    private final SetMultimap<JavaCodeUnit, AccessRecord<ConstructorCallTarget>> processedConstructorCallRecords = HashMultimap.create();
-    private final SetMultimap<JavaCodeUnit, AccessRecord<MethodReferenceTarget>> processedMethodReferenceRecords = HashMultimap.create();
-    private final SetMultimap<JavaCodeUnit, AccessRecord<ConstructorReferenceTarget>> processedConstructorReferenceRecords = HashMultimap.create();
+    private final ImportStatisticsRecorder statistics;
+    private final DeferredMembersImporter deferredMembersImporter;
+    private final ImportExecutor completionExecutor;
+    private final Supplier<ImportedClasses> classesWithoutResolution;
+    // the classes completion resolves further classes from, compare createJavaClassesOfImport()
+    private ImportedClasses classesToCompleteFrom;
+
+    private final ListMultimap<JavaCodeUnit, FieldAccessRecord> processedFieldAccessRecords = ArrayListMultimap.create();
+    private final ListMultimap<JavaCodeUnit, AccessRecord<MethodCallTarget>> processedMethodCallRecords = ArrayListMultimap.create();
+    private final ListMultimap<JavaCodeUnit, AccessRecord<ConstructorCallTarget>> processedConstructorCallRecords = ArrayListMultimap.create();
+    private final ListMultimap<JavaCodeUnit, AccessRecord<MethodReferenceTarget>> processedMethodReferenceRecords = ArrayListMultimap.create();
+    private final ListMultimap<JavaCodeUnit, AccessRecord<ConstructorReferenceTarget>> processedConstructorReferenceRecords = ArrayListMultimap.create();
 
     ClassGraphCreator(ClassFileImportRecord importRecord, DependencyResolutionProcess dependencyResolutionProcess, ClassResolver classResolver) {
+        this(importRecord, dependencyResolutionProcess, classResolver, ImportExecutor.sequential(), new ImportStatisticsRecorder(), new DeferredMembersImporter(0));
+    }
+
+    ClassGraphCreator(
+            ClassFileImportRecord importRecord,
+            DependencyResolutionProcess dependencyResolutionProcess,
+            ClassResolver classResolver,
+            ImportExecutor resolutionExecutor,
+            ImportStatisticsRecorder statistics,
+            DeferredMembersImporter deferredMembersImporter) {
+        this(importRecord, dependencyResolutionProcess, statistics, deferredMembersImporter, resolutionExecutor, creator ->
+                new ImportedClasses(importRecord.getClasses(), classResolver, resolutionExecutor, statistics, creator::getMethodReturnType));
+    }
+
+    /**
+     * Creates the context to import deferred members from, i.e. the classes of the finished import are reused,
+     * while all missing classes are stubbed.
+     */
+    private ClassGraphCreator(ClassFileImportRecord deferredMembersRecord, ImportedClasses classesOfImport) {
+        this(deferredMembersRecord, new DependencyResolutionProcess(), new ImportStatisticsRecorder(), new DeferredMembersImporter(0), ImportExecutor.sequential(),
+                creator -> classesOfImport.withoutResolution(creator::getMethodReturnType));
+    }
+
+    private ClassGraphCreator(
+            ClassFileImportRecord importRecord,
+            DependencyResolutionProcess dependencyResolutionProcess,
+            ImportStatisticsRecorder statistics,
+            DeferredMembersImporter deferredMembersImporter,
+            ImportExecutor completionExecutor,
+            Function<ClassGraphCreator, ImportedClasses> createImportedClasses) {
         this.importRecord = importRecord;
         this.dependencyResolutionProcess = dependencyResolutionProcess;
-        classes = new ImportedClasses(importRecord.getClasses(), classResolver, this::getMethodReturnType);
+        this.statistics = statistics;
+        this.deferredMembersImporter = deferredMembersImporter;
+        this.completionExecutor = completionExecutor;
+        classes = createImportedClasses.apply(this);
+        classesWithoutResolution = Suppliers.memoize(() -> classes.withoutResolution((declaringClassName, methodName) -> Optional.empty()));
+        classesToCompleteFrom = classes;
     }
 
     JavaClasses complete() {
-        dependencyResolutionProcess.resolve(classes);
-        completeClasses();
-        completeAccesses();
-        return createJavaClasses(classes.getDirectlyImported(), classes.getAllWithOuterClassesSortedBeforeInnerClasses(), this);
+        statistics.measure(RESOLVE_DEPENDENCIES, () -> dependencyResolutionProcess.resolve(classes));
+        statistics.measure(COMPLETE_CLASS_GRAPH, () -> {
+            completeClasses();
+            completeAccesses();
+        });
+        return statistics.measure(CREATE_JAVA_CLASSES, this::createJavaClassesOfImport);
+    }
+
+    /**
+     * Completing classes might resolve further classes, thus classes are only completed concurrently,
+     * if the {@link ClassResolver} may be called concurrently (compare {@link ImportedClasses#ensureAllPresent(Collection)}).
+     * Even then, a resolved class is recorded in the {@link ClassFileImportRecord}, which the completing threads read without any lock.
+     * So the only classes completion resolves (i.e. the caught throwables of try-catch blocks) are resolved up front,
+     * and the concurrent completion itself only stubs classes that are still missing, like {@link ImportedClasses#withoutResolution}.
+     * Array component types don't need to be resolved up front, since they are always present together with their array type.
+     */
+    private JavaClasses createJavaClassesOfImport() {
+        Collection<JavaClass> allClasses = classes.getAllWithOuterClassesSortedBeforeInnerClasses();
+        if (!completionExecutor.isConcurrent()) {
+            return createJavaClasses(classes.getDirectlyImported(), allClasses, this);
+        }
+
+        classes.ensureAllPresent(importRecord.getCaughtThrowableNames());
+        classesToCompleteFrom = classesWithoutResolution.get();
+
+        Executor measuringExecutor = task -> completionExecutor.execute(() -> statistics.measureAllocations(() -> {
+            task.run();
+            return null;
+        }));
+        return createJavaClasses(classes.getDirectlyImported(), allClasses, this, measuringExecutor, CHUNKS_PER_THREAD * completionExecutor.getParallelism());
     }
 
     private void completeClasses() {
@@ -297,6 +375,18 @@ class ClassGraphCreator implements ImportContext {
         return Optional.of(staticInitializer);
     }
 
+    @Override
+    public Optional<Supplier<ImportContext>> createDeferredMembersContext(JavaClass owner) {
+        if (!importRecord.hasDeferredMembers(owner.getName()) || !owner.getSource().isPresent()) {
+            return Optional.empty();
+        }
+
+        // the members might be imported long after the import has finished, so the supplier must not hold on to this ClassGraphCreator
+        DeferredMembersImporter importer = deferredMembersImporter;
+        ImportedClasses classesOfImport = classesWithoutResolution.get();
+        return Optional.of(() -> new ClassGraphCreator(importer.importMembersOf(owner), classesOfImport));
+    }
+
     @Override
     public Map<String, JavaAnnotation<JavaClass>> createAnnotations(JavaClass owner) {
         return createAnnotations(owner, importRecord.getAnnotationsFor(owner));
@@ -336,7 +426,7 @@ class ClassGraphCreator implements ImportContext {
 
     @Override
     public JavaClass resolveClass(String fullyQualifiedClassName) {
-        return classes.getOrResolve(fullyQualifiedClassName);
+        return classesToCompleteFrom.getOrResolve(fullyQualifiedClassName);
     }
 
     private Optional<JavaClass> getMethodReturnType(String declaringClassName, String methodName) {
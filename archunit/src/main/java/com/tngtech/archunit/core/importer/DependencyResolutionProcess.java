@@ -21,11 +21,9 @@ import java.util.Properties;
 import java.util.Set;
 
 import com.tngtech.archunit.ArchConfiguration;
-import com.tngtech.archunit.core.importer.ImportedClasses.ImportedClassState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static com.tngtech.archunit.core.importer.ImportedClasses.ImportedClassState.HAD_TO_BE_IMPORTED;
 import static java.lang.System.lineSeparator;
 
 class DependencyResolutionProcess {
@@ -64,10 +62,18 @@ class DependencyResolutionProcess {
     private final int maxRunsForGenericSignatureTypes = getConfiguredIterations(
             MAX_ITERATIONS_FOR_GENERIC_SIGNATURE_TYPES_PROPERTY_NAME, MAX_ITERATIONS_FOR_GENERIC_SIGNATURE_TYPES_DEFAULT_VALUE);
 
+    static final String DEFER_MEMBERS_OF_RESOLVED_CLASSES_PROPERTY_NAME = "deferMembersOfResolvedClasses";
+    private final boolean deferMembersOfResolvedClasses = Boolean.parseBoolean(
+            resolutionProcessProperties.getProperty(DEFER_MEMBERS_OF_RESOLVED_CLASSES_PROPERTY_NAME, "false"));
+
     private Set<String> currentTypeNames = new HashSet<>();
     private int runNumber = 1;
     private boolean shouldContinue;
 
+    boolean shouldDeferMembersOfResolvedClasses() {
+        return deferMembersOfResolvedClasses;
+    }
+
     void registerMemberType(String typeName) {
         if (runNumberHasNotExceeded(maxRunsForMemberTypes)) {
             currentTypeNames.add(typeName);
@@ -116,6 +122,10 @@ class DependencyResolutionProcess {
         }
     }
 
+    void addAll(DependencyResolutionProcess other) {
+        currentTypeNames.addAll(other.currentTypeNames);
+    }
+
     void resolve(ImportedClasses classes) {
         logConfiguration();
         do {
@@ -141,11 +151,7 @@ class DependencyResolutionProcess {
         runNumber++;
         Set<String> typeNamesToResolve = this.currentTypeNames;
         currentTypeNames = new HashSet<>();
-        shouldContinue = false;
-        for (String typeName : typeNamesToResolve) {
-            ImportedClassState classState = classes.ensurePresent(typeName);
-            shouldContinue = shouldContinue || (classState == HAD_TO_BE_IMPORTED);
-        }
+        shouldContinue = classes.ensureAllPresent(typeNamesToResolve);
     }
 
     private boolean runNumberHasNotExceeded(int maxRuns) {
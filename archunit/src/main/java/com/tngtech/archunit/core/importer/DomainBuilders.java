@@ -499,7 +499,9 @@ public final class DomainBuilders {
         }
 
         public Optional<Source> getSource() {
-            return sourceDescriptor.map(value -> createSource(value.getUri(), sourceFileName, value.isMd5InClassSourcesEnabled()));
+            return sourceDescriptor.map(value -> value.getMd5Bytes().isPresent()
+                    ? createSource(value.getUri(), sourceFileName, value.getMd5Bytes().get())
+                    : createSource(value.getUri(), sourceFileName, value.isMd5InClassSourcesEnabled()));
         }
 
         public JavaClassDescriptor getDescriptor() {
@@ -931,7 +933,7 @@ public final class DomainBuilders {
         private JavaCodeUnit owner;
         private ImportContext context;
         private final Set<JavaAccess<?>> accessesContainedInTryBlock = new HashSet<>();
-        private Set<RawAccessRecord> rawAccessesContainedInTryBlock;
+        private Set<Long> idsOfRawAccessesContainedInTryBlock;
 
         TryCatchBlockBuilder() {
         }
@@ -946,13 +948,13 @@ public final class DomainBuilders {
             return this;
         }
 
-        TryCatchBlockBuilder withRawAccessesInTryBlock(Set<RawAccessRecord> accessRecords) {
-            this.rawAccessesContainedInTryBlock = accessRecords;
+        TryCatchBlockBuilder withIdsOfRawAccessesInTryBlock(Set<Long> accessIds) {
+            this.idsOfRawAccessesContainedInTryBlock = accessIds;
             return this;
         }
 
         void addIfContainedInTryBlock(RawAccessRecord rawRecord, JavaAccess<?> access) {
-            if (rawAccessesContainedInTryBlock.contains(rawRecord)) {
+            if (idsOfRawAccessesContainedInTryBlock.contains(rawRecord.id)) {
                 accessesContainedInTryBlock.add(access);
             }
         }
@@ -971,6 +973,10 @@ public final class DomainBuilders {
             return accessesContainedInTryBlock;
         }
 
+        Stream<String> streamCaughtThrowableNames() {
+            return caughtThrowables.stream().map(JavaClassDescriptor::getFullyQualifiedClassName);
+        }
+
         public Set<JavaClass> getCaughtThrowables() {
             return caughtThrowables.stream()
                     .map(throwable -> context.resolveClass(throwable.getFullyQualifiedClassName()))
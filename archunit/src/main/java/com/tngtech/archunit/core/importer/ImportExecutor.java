@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.tngtech.archunit.core.importer.ClassFileProcessor.ImportThreadFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * The threads of a single import, shared by all phases that work concurrently (i.e. parsing class files,
+ * resolving missing classes and completing the class graph). The thread pool is only created once it is needed
+ * and then reused until the import is finished.
+ * <br><br>
+ * The threads reading class files ahead (compare {@link ClassFileReadAhead}) form a separate pool of the same import,
+ * since the parsing threads wait for the class files being read. If both shared one pool, all threads could end up
+ * waiting for reads that are queued behind them.
+ */
+class ImportExecutor implements AutoCloseable {
+    private final int parallelism;
+    private final int readAheadThreads;
+    private final ImportThreadFactory threadFactory;
+    private ExecutorService executor;
+    private ExecutorService readAheadExecutor;
+
+    /**
+     * Must be created by the thread doing the import, compare {@link ImportThreadFactory}
+     */
+    ImportExecutor(int parallelism) {
+        this(parallelism, 0);
+    }
+
+    /**
+     * Must be created by the thread doing the import, compare {@link ImportThreadFactory}
+     */
+    ImportExecutor(int parallelism, int readAheadThreads) {
+        checkArgument(readAheadThreads >= 0, "Number of read ahead threads must not be negative, but was %s", readAheadThreads);
+        this.parallelism = parallelism;
+        this.readAheadThreads = readAheadThreads;
+        this.threadFactory = new ImportThreadFactory();
+    }
+
+    static ImportExecutor sequential() {
+        return new ImportExecutor(1);
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+
+    int getReadAheadThreads() {
+        return readAheadThreads;
+    }
+
+    boolean isConcurrent() {
+        return parallelism > 1;
+    }
+
+    <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        return getExecutor().invokeAll(tasks);
+    }
+
+    void execute(Runnable task) {
+        getExecutor().execute(task);
+    }
+
+    <T> Future<T> submitReadAhead(Callable<T> task) {
+        return getReadAheadExecutor().submit(task);
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+        }
+        return executor;
+    }
+
+    private synchronized ExecutorService getReadAheadExecutor() {
+        checkState(readAheadThreads > 0, "Reading ahead is disabled for this import");
+        if (readAheadExecutor == null) {
+            readAheadExecutor = Executors.newFixedThreadPool(readAheadThreads, threadFactory);
+        }
+        return readAheadExecutor;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (readAheadExecutor != null) {
+            readAheadExecutor.shutdownNow();
+        }
+    }
+}
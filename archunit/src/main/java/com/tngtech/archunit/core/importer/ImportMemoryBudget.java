@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.tngtech.archunit.ArchConfiguration;
+
+/**
+ * Bounds the heap the {@link RawAccessRecordStore RawAccessRecordStores} of one import may occupy together.
+ * The records of big code bases make up most of the heap of an import, so once the budget is exhausted,
+ * the stores spill their records to temporary files and stream them back when the class graph is completed.
+ * <br><br>
+ * The budget only covers the columns of the stores, i.e. {@code 12} bytes per access ({@code 13} bytes per field access).
+ * It does not cover the interned callers and targets the rows refer to, nor the maps to look up their indexes.
+ * These grow with the number of distinct code units and access targets, not with the number of accesses.
+ * Neither does it cover completing the class graph: all records of the import are streamed back at once then,
+ * and turned into the accesses of the class graph. So the budget bounds the heap while the class files are parsed,
+ * but not the peak of the whole import.
+ * <br><br>
+ * The budget is configured in megabytes via the {@link ArchConfiguration} property {@value #MEMORY_BUDGET_PROPERTY_NAME}.
+ * By default, it is unlimited. Stores might be filled concurrently, thus the budget is thread-safe.
+ */
+class ImportMemoryBudget {
+    static final String MEMORY_BUDGET_PROPERTY_NAME = "import.accessRecordMemoryBudgetInMb";
+
+    private final long budgetInBytes;
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    private ImportMemoryBudget(long budgetInBytes) {
+        this.budgetInBytes = budgetInBytes;
+    }
+
+    /**
+     * @return {@code true}, if the bytes could be allocated within the budget, {@code false} if this would exceed the budget
+     */
+    boolean tryAllocate(long bytes) {
+        long allocated;
+        do {
+            allocated = allocatedBytes.get();
+            if (bytes > budgetInBytes - allocated) {
+                return false;
+            }
+        } while (!allocatedBytes.compareAndSet(allocated, allocated + bytes));
+        return true;
+    }
+
+    void release(long bytes) {
+        allocatedBytes.addAndGet(-bytes);
+    }
+
+    static ImportMemoryBudget unlimited() {
+        return new ImportMemoryBudget(Long.MAX_VALUE);
+    }
+
+    static ImportMemoryBudget ofBytes(long budgetInBytes) {
+        return new ImportMemoryBudget(budgetInBytes);
+    }
+
+    static ImportMemoryBudget fromConfiguration() {
+        String budgetInMb = ArchConfiguration.get().getPropertyOrDefault(MEMORY_BUDGET_PROPERTY_NAME, "");
+        return budgetInMb.trim().isEmpty() ? unlimited() : ofBytes(Long.parseLong(budgetInMb.trim()) * 1024 * 1024);
+    }
+}
@@ -39,7 +39,7 @@ import static com.tngtech.archunit.core.importer.ImportOption.Predefined.TEST_LO
 public interface ImportOption {
     boolean includes(Location location);
 
-    enum Predefined implements ImportOption {
+    enum Predefined implements PrunableImportOption {
         DO_NOT_INCLUDE_TESTS {
             private final DoNotIncludeTests doNotIncludeTests = new DoNotIncludeTests();
 
@@ -47,6 +47,11 @@ public interface ImportOption {
             public boolean includes(Location location) {
                 return doNotIncludeTests.includes(location);
             }
+
+            @Override
+            public boolean excludesEverythingBeneath(Location location) {
+                return doNotIncludeTests.excludesEverythingBeneath(location);
+            }
         },
         ONLY_INCLUDE_TESTS {
             private final OnlyIncludeTests onlyIncludeTests = new OnlyIncludeTests();
@@ -63,6 +68,11 @@ public interface ImportOption {
             public boolean includes(Location location) {
                 return doNotIncludeJars.includes(location);
             }
+
+            @Override
+            public boolean excludesEverythingBeneath(Location location) {
+                return doNotIncludeJars.excludesEverythingBeneath(location);
+            }
         },
         /**
          * Since Java 9 there are JARs and JRTs, this will exclude both
@@ -74,6 +84,11 @@ public interface ImportOption {
             public boolean includes(Location location) {
                 return doNotIncludeArchives.includes(location);
             }
+
+            @Override
+            public boolean excludesEverythingBeneath(Location location) {
+                return doNotIncludeArchives.excludesEverythingBeneath(location);
+            }
         },
         /**
          * @see DoNotIncludePackageInfos
@@ -87,6 +102,12 @@ public interface ImportOption {
             }
         };
 
+        @Override
+        public boolean excludesEverythingBeneath(Location location) {
+            return false;
+        }
+
+        // all test patterns end with '.*', so if a folder matches, every location beneath this folder matches as well
         static final PatternPredicate MAVEN_TEST_PATTERN = new PatternPredicate(".*/target/test-classes/.*");
         static final PatternPredicate GRADLE_TEST_PATTERN = new PatternPredicate(".*/build/classes/([^/]+/)?test/.*");
         static final PatternPredicate INTELLIJ_TEST_PATTERN = new PatternPredicate(".*/out/test/.*");
@@ -114,11 +135,16 @@ public interface ImportOption {
      * Thus it is just a best guess, how tests can be identified,
      * in other environments, it might be necessary, to implement the correct {@link ImportOption} yourself.
      */
-    final class DoNotIncludeTests implements ImportOption {
+    final class DoNotIncludeTests implements PrunableImportOption {
         @Override
         public boolean includes(Location location) {
             return NO_TEST_LOCATION.test(location);
         }
+
+        @Override
+        public boolean excludesEverythingBeneath(Location location) {
+            return TEST_LOCATION.test(location);
+        }
     }
 
     /**
@@ -132,18 +158,28 @@ public interface ImportOption {
         }
     }
 
-    final class DoNotIncludeJars implements ImportOption {
+    final class DoNotIncludeJars implements PrunableImportOption {
         @Override
         public boolean includes(Location location) {
             return !location.isJar();
         }
+
+        @Override
+        public boolean excludesEverythingBeneath(Location location) {
+            return location.isJar();
+        }
     }
 
-    final class DoNotIncludeArchives implements ImportOption {
+    final class DoNotIncludeArchives implements PrunableImportOption {
         @Override
         public boolean includes(Location location) {
             return !location.isArchive();
         }
+
+        @Override
+        public boolean excludesEverythingBeneath(Location location) {
+            return location.isArchive();
+        }
     }
 
     /**
@@ -53,4 +53,13 @@ public final class ImportOptions {
     boolean include(Location location) {
         return options.stream().allMatch(option -> option.includes(location));
     }
+
+    /**
+     * @return {@code true}, if it is known upfront that no class file beneath the given {@link Location}
+     *         will be {@link #include(Location) included}, i.e. the {@link Location} does not need to be scanned at all
+     */
+    boolean excludeEverythingBeneath(Location location) {
+        return options.stream().anyMatch(option ->
+                option instanceof PrunableImportOption && ((PrunableImportOption) option).excludesEverythingBeneath(location));
+    }
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.importer.JavaClassProcessor.AccessHandler;
+import com.tngtech.archunit.core.importer.RecordedClassFile.Recorder;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+
+/**
+ * Memoizes the work of {@link ClassFileImporter} imports that can be shared by several imports of overlapping scopes
+ * within the same JVM, e.g. many tests importing packages that have most of their classes in common.
+ * Pass the same session to each {@link ClassFileImporter} via {@link ClassFileImporter#withImportSession(ImportSession)}.
+ * <br><br>
+ * A session memoizes the {@link Location locations} of packages and the outcome of parsing each class file (imported or
+ * resolved from the classpath). Later imports then only have to create their class graph from the parsed class files,
+ * instead of scanning the packages and parsing the class files again. The resulting {@link com.tngtech.archunit.core.domain.JavaClasses}
+ * are the same as without session. Class files within directories are parsed again as soon as their last modified timestamp
+ * or size changes, while class files within archives (e.g. JAR files or the JDK runtime image) and the {@link Location locations}
+ * of packages are assumed not to change while the session is used.
+ * <br><br>
+ * Note that the session keeps everything it has memoized in memory for as long as it is referenced.
+ * Imports of the same session are thread-safe, but run one after another.
+ */
+@PublicAPI(usage = ACCESS)
+public final class ImportSession {
+    private static final Object STAMP_OF_ARCHIVE_ENTRY = new Object();
+    private static final ImportSession NONE = new ImportSession(false);
+
+    private final boolean enabled;
+    private final Map<String, Set<Location>> locationsByPackage = new ConcurrentHashMap<>();
+    private final Map<ClassFileKey, StampedClassFile> recordedClassFiles = new ConcurrentHashMap<>();
+
+    @PublicAPI(usage = ACCESS)
+    public ImportSession() {
+        this(true);
+    }
+
+    private ImportSession(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return A {@link Recorder} passing the events of parsing a class file on to the given handlers,
+     *         if this session memoizes parsed class files
+     */
+    Optional<Recorder> tryRecord(DeclarationHandler declarationHandler, AccessHandler accessHandler) {
+        return enabled ? Optional.of(RecordedClassFile.recordTo(declarationHandler, accessHandler)) : Optional.empty();
+    }
+
+    /**
+     * Imports of the same session reuse the builders of the recorded class files to create their class graphs,
+     * thus they must not run concurrently
+     */
+    <T> T runImport(Supplier<T> doImport) {
+        if (!enabled) {
+            return doImport.get();
+        }
+        synchronized (this) {
+            return doImport.get();
+        }
+    }
+
+    Set<Location> locationsOfPackage(String pkg) {
+        return enabled ? locationsByPackage.computeIfAbsent(pkg, Locations::ofPackage) : Locations.ofPackage(pkg);
+    }
+
+    /**
+     * @return The class file at the given {@link URI} as recorded by an earlier import with the same {@link ParsingMode},
+     *         unless the class file has changed since then
+     */
+    Optional<RecordedClassFile> getRecordedClassFile(URI uri, ParsingMode parsingMode) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        StampedClassFile stampedClassFile = recordedClassFiles.get(new ClassFileKey(uri, parsingMode));
+        if (stampedClassFile == null) {
+            return Optional.empty();
+        }
+        return stampOf(uri).filter(stampedClassFile.stamp::equals).map(stamp -> stampedClassFile.recordedClassFile);
+    }
+
+    void addRecordedClassFile(URI uri, ParsingMode parsingMode, RecordedClassFile recordedClassFile) {
+        if (enabled) {
+            stampOf(uri).ifPresent(stamp -> recordedClassFiles.put(new ClassFileKey(uri, parsingMode), new StampedClassFile(stamp, recordedClassFile)));
+        }
+    }
+
+    private static Optional<Object> stampOf(URI uri) {
+        if (!"file".equals(uri.getScheme())) {
+            return Optional.of(STAMP_OF_ARCHIVE_ENTRY);
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Paths.get(uri), BasicFileAttributes.class);
+            return Optional.of(attributes.lastModifiedTime().toMillis() + ":" + attributes.size());
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return A session that does not memoize anything, i.e. every import does all the work by itself
+     */
+    static ImportSession none() {
+        return NONE;
+    }
+
+    /**
+     * All options that influence what the {@link JavaClassProcessor} reports while parsing a class file.
+     * A recorded class file can only be replayed by an import parsing class files the same way.
+     */
+    static class ParsingMode {
+        private final boolean resolved;
+        private final boolean deferMembers;
+        private final boolean importCodeUnitBodies;
+        private final boolean md5InClassSourcesEnabled;
+
+        private ParsingMode(boolean resolved, boolean deferMembers, boolean importCodeUnitBodies, boolean md5InClassSourcesEnabled) {
+            this.resolved = resolved;
+            this.deferMembers = deferMembers;
+            this.importCodeUnitBodies = importCodeUnitBodies;
+            this.md5InClassSourcesEnabled = md5InClassSourcesEnabled;
+        }
+
+        static ParsingMode ofImportedClassFiles(boolean importCodeUnitBodies, boolean md5InClassSourcesEnabled) {
+            return new ParsingMode(false, false, importCodeUnitBodies, md5InClassSourcesEnabled);
+        }
+
+        static ParsingMode ofResolvedClassFiles(boolean deferMembers, boolean importCodeUnitBodies, boolean md5InClassSourcesEnabled) {
+            return new ParsingMode(true, deferMembers, importCodeUnitBodies, md5InClassSourcesEnabled);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resolved, deferMembers, importCodeUnitBodies, md5InClassSourcesEnabled);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            ParsingMode other = (ParsingMode) obj;
+            return this.resolved == other.resolved
+                    && this.deferMembers == other.deferMembers
+                    && this.importCodeUnitBodies == other.importCodeUnitBodies
+                    && this.md5InClassSourcesEnabled == other.md5InClassSourcesEnabled;
+        }
+    }
+
+    private static class ClassFileKey {
+        private final URI uri;
+        private final ParsingMode parsingMode;
+
+        ClassFileKey(URI uri, ParsingMode parsingMode) {
+            this.uri = uri;
+            this.parsingMode = parsingMode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uri, parsingMode);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            ClassFileKey other = (ClassFileKey) obj;
+            return Objects.equals(this.uri, other.uri)
+                    && Objects.equals(this.parsingMode, other.parsingMode);
+        }
+    }
+
+    private static class StampedClassFile {
+        private final Object stamp;
+        private final RecordedClassFile recordedClassFile;
+
+        StampedClassFile(Object stamp, RecordedClassFile recordedClassFile) {
+            this.stamp = stamp;
+            this.recordedClassFile = recordedClassFile;
+        }
+    }
+}
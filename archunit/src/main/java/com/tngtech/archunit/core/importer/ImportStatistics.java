@@ -0,0 +1,182 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.tngtech.archunit.PublicAPI;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+import static java.lang.System.lineSeparator;
+
+/**
+ * Describes where the time of a single import by the {@link ClassFileImporter} went,
+ * i.e. how long each {@link Phase} took, how many classes have been imported and resolved
+ * and how many bytes of class files have been read.
+ * This information can be useful to tune {@link ImportOption ImportOptions} and the resolution of missing classes
+ * (compare {@link com.tngtech.archunit.core.importer.resolvers.ClassResolver ClassResolver}) for large code bases.
+ *
+ * @see ClassFileImporter#withStatisticsListener(ImportStatisticsListener)
+ */
+@PublicAPI(usage = ACCESS)
+public final class ImportStatistics {
+    private final Map<Phase, Duration> durations;
+    private final int numberOfImportedClasses;
+    private final int numberOfResolvedClasses;
+    private final int numberOfDuplicateClassFiles;
+    private final int numberOfReusedClassFiles;
+    private final long bytesRead;
+    private final long allocatedBytes;
+
+    ImportStatistics(
+            Map<Phase, Duration> durations,
+            int numberOfImportedClasses,
+            int numberOfResolvedClasses,
+            int numberOfDuplicateClassFiles,
+            int numberOfReusedClassFiles,
+            long bytesRead,
+            long allocatedBytes) {
+        this.durations = new EnumMap<>(durations);
+        this.numberOfImportedClasses = numberOfImportedClasses;
+        this.numberOfResolvedClasses = numberOfResolvedClasses;
+        this.numberOfDuplicateClassFiles = numberOfDuplicateClassFiles;
+        this.numberOfReusedClassFiles = numberOfReusedClassFiles;
+        this.bytesRead = bytesRead;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * @return The wall-clock time spent within the given {@link Phase}
+     */
+    @PublicAPI(usage = ACCESS)
+    public Duration getDuration(Phase phase) {
+        return durations.getOrDefault(phase, Duration.ZERO);
+    }
+
+    /**
+     * @return The wall-clock time spent within all {@link Phase phases} together
+     */
+    @PublicAPI(usage = ACCESS)
+    public Duration getTotalDuration() {
+        return durations.values().stream().reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * @return The number of classes imported from the class files at the requested {@link Location locations}
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfImportedClasses() {
+        return numberOfImportedClasses;
+    }
+
+    /**
+     * @return The number of further classes that have been resolved by the configured
+     *         {@link com.tngtech.archunit.core.importer.resolvers.ClassResolver ClassResolver}, e.g. from the classpath
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfResolvedClasses() {
+        return numberOfResolvedClasses;
+    }
+
+    /**
+     * @return The number of class files that have not been parsed, because a class file with the same content
+     *         has been imported before (e.g. the same class within several JAR files at the imported {@link Location locations})
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfDuplicateClassFiles() {
+        return numberOfDuplicateClassFiles;
+    }
+
+    /**
+     * @return The number of class files that have not been parsed, because an earlier import of the same {@link ImportSession}
+     *         has already parsed them (compare {@link ClassFileImporter#withImportSession(ImportSession)})
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfReusedClassFiles() {
+        return numberOfReusedClassFiles;
+    }
+
+    /**
+     * @return The number of bytes of all class files that have been read, including the ones of resolved classes
+     */
+    @PublicAPI(usage = ACCESS)
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return An estimate of the number of bytes allocated by all threads of the import, or {@code 0},
+     *         if the JVM does not support measuring the allocations of threads
+     */
+    @PublicAPI(usage = ACCESS)
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(String.format(
+                "Imported %d classes and resolved %d classes in %d ms (read %d KB of class files, skipped %d duplicate class files, "
+                        + "reused %d class files parsed before, allocated about %d MB)",
+                numberOfImportedClasses, numberOfResolvedClasses, getTotalDuration().toMillis(), bytesRead / 1024, numberOfDuplicateClassFiles,
+                numberOfReusedClassFiles, allocatedBytes / (1024 * 1024)));
+        for (Phase phase : Phase.values()) {
+            result.append(lineSeparator()).append(String.format("    %-25s %6d ms", phase.description + ":", getDuration(phase).toMillis()));
+        }
+        return result.toString();
+    }
+
+    /**
+     * The consecutive phases of an import.
+     */
+    @PublicAPI(usage = ACCESS)
+    public enum Phase {
+        /**
+         * Determining the class files at the {@link Location locations} to import, e.g. walking directories or reading the entries of archives
+         */
+        @PublicAPI(usage = ACCESS)
+        LOCATE_CLASS_FILES("locate class files"),
+        /**
+         * Reading and parsing the class files to import
+         */
+        @PublicAPI(usage = ACCESS)
+        PARSE_CLASS_FILES("parse class files"),
+        /**
+         * Resolving missing dependencies of the imported classes (compare {@link ClassFileImporter})
+         */
+        @PublicAPI(usage = ACCESS)
+        RESOLVE_DEPENDENCIES("resolve dependencies"),
+        /**
+         * Completing the imported classes, i.e. connecting them to their supertypes, members, accesses and so on
+         */
+        @PublicAPI(usage = ACCESS)
+        COMPLETE_CLASS_GRAPH("complete class graph"),
+        /**
+         * Creating the resulting {@link com.tngtech.archunit.core.domain.JavaClasses JavaClasses},
+         * including the reverse dependencies between all classes
+         */
+        @PublicAPI(usage = ACCESS)
+        CREATE_JAVA_CLASSES("create JavaClasses");
+
+        private final String description;
+
+        Phase(String description) {
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import com.tngtech.archunit.PublicAPI;
+
+import static com.tngtech.archunit.PublicAPI.Usage.INHERITANCE;
+
+/**
+ * Will be notified about the {@link ImportStatistics} of every import of a {@link ClassFileImporter}
+ * configured via {@link ClassFileImporter#withStatisticsListener(ImportStatisticsListener)}.
+ * Note that listeners are called synchronously by the importing thread after the import has finished.
+ */
+@PublicAPI(usage = INHERITANCE)
+@FunctionalInterface
+public interface ImportStatisticsListener {
+    void onImportFinished(ImportStatistics statistics);
+}
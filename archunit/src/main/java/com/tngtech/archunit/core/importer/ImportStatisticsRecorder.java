@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.tngtech.archunit.core.importer.ImportStatistics.Phase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the {@link ImportStatistics} of a single import. Phases are measured by the importing thread,
+ * but class files might be read and allocations might happen on several threads, so all counters are thread-safe.
+ */
+class ImportStatisticsRecorder {
+    private final Map<Phase, Duration> durations = new EnumMap<>(Phase.class);
+    private final AtomicInteger numberOfImportedClasses = new AtomicInteger();
+    private final AtomicInteger numberOfResolvedClasses = new AtomicInteger();
+    private final AtomicInteger numberOfDuplicateClassFiles = new AtomicInteger();
+    private final AtomicInteger numberOfReusedClassFiles = new AtomicInteger();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    <T> T measure(Phase phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return measureAllocations(action);
+        } finally {
+            durations.merge(phase, Duration.ofNanos(System.nanoTime() - start), Duration::plus);
+        }
+    }
+
+    void measure(Phase phase, Runnable action) {
+        measure(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Adds the bytes allocated by the current thread during {@code action} to the statistics.
+     * Must be called by additional import threads, allocations of the importing thread are covered by {@link #measure(Phase, Supplier)}.
+     */
+    <T> T measureAllocations(Supplier<T> action) {
+        long allocatedBefore = AllocationMeter.allocatedBytesOfCurrentThread();
+        try {
+            return action.get();
+        } finally {
+            allocatedBytes.addAndGet(AllocationMeter.allocatedBytesOfCurrentThread() - allocatedBefore);
+        }
+    }
+
+    void onClassFileRead(long numberOfBytes) {
+        bytesRead.addAndGet(numberOfBytes);
+    }
+
+    void onClassesImported(int numberOfClasses) {
+        numberOfImportedClasses.addAndGet(numberOfClasses);
+    }
+
+    void onClassResolved() {
+        numberOfResolvedClasses.incrementAndGet();
+    }
+
+    void onDuplicateClassFileSkipped() {
+        numberOfDuplicateClassFiles.incrementAndGet();
+    }
+
+    void onClassFileReused() {
+        numberOfReusedClassFiles.incrementAndGet();
+    }
+
+    ImportStatistics getStatistics() {
+        return new ImportStatistics(
+                durations, numberOfImportedClasses.get(), numberOfResolvedClasses.get(), numberOfDuplicateClassFiles.get(), numberOfReusedClassFiles.get(),
+                bytesRead.get(), allocatedBytes.get());
+    }
+
+    private static class AllocationMeter {
+        private static final Logger LOG = LoggerFactory.getLogger(AllocationMeter.class);
+        private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = tryGetThreadMXBeanSupportingAllocations();
+
+        private static com.sun.management.ThreadMXBean tryGetThreadMXBeanSupportingAllocations() {
+            try {
+                ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+                if (threadMXBean instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()) {
+                    return (com.sun.management.ThreadMXBean) threadMXBean;
+                }
+            } catch (LinkageError | RuntimeException e) {
+                LOG.debug("Measuring allocations of threads is not supported by this JVM", e);
+            }
+            return null;
+        }
+
+        static long allocatedBytesOfCurrentThread() {
+            if (THREAD_MX_BEAN == null || !THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled()) {
+                return 0;
+            }
+            return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
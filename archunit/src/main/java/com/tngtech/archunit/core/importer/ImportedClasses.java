@@ -17,8 +17,16 @@ package com.tngtech.archunit.core.importer;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -27,6 +35,7 @@ import com.google.common.collect.Sets;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaClassDescriptor;
 import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.importer.ClassFileProcessor.ResolvingNothing;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaClassBuilder;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
 
@@ -35,23 +44,64 @@ import static com.tngtech.archunit.core.domain.JavaModifier.FINAL;
 import static com.tngtech.archunit.core.domain.JavaModifier.PUBLIC;
 import static com.tngtech.archunit.core.importer.ImportedClasses.ImportedClassState.HAD_TO_BE_IMPORTED;
 import static com.tngtech.archunit.core.importer.ImportedClasses.ImportedClassState.WAS_ALREADY_PRESENT;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
 class ImportedClasses {
     private static final ImmutableSet<JavaModifier> PRIMITIVE_AND_ARRAY_TYPE_MODIFIERS =
             Sets.immutableEnumSet(PUBLIC, ABSTRACT, FINAL);
 
     private final ImmutableMap<String, JavaClass> directlyImported;
-    private final Map<String, JavaClass> allClasses = new HashMap<>();
+    // concurrent, since it is shared with the views created by withoutResolution(..), which might be used by any thread
+    private final Map<String, JavaClass> allClasses;
     private final ClassResolver resolver;
+    private final ImportExecutor resolutionExecutor;
+    private final ImportStatisticsRecorder statistics;
     private final MethodReturnTypeGetter getMethodReturnType;
 
     ImportedClasses(Map<String, JavaClass> directlyImported, ClassResolver resolver, MethodReturnTypeGetter methodReturnTypeGetter) {
-        this.directlyImported = ImmutableMap.copyOf(directlyImported);
-        allClasses.putAll(directlyImported);
+        this(directlyImported, resolver, ImportExecutor.sequential(), new ImportStatisticsRecorder(), methodReturnTypeGetter);
+    }
+
+    /**
+     * @param resolutionExecutor The threads to call the {@link ClassResolver} with in {@link #ensureAllPresent(Collection)}.
+     *                           Must only be concurrent if the {@link ClassResolver} can be called concurrently.
+     */
+    ImportedClasses(
+            Map<String, JavaClass> directlyImported,
+            ClassResolver resolver,
+            ImportExecutor resolutionExecutor,
+            ImportStatisticsRecorder statistics,
+            MethodReturnTypeGetter methodReturnTypeGetter) {
+        this(ImmutableMap.copyOf(directlyImported), new ConcurrentHashMap<>(directlyImported),
+                resolver, resolutionExecutor, statistics, methodReturnTypeGetter);
+    }
+
+    private ImportedClasses(
+            ImmutableMap<String, JavaClass> directlyImported,
+            Map<String, JavaClass> allClasses,
+            ClassResolver resolver,
+            ImportExecutor resolutionExecutor,
+            ImportStatisticsRecorder statistics,
+            MethodReturnTypeGetter methodReturnTypeGetter) {
+        this.directlyImported = directlyImported;
+        this.allClasses = allClasses;
         this.resolver = resolver;
+        this.resolutionExecutor = resolutionExecutor;
+        this.statistics = statistics;
         this.getMethodReturnType = methodReturnTypeGetter;
     }
 
+    /**
+     * @return A view backed by the same classes, that only stubs missing classes instead of resolving them.
+     *         Thus, it can still be used after the import has finished, without holding on to the {@link ClassResolver}.
+     */
+    ImportedClasses withoutResolution(MethodReturnTypeGetter methodReturnTypeGetter) {
+        return new ImportedClasses(directlyImported, allClasses, new ResolvingNothing(), ImportExecutor.sequential(), new ImportStatisticsRecorder(), methodReturnTypeGetter);
+    }
+
     Map<String, JavaClass> getDirectlyImported() {
         return directlyImported;
     }
@@ -70,16 +120,67 @@ class ImportedClasses {
         return HAD_TO_BE_IMPORTED;
     }
 
+    /**
+     * Like {@link #ensurePresent(String)}, but resolves all missing types as one batch. If this {@link ImportedClasses}
+     * has been created with a concurrent resolution executor, the missing types are resolved concurrently.
+     *
+     * @return {@code true}, if any of the types had to be imported
+     */
+    boolean ensureAllPresent(Collection<String> typeNames) {
+        Set<String> missingTypeNames = typeNames.stream()
+                .filter(typeName -> !allClasses.containsKey(typeName))
+                .collect(toCollection(LinkedHashSet::new));
+        if (missingTypeNames.isEmpty()) {
+            return false;
+        }
+
+        Map<String, Optional<JavaClass>> resolved = tryResolveAll(missingTypeNames);
+        // all classes of the batch must be present before array component types are ensured, otherwise they would be resolved twice
+        List<JavaClass> added = missingTypeNames.stream()
+                .map(typeName -> add(typeName, resolved.get(typeName)))
+                .collect(toList());
+        added.stream().filter(JavaClass::isArray).forEach(this::ensureAllComponentTypesPresent);
+        return true;
+    }
+
+    private Map<String, Optional<JavaClass>> tryResolveAll(Set<String> typeNames) {
+        if (!resolutionExecutor.isConcurrent() || typeNames.size() <= 1) {
+            return typeNames.stream().collect(toMap(identity(), resolver::tryResolve));
+        }
+
+        List<Callable<Optional<JavaClass>>> resolutions = typeNames.stream()
+                .<Callable<Optional<JavaClass>>>map(typeName -> () -> statistics.measureAllocations(() -> resolver.tryResolve(typeName)))
+                .collect(toList());
+        try {
+            List<Future<Optional<JavaClass>>> futures = resolutionExecutor.invokeAll(resolutions);
+            Map<String, Optional<JavaClass>> result = new HashMap<>();
+            Iterator<Future<Optional<JavaClass>>> future = futures.iterator();
+            for (String typeName : typeNames) {
+                result.put(typeName, future.next().get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving classes", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error while resolving classes", e.getCause());
+        }
+    }
+
     private JavaClass resolve(String typeName) {
-        Optional<JavaClass> resolved = resolver.tryResolve(typeName);
-        JavaClass javaClass = resolved.isPresent() ? resolved.get() : stubClassOf(typeName);
+        JavaClass javaClass = add(typeName, resolver.tryResolve(typeName));
         if (javaClass.isArray()) {
             ensureAllComponentTypesPresent(javaClass);
         }
-        allClasses.put(typeName, javaClass);
         return javaClass;
     }
 
+    private JavaClass add(String typeName, Optional<JavaClass> resolved) {
+        JavaClass javaClass = resolved.isPresent() ? resolved.get() : stubClassOf(typeName);
+        JavaClass alreadyAdded = allClasses.putIfAbsent(typeName, javaClass);
+        return alreadyAdded != null ? alreadyAdded : javaClass;
+    }
+
     private void ensureAllComponentTypesPresent(JavaClass javaClass) {
         JavaClassDescriptor current = JavaClassDescriptor.From.javaClass(javaClass);
         while (current.tryGetComponentType().isPresent()) {
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads the entries of a JAR file by reading the central directory of the ZIP format directly,
+ * instead of opening the JAR through a {@link java.net.JarURLConnection} and walking all entries.
+ * The central directory of each JAR file is only indexed once per JVM, as long as the JAR file does not change
+ * (and the soft reference to the index has not been cleared).
+ * <br><br>
+ * All content is read by positional reads from a {@link FileChannel} into the heap, and the channel is only open
+ * while reading. Thus, a JAR file is neither locked between imports (as it would be by a memory mapping on Windows),
+ * nor does a JAR file truncated while it is being read crash the JVM, it merely fails with an {@link IOException}.
+ * <br><br>
+ * JARs nested within other JARs (like the libraries within {@code BOOT-INF/lib/} of a Spring Boot fat JAR)
+ * are read without extracting them, by addressing them with one {@code !/} per level,
+ * e.g. {@code jar:file:/some/app.jar!/BOOT-INF/lib/some-lib.jar!/}. Nested JARs that are stored uncompressed
+ * are read directly from their region of the outer file, compressed nested JARs are inflated into memory once
+ * and then kept in the same softly referenced cache, as long as the outer JAR file does not change.
+ * <br><br>
+ * Only local JAR files within the limits of the standard ZIP format are supported (i.e. no ZIP64),
+ * for all other JAR files {@link #tryOpen(URL)} returns {@link Optional#empty()}, so callers can fall back to the JDK.
+ */
+class IndexedJarFile {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexedJarFile.class);
+
+    private static final String JAR_FILE_URL_PREFIX = "jar:file:";
+    private static final String ENTRY_SEPARATOR = "!/";
+    private static final Cache<String, IndexedContent> INDEXED_CONTENT_CACHE = CacheBuilder.newBuilder().softValues().build();
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_MIN_LENGTH = 22;
+    private static final int MAX_ZIP_COMMENT_LENGTH = 0xFFFF;
+    private static final int CENTRAL_DIRECTORY_ENTRY_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_DIRECTORY_ENTRY_LENGTH = 46;
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_FILE_HEADER_LENGTH = 30;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    private final String cacheKey;
+    private final long lastModified;
+    private final Content content;
+    private final CentralDirectory centralDirectory;
+
+    private IndexedJarFile(String cacheKey, long lastModified, Content content, CentralDirectory centralDirectory) {
+        this.cacheKey = cacheKey;
+        this.lastModified = lastModified;
+        this.content = content;
+        this.centralDirectory = centralDirectory;
+    }
+
+    /**
+     * @param jarUrl The URL of the root of a JAR file, e.g. {@code jar:file:/some/path/some.jar!/},
+     *               or of a JAR nested within other JARs, e.g. {@code jar:file:/some/path/some.jar!/lib/nested.jar!/}
+     * @return An {@link IndexedJarFile}, if the JAR file can be read by this class, {@link Optional#empty()} otherwise
+     */
+    static Optional<IndexedJarFile> tryOpen(URL jarUrl) {
+        String jarUrlString = jarUrl.toString();
+        if (!jarUrlString.startsWith(JAR_FILE_URL_PREFIX) || !jarUrlString.endsWith(ENTRY_SEPARATOR)) {
+            return Optional.empty();
+        }
+        String[] parts = jarUrlString.substring("jar:".length(), jarUrlString.length() - ENTRY_SEPARATOR.length()).split(ENTRY_SEPARATOR, -1);
+        File outermostJarFile;
+        try {
+            outermostJarFile = new File(new URI(parts[0]));
+        } catch (URISyntaxException | RuntimeException e) {
+            LOG.debug("Couldn't determine JAR file of {}", jarUrl, e);
+            return Optional.empty();
+        }
+        Optional<IndexedJarFile> result = tryOpen(outermostJarFile);
+        for (int i = 1; i < parts.length && result.isPresent(); i++) {
+            result = result.get().tryOpenNested(parts[i]);
+        }
+        return result;
+    }
+
+    static Optional<IndexedJarFile> tryOpen(File jarFile) {
+        try {
+            return Optional.of(open(jarFile));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Couldn't index {}, falling back to the JDK", jarFile, e);
+            return Optional.empty();
+        }
+    }
+
+    private static IndexedJarFile open(File file) throws IOException {
+        return open(file.getPath(), file.lastModified(), file.length(), () -> new FileContent(file));
+    }
+
+    private static IndexedJarFile open(String cacheKey, long lastModified, long size, ContentReader contentReader) throws IOException {
+        IndexedContent indexedContent = INDEXED_CONTENT_CACHE.getIfPresent(cacheKey);
+        if (indexedContent == null || !indexedContent.isUpToDate(lastModified, size)) {
+            Content content = contentReader.read();
+            indexedContent = new IndexedContent(lastModified, content, CentralDirectory.read(content));
+            INDEXED_CONTENT_CACHE.put(cacheKey, indexedContent);
+        }
+        return new IndexedJarFile(cacheKey, indexedContent.lastModified, indexedContent.content, indexedContent.centralDirectory);
+    }
+
+    private Optional<IndexedJarFile> tryOpenNested(String encodedEntryName) {
+        try {
+            return Optional.of(openNested(URI.create("/" + encodedEntryName).getPath().substring(1)));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Couldn't read nested JAR {} within {}, falling back to the JDK", encodedEntryName, cacheKey, e);
+            return Optional.empty();
+        }
+    }
+
+    private IndexedJarFile openNested(String entryName) throws IOException {
+        int index = indexOf(entryName);
+        // the nested JAR is only valid as long as the outer one is unchanged, so it inherits the modification time
+        String nestedCacheKey = cacheKey + ENTRY_SEPARATOR + entryName;
+        switch (centralDirectory.methods[index]) {
+            case METHOD_STORED:
+                return open(nestedCacheKey, lastModified, centralDirectory.uncompressedSizes[index],
+                        () -> new RegionContent(content, dataOffsetOf(index), centralDirectory.compressedSizes[index]));
+            case METHOD_DEFLATED:
+                // only inflated if the cache doesn't hold the inflated content for this modification of the outer JAR anymore
+                return open(nestedCacheKey, lastModified, centralDirectory.uncompressedSizes[index],
+                        () -> new ArrayContent(inflate(compressedContentOf(index), centralDirectory.uncompressedSizes[index])));
+            default:
+                throw new ZipException(String.format("Unsupported compression method %d of nested JAR %s",
+                        centralDirectory.methods[index], entryName));
+        }
+    }
+
+    private int indexOf(String entryName) throws ZipException {
+        Integer index = centralDirectory.indexesByName.get(entryName);
+        if (index == null) {
+            throw new ZipException("No entry " + entryName + " within " + cacheKey);
+        }
+        return index;
+    }
+
+    int size() {
+        return centralDirectory.names.length;
+    }
+
+    String getName(int index) {
+        return centralDirectory.names[index];
+    }
+
+    List<String> getNames() {
+        List<String> result = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            result.add(getName(i));
+        }
+        return result;
+    }
+
+    InputStream openStream(String entryName) throws IOException {
+        return openStream(indexOf(entryName));
+    }
+
+    InputStream openStream(int index) throws IOException {
+        byte[] compressed = compressedContentOf(index);
+        switch (centralDirectory.methods[index]) {
+            case METHOD_STORED:
+                return new ByteArrayInputStream(compressed);
+            case METHOD_DEFLATED:
+                return new ByteArrayInputStream(inflate(compressed, centralDirectory.uncompressedSizes[index]));
+            default:
+                throw new ZipException(String.format("Unsupported compression method %d of entry %s",
+                        centralDirectory.methods[index], getName(index)));
+        }
+    }
+
+    private byte[] compressedContentOf(int index) throws IOException {
+        byte[] result = new byte[centralDirectory.compressedSizes[index]];
+        content.read(dataOffsetOf(index), result);
+        return result;
+    }
+
+    private long dataOffsetOf(int index) throws IOException {
+        byte[] header = new byte[LOCAL_FILE_HEADER_LENGTH];
+        long headerOffset = centralDirectory.localHeaderOffsets[index];
+        content.read(headerOffset, header);
+        ByteBuffer buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != LOCAL_FILE_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local file header of entry " + getName(index));
+        }
+        int nameLength = buffer.getShort(26) & 0xFFFF;
+        int extraLength = buffer.getShort(28) & 0xFFFF;
+        return headerOffset + LOCAL_FILE_HEADER_LENGTH + nameLength + extraLength;
+    }
+
+    private static byte[] inflate(byte[] compressed, int uncompressedSize) throws IOException {
+        // 'nowrap' needs an extra dummy byte
+        byte[] input = new byte[compressed.length + 1];
+        System.arraycopy(compressed, 0, input, 0, compressed.length);
+        byte[] result = new byte[uncompressedSize];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            int read = 0;
+            while (read < result.length && !inflater.finished()) {
+                int inflated = inflater.inflate(result, read, result.length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != result.length) {
+                throw new ZipException(String.format("Expected %d bytes, but inflated %d", result.length, read));
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ContentReader {
+        Content read() throws IOException;
+    }
+
+    /**
+     * The bytes of a JAR file, read on demand
+     */
+    private interface Content {
+        long size();
+
+        /**
+         * Fills the whole target with the bytes starting at the given position
+         */
+        void read(long position, byte[] target) throws IOException;
+    }
+
+    private static class FileContent implements Content {
+        private final File file;
+        private final long size;
+
+        FileContent(File file) {
+            this.file = file;
+            this.size = file.length();
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void read(long position, byte[] target) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(target);
+            try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new EOFException(String.format("Unexpected end of %s, it might have been changed while being read", file));
+                    }
+                }
+            }
+        }
+    }
+
+    private static class RegionContent implements Content {
+        private final Content content;
+        private final long offset;
+        private final long size;
+
+        RegionContent(Content content, long offset, long size) {
+            this.content = content;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void read(long position, byte[] target) throws IOException {
+            if (position + target.length > size) {
+                throw new EOFException(String.format("Can't read %d bytes at %d of a nested JAR of %d bytes", target.length, position, size));
+            }
+            content.read(offset + position, target);
+        }
+    }
+
+    private static class ArrayContent implements Content {
+        private final byte[] bytes;
+
+        ArrayContent(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long size() {
+            return bytes.length;
+        }
+
+        @Override
+        public void read(long position, byte[] target) throws IOException {
+            if (position + target.length > bytes.length) {
+                throw new EOFException(String.format("Can't read %d bytes at %d of a nested JAR of %d bytes", target.length, position, bytes.length));
+            }
+            System.arraycopy(bytes, (int) position, target, 0, target.length);
+        }
+    }
+
+    private static class IndexedContent {
+        private final long lastModified;
+        private final Content content;
+        private final CentralDirectory centralDirectory;
+
+        IndexedContent(long lastModified, Content content, CentralDirectory centralDirectory) {
+            this.lastModified = lastModified;
+            this.content = content;
+            this.centralDirectory = centralDirectory;
+        }
+
+        boolean isUpToDate(long lastModified, long size) {
+            return this.lastModified == lastModified && content.size() == size;
+        }
+    }
+
+    private static class CentralDirectory {
+        private final String[] names;
+        private final Map<String, Integer> indexesByName;
+        private final int[] methods;
+        private final int[] compressedSizes;
+        private final int[] uncompressedSizes;
+        private final int[] localHeaderOffsets;
+
+        private CentralDirectory(int numberOfEntries) {
+            names = new String[numberOfEntries];
+            indexesByName = new HashMap<>(2 * numberOfEntries);
+            methods = new int[numberOfEntries];
+            compressedSizes = new int[numberOfEntries];
+            uncompressedSizes = new int[numberOfEntries];
+            localHeaderOffsets = new int[numberOfEntries];
+        }
+
+        static CentralDirectory read(Content content) throws IOException {
+            ByteBuffer endOfCentralDirectory = readEndOfCentralDirectory(content);
+            int numberOfEntries = endOfCentralDirectory.getShort(10) & 0xFFFF;
+            long centralDirectorySize = endOfCentralDirectory.getInt(12) & 0xFFFFFFFFL;
+            long centralDirectoryOffset = endOfCentralDirectory.getInt(16) & 0xFFFFFFFFL;
+            if (numberOfEntries == 0xFFFF || centralDirectoryOffset + centralDirectorySize > content.size()
+                    || centralDirectorySize > Integer.MAX_VALUE) {
+                throw new ZipException("ZIP64 archives are not supported");
+            }
+
+            byte[] centralDirectoryBytes = new byte[(int) centralDirectorySize];
+            content.read(centralDirectoryOffset, centralDirectoryBytes);
+            ByteBuffer buffer = ByteBuffer.wrap(centralDirectoryBytes).order(ByteOrder.LITTLE_ENDIAN);
+
+            CentralDirectory result = new CentralDirectory(numberOfEntries);
+            int offset = 0;
+            for (int i = 0; i < numberOfEntries; i++) {
+                if (offset + CENTRAL_DIRECTORY_ENTRY_LENGTH > buffer.capacity() || buffer.getInt(offset) != CENTRAL_DIRECTORY_ENTRY_SIGNATURE) {
+                    throw new ZipException("Invalid central directory entry at offset " + (centralDirectoryOffset + offset));
+                }
+                result.methods[i] = buffer.getShort(offset + 10) & 0xFFFF;
+                result.compressedSizes[i] = checkedSize(buffer.getInt(offset + 20));
+                result.uncompressedSizes[i] = checkedSize(buffer.getInt(offset + 24));
+                int nameLength = buffer.getShort(offset + 28) & 0xFFFF;
+                int extraLength = buffer.getShort(offset + 30) & 0xFFFF;
+                int commentLength = buffer.getShort(offset + 32) & 0xFFFF;
+                result.localHeaderOffsets[i] = checkedSize(buffer.getInt(offset + 42));
+                result.names[i] = new String(centralDirectoryBytes, offset + CENTRAL_DIRECTORY_ENTRY_LENGTH, nameLength, UTF_8);
+                // if several entries have the same name, the first one wins
+                result.indexesByName.putIfAbsent(result.names[i], i);
+                offset += CENTRAL_DIRECTORY_ENTRY_LENGTH + nameLength + extraLength + commentLength;
+            }
+            return result;
+        }
+
+        /**
+         * @return the end of central directory record, i.e. a buffer positioned at its signature
+         */
+        private static ByteBuffer readEndOfCentralDirectory(Content content) throws IOException {
+            int tailLength = (int) Math.min(content.size(), END_OF_CENTRAL_DIRECTORY_MIN_LENGTH + MAX_ZIP_COMMENT_LENGTH);
+            byte[] tail = new byte[tailLength];
+            content.read(content.size() - tailLength, tail);
+            ByteBuffer buffer = ByteBuffer.wrap(tail).order(ByteOrder.LITTLE_ENDIAN);
+            for (int offset = tailLength - END_OF_CENTRAL_DIRECTORY_MIN_LENGTH; offset >= 0; offset--) {
+                if (buffer.getInt(offset) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                    return ByteBuffer.wrap(tail, offset, END_OF_CENTRAL_DIRECTORY_MIN_LENGTH).slice().order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+            throw new ZipException("End of central directory not found");
+        }
+
+        private static int checkedSize(int value) throws ZipException {
+            if (value < 0) {
+                throw new ZipException("ZIP64 archives are not supported");
+            }
+            return value;
+        }
+    }
+}
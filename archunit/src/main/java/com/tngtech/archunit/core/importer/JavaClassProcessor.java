@@ -85,27 +85,55 @@ class JavaClassProcessor extends ClassVisitor {
     private final SourceDescriptor sourceDescriptor;
     private final DeclarationHandler declarationHandler;
     private final AccessHandler accessHandler;
+    private final NameTable names;
+    private final boolean deferMembers;
     private String className;
+    private boolean membersDeferred;
 
-    JavaClassProcessor(SourceDescriptor sourceDescriptor, DeclarationHandler declarationHandler) {
-        this(sourceDescriptor, declarationHandler, NO_OP);
+    JavaClassProcessor(SourceDescriptor sourceDescriptor, DeclarationHandler declarationHandler, NameTable names) {
+        this(sourceDescriptor, declarationHandler, NO_OP, names);
     }
 
-    JavaClassProcessor(SourceDescriptor sourceDescriptor, DeclarationHandler declarationHandler, AccessHandler accessHandler) {
+    JavaClassProcessor(SourceDescriptor sourceDescriptor, DeclarationHandler declarationHandler, AccessHandler accessHandler, NameTable names) {
+        this(sourceDescriptor, declarationHandler, accessHandler, names, false);
+    }
+
+    private JavaClassProcessor(
+            SourceDescriptor sourceDescriptor,
+            DeclarationHandler declarationHandler,
+            AccessHandler accessHandler,
+            NameTable names,
+            boolean deferMembers) {
         super(ASM_API_VERSION);
         this.sourceDescriptor = sourceDescriptor;
         this.declarationHandler = declarationHandler;
         this.accessHandler = accessHandler;
+        this.names = names;
+        this.deferMembers = deferMembers;
+    }
+
+    /**
+     * Creates a {@link JavaClassProcessor} that only processes the header of a class (i.e. name, modifiers, supertypes,
+     * type parameters, enclosing declaration and annotations). Fields and code units are skipped
+     * and reported as {@link DeclarationHandler#onDeferredMembers() deferred}.<br>
+     * Annotation types are always processed completely, since their methods are needed to create annotations of that type.
+     */
+    static JavaClassProcessor withDeferredMembers(SourceDescriptor sourceDescriptor, DeclarationHandler declarationHandler, NameTable names) {
+        return new JavaClassProcessor(sourceDescriptor, declarationHandler, NO_OP, names, true);
     }
 
     Optional<JavaClass> createJavaClass() {
         return javaClassBuilder != null ? Optional.of(javaClassBuilder.build()) : Optional.empty();
     }
 
+    Optional<DomainBuilders.JavaClassBuilder> getJavaClassBuilder() {
+        return Optional.ofNullable(javaClassBuilder);
+    }
+
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
         LOG.debug("Processing class '{}'", name);
-        JavaClassDescriptor descriptor = JavaClassDescriptorImporter.createFromAsmObjectTypeName(name);
+        JavaClassDescriptor descriptor = names.descriptorOf(name);
         if (alreadyImported(descriptor)) {
             return;
         }
@@ -129,6 +157,11 @@ class JavaClassProcessor extends ClassVisitor {
         className = descriptor.getFullyQualifiedClassName();
         declarationHandler.onNewClass(className, superclassName, interfaceNames);
         JavaClassSignatureImporter.parseAsmTypeSignature(signature, declarationHandler);
+
+        if (deferMembers && !opCodeForAnnotationIsPresent) {
+            membersDeferred = true;
+            declarationHandler.onDeferredMembers();
+        }
     }
 
     private boolean alreadyImported(JavaClassDescriptor descriptor) {
@@ -215,8 +248,7 @@ class JavaClassProcessor extends ClassVisitor {
         declarationHandler.registerEnclosingClass(className, createTypeName(owner));
 
         if (name != null && desc != null) {
-            JavaClassDescriptor ownerType = JavaClassDescriptorImporter.createFromAsmObjectTypeName(owner);
-            CodeUnit codeUnit = new CodeUnit(name, desc, ownerType.getFullyQualifiedClassName());
+            CodeUnit codeUnit = new CodeUnit(names.intern(name), names.intern(desc), names.typeNameOf(owner));
             declarationHandler.registerEnclosingCodeUnit(className, codeUnit);
         }
     }
@@ -230,33 +262,35 @@ class JavaClassProcessor extends ClassVisitor {
     }
 
     private String createTypeName(String name) {
-        return name.replace("/", ".");
+        return names.typeNameOf(name);
     }
 
     @Override
     public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
-        if (importAborted()) {
+        if (importAborted() || membersDeferred) {
             return super.visitField(access, name, desc, signature, value);
         }
 
         JavaClassDescriptor rawType = JavaClassDescriptorImporter.importAsmTypeFromDescriptor(desc);
         Optional<JavaTypeCreationProcess<JavaField>> genericType = JavaFieldTypeSignatureImporter.parseAsmFieldTypeSignature(signature, declarationHandler);
         DomainBuilders.JavaFieldBuilder fieldBuilder = new DomainBuilders.JavaFieldBuilder()
-                .withName(name)
+                .withName(names.intern(name))
                 .withType(genericType, rawType)
                 .withModifiers(JavaModifier.getModifiersForField(access))
-                .withDescriptor(desc);
+                .withDescriptor(names.intern(desc));
         declarationHandler.onDeclaredField(fieldBuilder, rawType.getFullyQualifiedClassName());
         return new FieldProcessor(fieldBuilder, declarationHandler);
     }
 
     @Override
     public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
-        if (importAborted()) {
+        if (importAborted() || membersDeferred) {
             return super.visitMethod(access, name, desc, signature, exceptions);
         }
 
         LOG.trace("Analyzing method {}.{}:{}", className, name, desc);
+        name = names.intern(name);
+        desc = names.intern(desc);
         CodeUnit codeUnit = new CodeUnit(name, desc, className);
         accessHandler.setContext(codeUnit);
 
@@ -274,7 +308,7 @@ class JavaClassProcessor extends ClassVisitor {
                 .withThrowsClause(throwsDeclarations);
         declarationHandler.onDeclaredThrowsClause(fullyQualifiedClassNamesOf(throwsDeclarations));
 
-        return new MethodProcessor(className, accessHandler, codeUnitBuilder, declarationHandler);
+        return new MethodProcessor(className, accessHandler, codeUnitBuilder, declarationHandler, names);
     }
 
     private Collection<String> fullyQualifiedClassNamesOf(List<JavaClassDescriptor> classDescriptors) {
@@ -287,7 +321,7 @@ class JavaClassProcessor extends ClassVisitor {
 
     private List<JavaClassDescriptor> typesFrom(String[] throwsDeclarations) {
         return throwsDeclarations != null
-                ? stream(throwsDeclarations).map(JavaClassDescriptorImporter::createFromAsmObjectTypeName).collect(toList())
+                ? stream(throwsDeclarations).map(names::descriptorOf).collect(toList())
                 : Collections.emptyList();
     }
 
@@ -331,16 +365,23 @@ class JavaClassProcessor extends ClassVisitor {
         private final AccessHandler accessHandler;
         private final DomainBuilders.JavaCodeUnitBuilder<?, ?> codeUnitBuilder;
         private final DeclarationHandler declarationHandler;
+        private final NameTable names;
         private final Set<JavaAnnotationBuilder> annotations = new HashSet<>();
         private final SetMultimap<Integer, JavaAnnotationBuilder> parameterAnnotationsByIndex = HashMultimap.create();
         private int actualLineNumber;
 
-        MethodProcessor(String declaringClassName, AccessHandler accessHandler, DomainBuilders.JavaCodeUnitBuilder<?, ?> codeUnitBuilder, DeclarationHandler declarationHandler) {
+        MethodProcessor(
+                String declaringClassName,
+                AccessHandler accessHandler,
+                DomainBuilders.JavaCodeUnitBuilder<?, ?> codeUnitBuilder,
+                DeclarationHandler declarationHandler,
+                NameTable names) {
             super(ASM_API_VERSION);
             this.declaringClassName = declaringClassName;
             this.accessHandler = accessHandler;
             this.codeUnitBuilder = codeUnitBuilder;
             this.declarationHandler = declarationHandler;
+            this.names = names;
             codeUnitBuilder.withParameterAnnotations(parameterAnnotationsByIndex);
         }
 
@@ -381,7 +422,7 @@ class JavaClassProcessor extends ClassVisitor {
         @Override
         public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
             if (type != null) {
-                accessHandler.handleTryCatchBlock(start, end, handler, JavaClassDescriptorImporter.createFromAsmObjectTypeName(type));
+                accessHandler.handleTryCatchBlock(start, end, handler, names.descriptorOf(type));
             } else {
                 accessHandler.handleTryFinallyBlock(start, end, handler);
             }
@@ -400,7 +441,7 @@ class JavaClassProcessor extends ClassVisitor {
         @Override
         public void visitTypeInsn(int opcode, String type) {
             if (opcode == Opcodes.INSTANCEOF) {
-                JavaClassDescriptor instanceOfCheckType = JavaClassDescriptorImporter.createFromAsmObjectTypeName(type);
+                JavaClassDescriptor instanceOfCheckType = names.descriptorOf(type);
                 codeUnitBuilder.addInstanceOfCheck(from(instanceOfCheckType, actualLineNumber));
                 declarationHandler.onDeclaredInstanceofCheck(instanceOfCheckType.getFullyQualifiedClassName());
             }
@@ -17,6 +17,8 @@ package com.tngtech.archunit.core.importer;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -27,10 +29,12 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Enumeration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.jar.JarEntry;
@@ -51,6 +55,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Handles various forms of location from where classes can be imported in a consistent way. Any location
@@ -59,6 +64,8 @@ import static java.util.Collections.emptySet;
  * <ul>
  *     <li><code>file:///home/someuser/workspace/myproject/target/classes/myproject/Foo.class</code></li>
  *     <li><code>jar:file:///home/someuser/.m2/repository/myproject/foolib.jar!/myproject/Foo.class</code></li>
+ *     <li><code>jar:file:///home/someuser/myproject/target/myapp.jar!/BOOT-INF/lib/foolib.jar!/myproject/Foo.class</code>
+ *     (a JAR nested within another JAR, which is read without extracting it)</li>
  * </ul>
  */
 public abstract class Location {
@@ -68,7 +75,7 @@ public abstract class Location {
         ImportPlugin.Loader.loadForCurrentPlatform().plugInLocationFactories(factories);
     }
 
-    private static final Cache<NormalizedUri, Collection<NormalizedResourceName>> ENTRY_CACHE = CacheBuilder.newBuilder().build();
+    private static final Cache<NormalizedUri, EntryIndex> ENTRY_CACHE = CacheBuilder.newBuilder().build();
 
     final NormalizedUri uri;
 
@@ -145,8 +152,19 @@ public abstract class Location {
      * @return A Stream containing all class file names under this location, e.g. relative file names, Jar entry names, ...
      */
     final Stream<NormalizedResourceName> streamEntries() {
+        return getEntryIndex().stream();
+    }
+
+    /**
+     * @return {@code true}, if any class file name under this location equals or lies beneath the given prefix
+     */
+    final boolean containsEntryWithPrefix(NormalizedResourceName prefix) {
+        return getEntryIndex().containsEntryWithPrefix(prefix);
+    }
+
+    private EntryIndex getEntryIndex() {
         try {
-            return ENTRY_CACHE.get(uri, this::readResourceEntries).stream();
+            return ENTRY_CACHE.get(uri, () -> new EntryIndex(readResourceEntries()));
         } catch (ExecutionException e) {
             throw new LocationException(e);
         }
@@ -210,10 +228,57 @@ public abstract class Location {
         }
     }
 
+    /**
+     * Opens a single resource (e.g. a class file resolved from the classpath) by the {@link Factory} supporting the scheme
+     * of the {@link URI}, which might be able to read it more efficiently than a {@link URL} connection.
+     */
+    static InputStream openStream(URI uri) throws IOException {
+        for (Factory factory : factories.get()) {
+            if (factory.supports(uri.getScheme())) {
+                return factory.openStream(uri);
+            }
+        }
+        return uri.toURL().openStream();
+    }
+
     interface Factory {
         boolean supports(String scheme);
 
         Location create(URI uri);
+
+        default InputStream openStream(URI uri) throws IOException {
+            return uri.toURL().openStream();
+        }
+    }
+
+    /**
+     * Keeps the entry names additionally sorted, so checking for entries with a certain prefix (e.g. a package)
+     * only needs a binary search instead of comparing every single entry.
+     */
+    private static class EntryIndex {
+        private final Collection<NormalizedResourceName> entries;
+        private final String[] sortedEntryNames;
+
+        EntryIndex(Collection<NormalizedResourceName> entries) {
+            this.entries = entries;
+            this.sortedEntryNames = entries.stream().map(NormalizedResourceName::toString).sorted().toArray(String[]::new);
+        }
+
+        Stream<NormalizedResourceName> stream() {
+            return entries.stream();
+        }
+
+        // compare NormalizedResourceName.startsWith(..), i.e. the entry equals the prefix or lies in a folder named like the prefix
+        boolean containsEntryWithPrefix(NormalizedResourceName prefix) {
+            return Arrays.binarySearch(sortedEntryNames, prefix.toString()) >= 0
+                    || containsEntryStartingWith(prefix + "/");
+        }
+
+        private boolean containsEntryStartingWith(String prefix) {
+            int index = Arrays.binarySearch(sortedEntryNames, prefix);
+            int firstCandidate = index >= 0 ? index : -index - 1;
+            return firstCandidate < sortedEntryNames.length && sortedEntryNames[firstCandidate].startsWith(prefix);
+        }
     }
 
     static class JarFileLocationFactory implements Factory {
@@ -268,13 +333,31 @@ public abstract class Location {
         @Override
         ClassFileSource asClassFileSource(ImportOptions importOptions) {
             try {
-                String[] parts = uri.toString().split("!/", 2);
-                return new ClassFileSource.FromJar(new URL(parts[0] + "!/"), parts[1], importOptions);
+                return new ClassFileSource.FromJar(getJarUrl(), getPathWithinJar(), importOptions);
             } catch (IOException e) {
                 throw new LocationException(e);
             }
         }
 
+        /**
+         * @return The URL of the innermost JAR, i.e. for {@code jar:file:/some/app.jar!/lib/nested.jar!/some/pkg/}
+         *         this would be {@code jar:file:/some/app.jar!/lib/nested.jar!/}
+         */
+        private URL getJarUrl() throws MalformedURLException {
+            String uriString = uri.toString();
+            return new URL(uriString.substring(0, uriString.lastIndexOf("!/") + "!/".length()));
+        }
+
+        private String getPathWithinJar() {
+            String uriString = uri.toString();
+            return uriString.substring(uriString.lastIndexOf("!/") + "!/".length());
+        }
+
+        private boolean isNested() {
+            String uriString = uri.toString();
+            return uriString.indexOf("!/") != uriString.lastIndexOf("!/");
+        }
+
         @Override
         public boolean isJar() {
             return true;
@@ -292,7 +375,7 @@ public abstract class Location {
                 return emptySet();
             }
 
-            return readJarFileContent(file);
+            return isNested() ? readNestedJarFileContent() : readJarFileContent(file);
         }
 
         private File getFileOfJar() {
@@ -301,24 +384,37 @@ public abstract class Location {
                     .replaceAll("!/.*", "")));
         }
 
+        private Collection<NormalizedResourceName> readNestedJarFileContent() {
+            try {
+                Optional<IndexedJarFile> indexedJarFile = IndexedJarFile.tryOpen(getJarUrl());
+                return indexedJarFile.isPresent()
+                        ? ImmutableList.copyOf(readEntries(getPathWithinJar(), indexedJarFile.get().getNames()))
+                        : emptySet();
+            } catch (MalformedURLException e) {
+                throw new LocationException(e);
+            }
+        }
+
         private Collection<NormalizedResourceName> readJarFileContent(File fileOfJar) {
             ImmutableList.Builder<NormalizedResourceName> result = ImmutableList.builder();
-            String prefix = uri.toString().replaceAll(".*!/", "");
+            String prefix = getPathWithinJar();
+            Optional<IndexedJarFile> indexedJarFile = IndexedJarFile.tryOpen(fileOfJar);
+            if (indexedJarFile.isPresent()) {
+                return result.addAll(readEntries(prefix, indexedJarFile.get().getNames())).build();
+            }
             try (JarFile jarFile = new JarFile(fileOfJar)) {
-                result.addAll(readEntries(prefix, jarFile));
+                result.addAll(readEntries(prefix, Collections.list(jarFile.entries()).stream().map(JarEntry::getName).collect(toList())));
             } catch (IOException e) {
                 throw new LocationException(e);
             }
             return result.build();
         }
 
-        private List<NormalizedResourceName> readEntries(String prefix, JarFile jarFile) {
+        private List<NormalizedResourceName> readEntries(String prefix, List<String> entryNames) {
             List<NormalizedResourceName> result = new ArrayList<>();
-            Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (entry.getName().startsWith(prefix) && entry.getName().endsWith(".class")) {
-                    result.add(NormalizedResourceName.from(entry.getName()));
+            for (String entryName : entryNames) {
+                if (entryName.startsWith(prefix) && entryName.endsWith(".class")) {
+                    result.add(NormalizedResourceName.from(entryName));
                 }
             }
             return result;
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.tngtech.archunit.PublicAPI;
 import com.tngtech.archunit.base.ArchUnitException.LocationException;
@@ -29,7 +30,9 @@ import com.tngtech.archunit.core.InitialConfiguration;
 import static com.google.common.collect.Sets.newHashSet;
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 import static com.tngtech.archunit.base.ClassLoaders.getCurrentClassLoader;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.list;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Represents a set of {@link Location locations} of Java class files. Also offers methods to derive concrete locations (i.e. URIs) from
@@ -37,6 +40,7 @@ import static java.util.Collections.list;
  */
 public final class Locations {
     private static final InitialConfiguration<LocationResolver> locationResolver = new InitialConfiguration<>();
+    private static volatile ClassPathLocations classPathLocations = new ClassPathLocations(emptyList());
 
     static {
         ImportPlugin.Loader.loadForCurrentPlatform().plugInLocationResolver(locationResolver);
@@ -97,11 +101,7 @@ public final class Locations {
      */
     @PublicAPI(usage = ACCESS)
     public static Set<Location> inClassPath() {
-        ImmutableSet.Builder<Location> result = ImmutableSet.builder();
-        for (URL url : locationResolver.get().resolveClassPath()) {
-            result.add(Location.of(url));
-        }
-        return result.build();
+        return ImmutableSet.copyOf(locationsOf(locationResolver.get().resolveClassPath()));
     }
 
     private static String asResourceName(String qualifiedName) {
@@ -122,10 +122,10 @@ public final class Locations {
      * does not behave correctly for older Java versions,
      * because the folder entry {@code /java/io} is missing from {@code rt.jar}.
      */
-    private static Collection<Location> getResourceLocations(ClassLoader loader, NormalizedResourceName resourceName, Iterable<URL> classpath) {
+    private static Collection<Location> getResourceLocations(ClassLoader loader, NormalizedResourceName resourceName, UrlSource classpath) {
         Set<Location> result = newHashSet(Locations.of(getResources(loader, resourceName)));
-        for (Location location : Locations.of(classpath)) {
-            if (containsEntryWithPrefix(location, resourceName)) {
+        for (Location location : locationsOf(classpath)) {
+            if (location.containsEntryWithPrefix(resourceName)) {
                 result.add(location.append(resourceName.toString()));
             }
         }
@@ -140,7 +140,36 @@ public final class Locations {
         }
     }
 
-    private static boolean containsEntryWithPrefix(Location location, NormalizedResourceName searchedJarEntryPrefix) {
-        return location.streamEntries().anyMatch(name -> name.startsWith(searchedJarEntryPrefix));
+    /**
+     * Concurrent imports (e.g. of several modules within the same JVM) all look up packages within the same classpath,
+     * so the {@link Location Locations} of the classpath are shared as long as the classpath does not change.
+     */
+    private static List<Location> locationsOf(UrlSource classpath) {
+        List<URL> urls = ImmutableList.copyOf(classpath);
+        ClassPathLocations cached = classPathLocations;
+        if (!cached.isOf(urls)) {
+            cached = new ClassPathLocations(urls);
+            classPathLocations = cached;
+        }
+        return cached.locations;
+    }
+
+    private static class ClassPathLocations {
+        // compare URLs as strings, since URL.equals(..) might resolve host names
+        private final List<String> urls;
+        private final List<Location> locations;
+
+        ClassPathLocations(List<URL> urls) {
+            this.urls = toExternalForms(urls);
+            this.locations = urls.stream().map(Location::of).collect(toList());
+        }
+
+        boolean isOf(List<URL> otherUrls) {
+            return urls.equals(toExternalForms(otherUrls));
+        }
+
+        private static List<String> toExternalForms(List<URL> urls) {
+            return urls.stream().map(URL::toExternalForm).collect(toList());
+        }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.tngtech.archunit.core.domain.JavaClassDescriptor;
+
+/**
+ * Holds one canonical instance of each class name, member name and descriptor encountered during one import.
+ * ASM only shares {@link String Strings} within the constant pool of a single class file, so without interning
+ * every class file would contribute its own copies of names like {@code java.lang.String}, {@code toString}
+ * or {@code ()Ljava/lang/String;} to the records of the import.
+ * <br><br>
+ * Class files might be processed concurrently, thus the table is thread-safe.
+ * <br><br>
+ * The canonical instances are shared by all tables of the JVM, so concurrent imports of overlapping class files
+ * (e.g. of several modules depending on the same libraries) do not hold copies of the same names either.
+ * Since the JVM wide instances are only weakly referenced, the names are released together with the last import using them.
+ */
+class NameTable {
+    private static final Interner<String> CANONICAL_STRINGS = Interners.newWeakInterner();
+
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Type> typesByAsmObjectTypeName = new ConcurrentHashMap<>();
+
+    /**
+     * @return the canonical instance of a member name or descriptor, {@code null} if {@code string} is {@code null}
+     */
+    String intern(String string) {
+        if (string == null) {
+            return null;
+        }
+        String existing = strings.get(string);
+        if (existing != null) {
+            return existing;
+        }
+        String canonical = CANONICAL_STRINGS.intern(string);
+        existing = strings.putIfAbsent(canonical, canonical);
+        return existing != null ? existing : canonical;
+    }
+
+    /**
+     * @param asmObjectTypeName an 'internal' ASM object type name, e.g. {@code java/lang/Object}
+     * @return the {@link JavaClassDescriptor} with the fully qualified class name, e.g. {@code java.lang.Object}
+     */
+    JavaClassDescriptor descriptorOf(String asmObjectTypeName) {
+        return typeOf(asmObjectTypeName).descriptor;
+    }
+
+    /**
+     * @param asmObjectTypeName an 'internal' ASM object type name, e.g. {@code java/lang/Object}
+     * @return the canonical fully qualified class name, e.g. {@code java.lang.Object}, i.e. the same instance {@link #intern(String)} returns
+     */
+    String typeNameOf(String asmObjectTypeName) {
+        return typeOf(asmObjectTypeName).name;
+    }
+
+    private Type typeOf(String asmObjectTypeName) {
+        Type type = typesByAsmObjectTypeName.get(asmObjectTypeName);
+        if (type == null) {
+            JavaClassDescriptor descriptor = JavaClassDescriptorImporter.createFromAsmObjectTypeName(asmObjectTypeName);
+            // descriptors are cached JVM wide, so interning their name makes it the canonical instance, unless an equal name has been interned before
+            type = new Type(descriptor, intern(descriptor.getFullyQualifiedClassName()));
+            Type existing = typesByAsmObjectTypeName.putIfAbsent(intern(asmObjectTypeName), type);
+            return existing != null ? existing : type;
+        }
+        return type;
+    }
+
+    private static class Type {
+        private final JavaClassDescriptor descriptor;
+        private final String name;
+
+        Type(JavaClassDescriptor descriptor, String name) {
+            this.descriptor = descriptor;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+/**
+ * An {@link ImportOption} that can tell upfront that it excludes a whole directory or archive,
+ * so the importer can skip it without enumerating and filtering every single class file within.
+ */
+interface PrunableImportOption extends ImportOption {
+    /**
+     * @param location A {@link Location} of a directory, an archive or a folder within an archive
+     * @return {@code true}, if {@link #includes(Location)} is {@code false} for any class file {@link Location} beneath
+     *         the given {@link Location}, {@code false} if this can't be determined upfront
+     */
+    boolean excludesEverythingBeneath(Location location);
+}
@@ -26,12 +26,19 @@ import com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 class RawAccessRecord {
+    /**
+     * The {@link #id} of records that have not been stored in a {@link RawAccessRecordStore}
+     */
+    static final long NO_ID = -1;
+
+    final long id;
     final CodeUnit caller;
     final TargetInfo target;
     final int lineNumber;
     public boolean declaredInLambda;
 
-    RawAccessRecord(CodeUnit caller, TargetInfo target, int lineNumber, boolean declaredInLambda) {
+    RawAccessRecord(long id, CodeUnit caller, TargetInfo target, int lineNumber, boolean declaredInLambda) {
+        this.id = id;
         this.caller = checkNotNull(caller);
         this.target = checkNotNull(target);
         this.lineNumber = lineNumber;
@@ -146,8 +153,8 @@ class RawAccessRecord {
 
         private final int hashCode;
 
-        TargetInfo(String owner, String name, String desc) {
-            this.owner = JavaClassDescriptorImporter.createFromAsmObjectTypeName(owner);
+        TargetInfo(JavaClassDescriptor owner, String name, String desc) {
+            this.owner = owner;
             this.name = name;
             this.desc = desc;
             hashCode = Objects.hash(owner, name, desc);
@@ -196,7 +203,7 @@ class RawAccessRecord {
     static class Builder extends BaseBuilder<RawAccessRecord, Builder> {
         @Override
         RawAccessRecord build() {
-            return new RawAccessRecord(caller, target, lineNumber, declaredInLambda);
+            return new RawAccessRecord(NO_ID, caller, target, lineNumber, declaredInLambda);
         }
     }
 
@@ -237,8 +244,8 @@ class RawAccessRecord {
     static class ForField extends RawAccessRecord {
         final AccessType accessType;
 
-        private ForField(CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType, boolean declaredInLambda) {
-            super(caller, target, lineNumber, declaredInLambda);
+        ForField(long id, CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType, boolean declaredInLambda) {
+            super(id, caller, target, lineNumber, declaredInLambda);
             this.accessType = accessType;
         }
 
@@ -252,7 +259,7 @@ class RawAccessRecord {
 
             @Override
             ForField build() {
-                return new ForField(super.caller, super.target, super.lineNumber, accessType, declaredInLambda);
+                return new ForField(NO_ID, super.caller, super.target, super.lineNumber, accessType, declaredInLambda);
             }
         }
     }
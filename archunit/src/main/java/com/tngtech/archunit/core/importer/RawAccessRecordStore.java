@@ -0,0 +1,383 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType;
+import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
+import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Spliterator.ORDERED;
+
+/**
+ * Stores {@link RawAccessRecord RawAccessRecords} column by column in primitive arrays. Callers and targets are interned
+ * and only referenced by their index, so every single access only takes a few bytes instead of a couple of objects.
+ * The {@link RawAccessRecord RawAccessRecords} are only created one by one while {@link #stream() streaming} the store.
+ * <br><br>
+ * Every record has an {@link RawAccessRecord#id id} that is unique within the JVM,
+ * thus records can still be referenced after stores have been {@link #addAll(RawAccessRecordStore) merged}.
+ * <br><br>
+ * If the columns can't grow within the {@link ImportMemoryBudget}, the rows are spilled to a temporary file.
+ * Spilled rows are streamed back from this file only once, afterwards the file is deleted.
+ * If the records of a store will never be streamed, the store must be {@link #discard() discarded} instead,
+ * to delete the spill file and release the memory budget.
+ */
+abstract class RawAccessRecordStore<ACCESS extends RawAccessRecord> {
+    private static final Logger LOG = LoggerFactory.getLogger(RawAccessRecordStore.class);
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int BYTES_PER_ROW = 3 * Integer.BYTES;
+    private static final int SPILL_BUFFER_SIZE = 64 * 1024;
+    private static final AtomicInteger nextStoreNumber = new AtomicInteger();
+
+    private final long storeNumber = nextStoreNumber.getAndIncrement() & 0xFFFFFFFFL;
+    private final ImportMemoryBudget memoryBudget;
+    private final List<CodeUnit> callers = new ArrayList<>();
+    private final Map<CodeUnit, Integer> callerIndexes = new HashMap<>();
+    private final List<TargetInfo> targets = new ArrayList<>();
+    private final Map<TargetInfo, Integer> targetIndexes = new HashMap<>();
+    private int[] callerColumn = new int[INITIAL_CAPACITY];
+    private int[] targetColumn = new int[INITIAL_CAPACITY];
+    private int[] lineNumberColumn = new int[INITIAL_CAPACITY];
+    private int size;
+    private Path spillFile;
+    // kept open until the store is streamed or discarded, so spilling a block of rows doesn't reopen the file
+    private DataOutputStream spillOutput;
+    private int spilledRows;
+    private boolean spilledRowsStreamed;
+    private final BitSet skippedCallerIndexes = new BitSet();
+    // stores of other records are merged without copying their columns
+    private final List<RawAccessRecordStore<ACCESS>> mergedStores = new ArrayList<>();
+
+    RawAccessRecordStore(ImportMemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    static ForAccesses forAccesses(ImportMemoryBudget memoryBudget) {
+        return new ForAccesses(memoryBudget);
+    }
+
+    static ForFieldAccesses forFieldAccesses(ImportMemoryBudget memoryBudget) {
+        return new ForFieldAccesses(memoryBudget);
+    }
+
+    /**
+     * @return the index of the row the access has been stored in, counting spilled rows as well
+     */
+    int addRow(CodeUnit caller, TargetInfo target, int lineNumber) {
+        if (size == callerColumn.length) {
+            makeRoomForRows();
+        }
+        callerColumn[size] = indexOf(caller, callers, callerIndexes);
+        targetColumn[size] = indexOf(target, targets, targetIndexes);
+        lineNumberColumn[size] = lineNumber;
+        return spilledRows + size++;
+    }
+
+    /**
+     * Doubles the columns, if the memory budget allows it. Otherwise the rows are spilled, but the columns keep their capacity,
+     * i.e. once the budget is exhausted, every store spills blocks as large as its share of the budget.
+     */
+    private void makeRoomForRows() {
+        int capacity = callerColumn.length;
+        if (memoryBudget.tryAllocate((long) capacity * bytesPerRow())) {
+            resize(capacity * 2);
+        } else {
+            spillRows();
+        }
+    }
+
+    void resize(int capacity) {
+        callerColumn = Arrays.copyOf(callerColumn, capacity);
+        targetColumn = Arrays.copyOf(targetColumn, capacity);
+        lineNumberColumn = Arrays.copyOf(lineNumberColumn, capacity);
+    }
+
+    int bytesPerRow() {
+        return BYTES_PER_ROW;
+    }
+
+    private void spillRows() {
+        try {
+            if (spillFile == null) {
+                spillFile = Files.createTempFile("archunit-access-records", ".bin");
+                spillOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile), SPILL_BUFFER_SIZE));
+                LOG.debug("Memory budget for access records is exhausted, spilling access records to {}", spillFile);
+            }
+            for (int row = 0; row < size; row++) {
+                writeRow(spillOutput, row);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't spill access records to " + spillFile, e);
+        }
+        spilledRows += size;
+        size = 0;
+    }
+
+    void writeRow(DataOutput out, int row) throws IOException {
+        out.writeInt(callerColumn[row]);
+        out.writeInt(targetColumn[row]);
+        out.writeInt(lineNumberColumn[row]);
+    }
+
+    private ACCESS readRecord(DataInput in, int row) throws IOException {
+        CodeUnit caller = callers.get(in.readInt());
+        TargetInfo target = targets.get(in.readInt());
+        int lineNumber = in.readInt();
+        return readRecord(in, row, caller, target, lineNumber);
+    }
+
+    abstract ACCESS readRecord(DataInput in, int row, CodeUnit caller, TargetInfo target, int lineNumber) throws IOException;
+
+    private static <T> int indexOf(T value, List<T> values, Map<T, Integer> indexes) {
+        Integer index = indexes.get(value);
+        if (index == null) {
+            index = values.size();
+            values.add(value);
+            indexes.put(value, index);
+        }
+        return index;
+    }
+
+    int columnIndexOf(int row) {
+        return row - spilledRows;
+    }
+
+    long idOf(int row) {
+        return storeNumber << 32 | row;
+    }
+
+    /**
+     * Skips all rows of accesses from within the given classes when this store is {@link #stream() streamed}.
+     * The rows are kept nevertheless, so the {@link RawAccessRecord#id ids} of the remaining records stay valid.
+     */
+    void skipCallersDeclaredIn(Set<String> classNames) {
+        for (int callerIndex = 0; callerIndex < callers.size(); callerIndex++) {
+            if (classNames.contains(callers.get(callerIndex).getDeclaringClassName())) {
+                skippedCallerIndexes.set(callerIndex);
+            }
+        }
+    }
+
+    void addAll(RawAccessRecordStore<ACCESS> other) {
+        mergedStores.add(other);
+    }
+
+    /**
+     * @return all records of this store, including the records of merged stores. Since spilled records can only be streamed once,
+     *         the returned {@link Stream} must be closed to release the spill files.
+     */
+    Stream<ACCESS> stream() {
+        return Stream.of(
+                spilledRecords(),
+                IntStream.range(0, size)
+                        .filter(columnIndex -> !skippedCallerIndexes.get(callerColumn[columnIndex]))
+                        .mapToObj(columnIndex -> createRecord(
+                                spilledRows + columnIndex,
+                                callers.get(callerColumn[columnIndex]),
+                                targets.get(targetColumn[columnIndex]),
+                                lineNumberColumn[columnIndex],
+                                columnIndex)),
+                mergedStores.stream().flatMap(RawAccessRecordStore::stream)
+        ).flatMap(records -> records);
+    }
+
+    private Stream<ACCESS> spilledRecords() {
+        if (spillFile == null) {
+            return Stream.empty();
+        }
+        if (spilledRowsStreamed) {
+            throw new IllegalStateException("Access records spilled to " + spillFile + " have already been streamed");
+        }
+        spilledRowsStreamed = true;
+
+        DataInputStream in;
+        try {
+            closeSpillOutput();
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't read access records spilled to " + spillFile, e);
+        }
+        Iterator<ACCESS> records = new Iterator<ACCESS>() {
+            private int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return row < spilledRows;
+            }
+
+            @Override
+            public ACCESS next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return readRecord(in, row++);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Couldn't read access records spilled to " + spillFile, e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(records, spilledRows, ORDERED), false)
+                .filter(record -> skippedCallerIndexes.isEmpty() || !skippedCallerIndexes.get(callerIndexes.get(record.caller)))
+                .onClose(() -> closeAndDeleteSpillFile(in));
+    }
+
+    private void closeAndDeleteSpillFile(DataInputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            LOG.warn("Couldn't close spilled access records at " + spillFile, e);
+        }
+        deleteSpillFile();
+    }
+
+    private void closeSpillOutput() throws IOException {
+        if (spillOutput != null) {
+            spillOutput.close();
+            spillOutput = null;
+        }
+    }
+
+    private void deleteSpillFile() {
+        try {
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            LOG.warn("Couldn't delete spilled access records at " + spillFile, e);
+        }
+    }
+
+    /**
+     * Drops all records of this store and of all merged stores, i.e. releases their memory budget and deletes their spill files.
+     * The store must not be streamed afterwards.
+     */
+    void discard() {
+        memoryBudget.release((long) (callerColumn.length - INITIAL_CAPACITY) * bytesPerRow());
+        resize(INITIAL_CAPACITY);
+        size = 0;
+        callers.clear();
+        callerIndexes.clear();
+        targets.clear();
+        targetIndexes.clear();
+        skippedCallerIndexes.clear();
+        if (spillFile != null) {
+            try {
+                closeSpillOutput();
+            } catch (IOException e) {
+                LOG.warn("Couldn't close spilled access records at " + spillFile, e);
+            }
+            deleteSpillFile();
+            spillFile = null;
+            spilledRows = 0;
+        }
+        mergedStores.forEach(RawAccessRecordStore::discard);
+        mergedStores.clear();
+    }
+
+    /**
+     * @param row the index of the row, counting spilled rows as well
+     * @param columnIndex the index of the row within the columns held in memory
+     */
+    abstract ACCESS createRecord(int row, CodeUnit caller, TargetInfo target, int lineNumber, int columnIndex);
+
+    static class ForAccesses extends RawAccessRecordStore<RawAccessRecord> {
+        private ForAccesses(ImportMemoryBudget memoryBudget) {
+            super(memoryBudget);
+        }
+
+        long add(CodeUnit caller, TargetInfo target, int lineNumber) {
+            return idOf(addRow(caller, target, lineNumber));
+        }
+
+        @Override
+        RawAccessRecord createRecord(int row, CodeUnit caller, TargetInfo target, int lineNumber, int columnIndex) {
+            return new RawAccessRecord(idOf(row), caller, target, lineNumber, false);
+        }
+
+        @Override
+        RawAccessRecord readRecord(DataInput in, int row, CodeUnit caller, TargetInfo target, int lineNumber) {
+            return new RawAccessRecord(idOf(row), caller, target, lineNumber, false);
+        }
+    }
+
+    static class ForFieldAccesses extends RawAccessRecordStore<RawAccessRecord.ForField> {
+        private static final AccessType[] ACCESS_TYPES = AccessType.values();
+
+        private byte[] accessTypeColumn = new byte[INITIAL_CAPACITY];
+
+        private ForFieldAccesses(ImportMemoryBudget memoryBudget) {
+            super(memoryBudget);
+        }
+
+        long add(CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType) {
+            int row = addRow(caller, target, lineNumber);
+            accessTypeColumn[columnIndexOf(row)] = (byte) accessType.ordinal();
+            return idOf(row);
+        }
+
+        @Override
+        void resize(int capacity) {
+            super.resize(capacity);
+            accessTypeColumn = Arrays.copyOf(accessTypeColumn, capacity);
+        }
+
+        @Override
+        int bytesPerRow() {
+            return super.bytesPerRow() + Byte.BYTES;
+        }
+
+        @Override
+        void writeRow(DataOutput out, int row) throws IOException {
+            super.writeRow(out, row);
+            out.writeByte(accessTypeColumn[row]);
+        }
+
+        @Override
+        RawAccessRecord.ForField createRecord(int row, CodeUnit caller, TargetInfo target, int lineNumber, int columnIndex) {
+            return new RawAccessRecord.ForField(idOf(row), caller, target, lineNumber, ACCESS_TYPES[accessTypeColumn[columnIndex]], false);
+        }
+
+        @Override
+        RawAccessRecord.ForField readRecord(DataInput in, int row, CodeUnit caller, TargetInfo target, int lineNumber) throws IOException {
+            return new RawAccessRecord.ForField(idOf(row), caller, target, lineNumber, ACCESS_TYPES[in.readByte()], false);
+        }
+    }
+}
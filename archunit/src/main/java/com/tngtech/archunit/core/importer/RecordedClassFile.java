@@ -0,0 +1,303 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClassDescriptor;
+import com.tngtech.archunit.core.importer.ClassFileContentIndex.ClassFileContent;
+import com.tngtech.archunit.core.importer.DomainBuilders.JavaAnnotationBuilder;
+import com.tngtech.archunit.core.importer.DomainBuilders.JavaClassBuilder;
+import com.tngtech.archunit.core.importer.DomainBuilders.JavaClassTypeParametersBuilder;
+import com.tngtech.archunit.core.importer.DomainBuilders.JavaConstructorBuilder;
+import com.tngtech.archunit.core.importer.DomainBuilders.JavaFieldBuilder;
+import com.tngtech.archunit.core.importer.DomainBuilders.JavaMethodBuilder;
+import com.tngtech.archunit.core.importer.DomainBuilders.JavaParameterizedTypeBuilder;
+import com.tngtech.archunit.core.importer.DomainBuilders.JavaStaticInitializerBuilder;
+import com.tngtech.archunit.core.importer.JavaClassProcessor.AccessHandler;
+import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
+import org.objectweb.asm.Label;
+
+/**
+ * Everything the {@link JavaClassProcessor} reported while parsing a single class file, i.e. the declarations
+ * passed to the {@link DeclarationHandler} and the accesses passed to the {@link AccessHandler} in their original order.
+ * Later imports of the same {@link ImportSession} replay these events to their own handlers instead of parsing the class file again,
+ * so they create their own import records and class graph from the same builders.
+ */
+class RecordedClassFile {
+    private final String className;
+    private final JavaClassBuilder javaClassBuilder;
+    private final List<Event> events;
+    private final Optional<ClassFileContent> content;
+
+    private RecordedClassFile(String className, JavaClassBuilder javaClassBuilder, List<Event> events, Optional<ClassFileContent> content) {
+        this.className = className;
+        this.javaClassBuilder = javaClassBuilder;
+        this.events = events;
+        this.content = content;
+    }
+
+    /**
+     * @return The content of the class file, if it has been imported from the requested locations (as opposed to being resolved)
+     */
+    Optional<ClassFileContent> getContent() {
+        return content;
+    }
+
+    /**
+     * Reports the recorded events to the given handlers, exactly like parsing the class file again would.
+     *
+     * @return The {@link JavaClass} of this class file, unless the class has already been imported before
+     */
+    Optional<JavaClass> replayTo(DeclarationHandler declarationHandler, AccessHandler accessHandler) {
+        if (!declarationHandler.isNew(className)) {
+            return Optional.empty();
+        }
+        for (Event event : events) {
+            event.replayTo(declarationHandler, accessHandler);
+        }
+        return Optional.of(javaClassBuilder.build());
+    }
+
+    static Recorder recordTo(DeclarationHandler declarationHandler, AccessHandler accessHandler) {
+        return new Recorder(declarationHandler, accessHandler);
+    }
+
+    private interface Event {
+        void replayTo(DeclarationHandler declarationHandler, AccessHandler accessHandler);
+    }
+
+    /**
+     * Passes all events on to the handlers of the current import, while recording them for later imports.
+     */
+    static class Recorder {
+        private final List<Event> events = new ArrayList<>();
+        private final RecordingDeclarationHandler declarationHandler;
+        private final RecordingAccessHandler accessHandler;
+
+        private Recorder(DeclarationHandler declarationHandler, AccessHandler accessHandler) {
+            this.declarationHandler = new RecordingDeclarationHandler(declarationHandler);
+            this.accessHandler = new RecordingAccessHandler(accessHandler);
+        }
+
+        DeclarationHandler getDeclarationHandler() {
+            return declarationHandler;
+        }
+
+        AccessHandler getAccessHandler() {
+            return accessHandler;
+        }
+
+        /**
+         * @return The recorded class file, unless parsing has been aborted, because the class has already been imported before.
+         *         In this case not all events have been reported, so there is nothing to replay.
+         */
+        Optional<RecordedClassFile> finish(JavaClassProcessor classProcessor, Optional<ClassFileContent> content) {
+            Optional<JavaClassBuilder> javaClassBuilder = classProcessor.getJavaClassBuilder();
+            if (!javaClassBuilder.isPresent() || declarationHandler.className == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new RecordedClassFile(declarationHandler.className, javaClassBuilder.get(), events, content));
+        }
+
+        private class RecordingDeclarationHandler implements DeclarationHandler {
+            private final DeclarationHandler delegate;
+            private String className;
+
+            RecordingDeclarationHandler(DeclarationHandler delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public boolean isNew(String className) {
+                boolean isNew = delegate.isNew(className);
+                if (isNew) {
+                    this.className = className;
+                }
+                return isNew;
+            }
+
+            @Override
+            public void onNewClass(String className, Optional<String> superclassName, List<String> interfaceNames) {
+                record(handler -> handler.onNewClass(className, superclassName, interfaceNames));
+            }
+
+            @Override
+            public void onDeclaredTypeParameters(JavaClassTypeParametersBuilder typeParametersBuilder) {
+                record(handler -> handler.onDeclaredTypeParameters(typeParametersBuilder));
+            }
+
+            @Override
+            public void onGenericSuperclass(JavaParameterizedTypeBuilder<JavaClass> genericSuperclassBuilder) {
+                record(handler -> handler.onGenericSuperclass(genericSuperclassBuilder));
+            }
+
+            @Override
+            public void onGenericInterfaces(List<JavaParameterizedTypeBuilder<JavaClass>> genericInterfaceBuilders) {
+                record(handler -> handler.onGenericInterfaces(genericInterfaceBuilders));
+            }
+
+            @Override
+            public void onDeferredMembers() {
+                record(DeclarationHandler::onDeferredMembers);
+            }
+
+            @Override
+            public void onDeclaredField(JavaFieldBuilder fieldBuilder, String fieldTypeName) {
+                record(handler -> handler.onDeclaredField(fieldBuilder, fieldTypeName));
+            }
+
+            @Override
+            public void onDeclaredConstructor(JavaConstructorBuilder constructorBuilder, Collection<String> rawParameterTypeNames) {
+                record(handler -> handler.onDeclaredConstructor(constructorBuilder, rawParameterTypeNames));
+            }
+
+            @Override
+            public void onDeclaredMethod(JavaMethodBuilder methodBuilder, Collection<String> rawParameterTypeNames, String rawReturnTypeName) {
+                record(handler -> handler.onDeclaredMethod(methodBuilder, rawParameterTypeNames, rawReturnTypeName));
+            }
+
+            @Override
+            public void onDeclaredStaticInitializer(JavaStaticInitializerBuilder staticInitializerBuilder) {
+                record(handler -> handler.onDeclaredStaticInitializer(staticInitializerBuilder));
+            }
+
+            @Override
+            public void onDeclaredClassAnnotations(Set<JavaAnnotationBuilder> annotationBuilders) {
+                record(handler -> handler.onDeclaredClassAnnotations(annotationBuilders));
+            }
+
+            @Override
+            public void onDeclaredMemberAnnotations(String memberName, String descriptor, Set<JavaAnnotationBuilder> annotations) {
+                record(handler -> handler.onDeclaredMemberAnnotations(memberName, descriptor, annotations));
+            }
+
+            @Override
+            public void onDeclaredAnnotationValueType(String valueTypeName) {
+                record(handler -> handler.onDeclaredAnnotationValueType(valueTypeName));
+            }
+
+            @Override
+            public void onDeclaredAnnotationDefaultValue(String methodName, String methodDescriptor, JavaAnnotationBuilder.ValueBuilder valueBuilder) {
+                record(handler -> handler.onDeclaredAnnotationDefaultValue(methodName, methodDescriptor, valueBuilder));
+            }
+
+            @Override
+            public void registerEnclosingClass(String ownerName, String enclosingClassName) {
+                record(handler -> handler.registerEnclosingClass(ownerName, enclosingClassName));
+            }
+
+            @Override
+            public void registerEnclosingCodeUnit(String ownerName, CodeUnit enclosingCodeUnit) {
+                record(handler -> handler.registerEnclosingCodeUnit(ownerName, enclosingCodeUnit));
+            }
+
+            @Override
+            public void onDeclaredClassObject(String typeName) {
+                record(handler -> handler.onDeclaredClassObject(typeName));
+            }
+
+            @Override
+            public void onDeclaredInstanceofCheck(String typeName) {
+                record(handler -> handler.onDeclaredInstanceofCheck(typeName));
+            }
+
+            @Override
+            public void onDeclaredThrowsClause(Collection<String> exceptionTypeNames) {
+                record(handler -> handler.onDeclaredThrowsClause(exceptionTypeNames));
+            }
+
+            @Override
+            public void onDeclaredGenericSignatureType(String typeName) {
+                record(handler -> handler.onDeclaredGenericSignatureType(typeName));
+            }
+
+            private void record(Consumer<DeclarationHandler> event) {
+                event.accept(delegate);
+                events.add((declarationHandler, accessHandler) -> event.accept(declarationHandler));
+            }
+        }
+
+        private class RecordingAccessHandler implements AccessHandler {
+            private final AccessHandler delegate;
+
+            RecordingAccessHandler(AccessHandler delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void handleFieldInstruction(int opcode, String owner, String name, String desc) {
+                record(handler -> handler.handleFieldInstruction(opcode, owner, name, desc));
+            }
+
+            @Override
+            public void setContext(CodeUnit codeUnit) {
+                record(handler -> handler.setContext(codeUnit));
+            }
+
+            @Override
+            public void onLineNumber(int lineNumber, Label label) {
+                record(handler -> handler.onLineNumber(lineNumber, label));
+            }
+
+            @Override
+            public void onLabel(Label label) {
+                record(handler -> handler.onLabel(label));
+            }
+
+            @Override
+            public void handleMethodInstruction(String owner, String name, String desc) {
+                record(handler -> handler.handleMethodInstruction(owner, name, desc));
+            }
+
+            @Override
+            public void handleMethodReferenceInstruction(String owner, String name, String desc) {
+                record(handler -> handler.handleMethodReferenceInstruction(owner, name, desc));
+            }
+
+            @Override
+            public void handleLambdaInstruction(String owner, String name, String desc) {
+                record(handler -> handler.handleLambdaInstruction(owner, name, desc));
+            }
+
+            @Override
+            public void handleTryCatchBlock(Label start, Label end, Label handler, JavaClassDescriptor throwableType) {
+                record(accessHandler -> accessHandler.handleTryCatchBlock(start, end, handler, throwableType));
+            }
+
+            @Override
+            public void handleTryFinallyBlock(Label start, Label end, Label handler) {
+                record(accessHandler -> accessHandler.handleTryFinallyBlock(start, end, handler));
+            }
+
+            @Override
+            public void onMethodEnd() {
+                record(AccessHandler::onMethodEnd);
+            }
+
+            private void record(Consumer<AccessHandler> event) {
+                event.accept(delegate);
+                events.add((declarationHandler, accessHandler) -> event.accept(accessHandler));
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014-2022 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static com.tngtech.archunit.core.importer.ArchiveUris.isArchive;
+
+/**
+ * Holds the bytes of class files that are resolved from archives on the classpath (e.g. JDK or library classes)
+ * on demand during an import. These class files are resolved again by every import within the same JVM,
+ * so sharing their bytes saves opening and inflating the same archive entries over and over.
+ * <br><br>
+ * Only class files from archives are held, since class files within directories might change between imports.
+ * Class files from JAR files are held together with the modification time and size of the (outermost) JAR file,
+ * so a JAR file rebuilt within the same JVM is read again, like {@link IndexedJarFile} re-indexes changed JAR files.
+ * Class files from JARs that aren't local files are not held at all.
+ * The cache is bounded by the total number of bytes held, so it can't grow beyond a fixed share of the heap.
+ */
+class ResolvedClassFileCache {
+    private static final long MAX_CACHED_BYTES = 64L * 1024 * 1024;
+
+    private static final Cache<Key, byte[]> CLASS_FILE_BYTES = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_BYTES)
+            .<Key, byte[]>weigher((key, bytes) -> bytes.length)
+            .softValues()
+            .build();
+
+    private ResolvedClassFileCache() {
+    }
+
+    static InputStream openStream(URI uri) throws IOException {
+        if (!isArchive(uri)) {
+            return uri.toURL().openStream();
+        }
+        Optional<Key> key = Key.of(uri);
+        if (!key.isPresent()) {
+            return new ByteArrayInputStream(read(uri));
+        }
+        try {
+            return new ByteArrayInputStream(CLASS_FILE_BYTES.get(key.get(), () -> read(uri)));
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    private static byte[] read(URI uri) throws IOException {
+        try (InputStream in = "jar".equals(uri.getScheme()) ? openJarEntry(uri) : Location.openStream(uri)) {
+            return toByteArray(in);
+        }
+    }
+
+    /**
+     * The JDK can't open entries of JARs nested within JARs (unless some framework registered its own URL handler),
+     * and it keeps serving entries of a JAR file it has opened once, even if the JAR file has been rebuilt since.
+     * So we read entries of local JAR files ourselves, {@link IndexedJarFile} notices if a JAR file has changed.
+     */
+    private static InputStream openJarEntry(URI uri) throws IOException {
+        String uriString = uri.toString();
+        int endOfInnermostJar = uriString.lastIndexOf("!/") + "!/".length();
+        Optional<IndexedJarFile> jarFile = IndexedJarFile.tryOpen(new URL(uriString.substring(0, endOfInnermostJar)));
+        String decodedPath = uri.getSchemeSpecificPart();
+        String entryName = decodedPath.substring(decodedPath.lastIndexOf("!/") + "!/".length());
+        return jarFile.isPresent() ? jarFile.get().openStream(entryName) : uri.toURL().openStream();
+    }
+
+    private static class Key {
+        private final URI uri;
+        private final long archiveLastModified;
+        private final long archiveSize;
+
+        private Key(URI uri, long archiveLastModified, long archiveSize) {
+            this.uri = uri;
+            this.archiveLastModified = archiveLastModified;
+            this.archiveSize = archiveSize;
+        }
+
+        static Optional<Key> of(URI uri) {
+            if ("jrt".equals(uri.getScheme())) {
+                // the runtime image of the JDK can't change while the JVM is running
+                return Optional.of(new Key(uri, 0, 0));
+            }
+            Optional<File> archiveFile = outermostArchiveFileOf(uri);
+            return archiveFile.map(file -> new Key(uri, file.lastModified(), file.length()));
+        }
+
+        private static Optional<File> outermostArchiveFileOf(URI uri) {
+            String archiveUri = uri.getRawSchemeSpecificPart();
+            int endOfArchiveUri = archiveUri.indexOf("!/");
+            if (!archiveUri.startsWith("file:") || endOfArchiveUri < 0) {
+                return Optional.empty();
+            }
+            try {
+                File result = new File(URI.create(archiveUri.substring(0, endOfArchiveUri)));
+                return result.isFile() ? Optional.of(result) : Optional.empty();
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uri, archiveLastModified, archiveSize);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(this.uri, other.uri)
+                    && this.archiveLastModified == other.archiveLastModified
+                    && this.archiveSize == other.archiveSize;
+        }
+    }
+}
@@ -16,14 +16,28 @@
 package com.tngtech.archunit.core.importer;
 
 import java.net.URI;
+import java.util.Optional;
 
 class SourceDescriptor {
     private final URI sourceUri;
     private final boolean md5InClassSourcesEnabled;
+    private final Optional<byte[]> md5Bytes;
 
     SourceDescriptor(URI sourceUri, boolean md5InClassSourcesEnabled) {
+        this(sourceUri, md5InClassSourcesEnabled, Optional.empty());
+    }
+
+    /**
+     * @param md5Bytes the md5 sum of the class file, if it has already been digested during the import
+     */
+    SourceDescriptor(URI sourceUri, byte[] md5Bytes) {
+        this(sourceUri, true, Optional.of(md5Bytes));
+    }
+
+    private SourceDescriptor(URI sourceUri, boolean md5InClassSourcesEnabled, Optional<byte[]> md5Bytes) {
         this.sourceUri = sourceUri;
         this.md5InClassSourcesEnabled = md5InClassSourcesEnabled;
+        this.md5Bytes = md5Bytes;
     }
 
     URI getUri() {
@@ -33,4 +47,8 @@ class SourceDescriptor {
     boolean isMd5InClassSourcesEnabled() {
         return md5InClassSourcesEnabled;
     }
+
+    Optional<byte[]> getMd5Bytes() {
+        return md5Bytes;
+    }
 }
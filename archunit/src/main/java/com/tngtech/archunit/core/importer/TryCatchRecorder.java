@@ -101,7 +101,7 @@ class TryCatchRecorder {
                 .map(block -> new TryCatchBlockBuilder()
                         .withCaughtThrowables(block.caughtThrowables)
                         .withLineNumber(block.lineNumber)
-                        .withRawAccessesInTryBlock(block.accessesInTryBlock))
+                        .withIdsOfRawAccessesInTryBlock(block.idsOfAccessesInTryBlock))
                 .collect(toImmutableSet());
         tryCatchBlocksFinishedListener.onTryCatchBlocksFinished(finishedBuilders);
 
@@ -126,11 +126,14 @@ class TryCatchRecorder {
         handlers.add(handler);
     }
 
-    void registerAccess(RawAccessRecord accessRecord) {
-        if (!active) {
+    /**
+     * @param accessId the {@link RawAccessRecord#id id} of the access
+     */
+    void registerAccess(long accessId) {
+        if (!active || accessId == RawAccessRecord.NO_ID) {
             return;
         }
-        activeBlocksByEnd.values().forEach(block -> block.addAccess(accessRecord));
+        activeBlocksByEnd.values().forEach(block -> block.addAccess(accessId));
     }
 
     void onEncounteredMethodEnd() {
@@ -158,7 +161,7 @@ class TryCatchRecorder {
     private static class RawTryCatchBlock {
         private final Set<JavaClassDescriptor> caughtThrowables = new HashSet<>();
         private int lineNumber;
-        private final Set<RawAccessRecord> accessesInTryBlock = new HashSet<>();
+        private final Set<Long> idsOfAccessesInTryBlock = new HashSet<>();
 
         void addThrowable(JavaClassDescriptor throwableType) {
             caughtThrowables.add(throwableType);
@@ -168,8 +171,8 @@ class TryCatchRecorder {
             this.lineNumber = lineNumber;
         }
 
-        void addAccess(RawAccessRecord accessRecord) {
-            accessesInTryBlock.add(accessRecord);
+        void addAccess(long accessId) {
+            idsOfAccessesInTryBlock.add(accessId);
         }
     }
 
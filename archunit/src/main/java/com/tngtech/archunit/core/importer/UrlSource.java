@@ -44,6 +44,7 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Sets.difference;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static java.util.jar.Attributes.Name.CLASS_PATH;
 import static java.util.stream.Collectors.toList;
@@ -58,6 +59,9 @@ interface UrlSource extends Iterable<URL> {
         private static final String CLASS_PATH_PROPERTY_NAME = "java.class.path";
         private static final String BOOT_CLASS_PATH_PROPERTY_NAME = "sun.boot.class.path";
 
+        // reading the manifests of all JAR files is expensive, so imports share the result while the properties do not change
+        private static volatile ClassPathOfSystemProperties classPathOfSystemProperties = new ClassPathOfSystemProperties("", "", emptyList());
+
         static UrlSource iterable(Iterable<URL> urls) {
             final Iterable<URL> uniqueUrls = unique(urls);
             return new UrlSource() {
@@ -82,12 +86,23 @@ interface UrlSource extends Iterable<URL> {
         }
 
         static UrlSource classPathSystemProperties() {
+            String bootClassPath = System.getProperty(BOOT_CLASS_PATH_PROPERTY_NAME, "");
+            String classPath = System.getProperty(CLASS_PATH_PROPERTY_NAME, "");
+            ClassPathOfSystemProperties cached = classPathOfSystemProperties;
+            if (!cached.isOf(bootClassPath, classPath)) {
+                cached = new ClassPathOfSystemProperties(bootClassPath, classPath, readClassPathSystemProperties());
+                classPathOfSystemProperties = cached;
+            }
+            return iterable(cached.urls);
+        }
+
+        private static List<URL> readClassPathSystemProperties() {
             List<URL> directlySpecifiedAsProperties = ImmutableList.<URL>builder()
                     .addAll(findUrlsForClassPathProperty(BOOT_CLASS_PATH_PROPERTY_NAME))
                     .addAll(findUrlsForClassPathProperty(CLASS_PATH_PROPERTY_NAME))
                     .build();
             Iterable<URL> transitivelySpecifiedThroughManifest = readClasspathEntriesFromManifests(directlySpecifiedAsProperties);
-            return iterable(concat(directlySpecifiedAsProperties, transitivelySpecifiedThroughManifest));
+            return ImmutableList.copyOf(iterable(concat(directlySpecifiedAsProperties, transitivelySpecifiedThroughManifest)));
         }
 
         private static Iterable<URL> readClasspathEntriesFromManifests(List<URL> urls) {
@@ -245,5 +260,21 @@ interface UrlSource extends Iterable<URL> {
                 throw new LocationException(e);
             }
         };
+
+        private static class ClassPathOfSystemProperties {
+            private final String bootClassPath;
+            private final String classPath;
+            private final List<URL> urls;
+
+            ClassPathOfSystemProperties(String bootClassPath, String classPath, List<URL> urls) {
+                this.bootClassPath = bootClassPath;
+                this.classPath = classPath;
+                this.urls = urls;
+            }
+
+            boolean isOf(String bootClassPath, String classPath) {
+                return this.bootClassPath.equals(bootClassPath) && this.classPath.equals(classPath);
+            }
+        }
     }
 }
@@ -20,12 +20,17 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Optional;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.tngtech.archunit.base.ArchUnitException;
 import com.tngtech.archunit.base.MayResolveTypesViaReflection;
 import com.tngtech.archunit.core.domain.JavaClass;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.tngtech.archunit.base.ClassLoaders.getCurrentClassLoader;
+import static com.tngtech.archunit.core.importer.ArchiveUris.isArchive;
 
 /**
  * A {@link ClassResolver} that tries to locate missing dependencies on the classpath.
@@ -34,6 +39,14 @@ import static com.tngtech.archunit.base.ClassLoaders.getCurrentClassLoader;
  */
 @MayResolveTypesViaReflection(reason = "This is a dedicated option to resolve further dependencies from the classpath")
 public final class ClassResolverFromClasspath implements ClassResolver {
+    private static final int MAX_CACHED_URIS_PER_CLASS_LOADER = 20_000;
+    // Looking up class files via the ClassLoader is expensive for large classpaths, and all imports within a JVM
+    // resolve the same JDK and library classes over and over again. Only URIs of archives are cached,
+    // since class files within directories (e.g. of the current project) might come and go.
+    private static final LoadingCache<ClassLoader, Cache<String, URI>> ARCHIVE_URI_CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(CacheLoader.from(() -> CacheBuilder.newBuilder().maximumSize(MAX_CACHED_URIS_PER_CLASS_LOADER).build()));
+
     private ClassUriImporter classUriImporter;
 
     @Override
@@ -52,12 +65,23 @@ public final class ClassResolverFromClasspath implements ClassResolver {
     }
 
     private Optional<URI> tryGetUriOf(String typeFile) {
-        URL resource = getCurrentClassLoader(getClass()).getResource(typeFile);
+        ClassLoader classLoader = getCurrentClassLoader(getClass());
+        Cache<String, URI> cachedUris = ARCHIVE_URI_CACHE.getUnchecked(classLoader);
+        URI cachedUri = cachedUris.getIfPresent(typeFile);
+        if (cachedUri != null) {
+            return Optional.of(cachedUri);
+        }
+
+        URL resource = classLoader.getResource(typeFile);
         if (resource == null) {
             return Optional.empty();
         }
         try {
-            return Optional.of(toUri(resource));
+            URI uri = toUri(resource);
+            if (isArchive(uri)) {
+                cachedUris.put(typeFile, uri);
+            }
+            return Optional.of(uri);
         } catch (URISyntaxException e) {
             throw new ArchUnitException.LocationException(e);
         }
@@ -18,6 +18,7 @@ package com.tngtech.archunit.lang;
 import com.tngtech.archunit.PublicAPI;
 import com.tngtech.archunit.base.DescribedIterable;
 import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaClasses;
 
 import static com.tngtech.archunit.PublicAPI.Usage.INHERITANCE;
@@ -49,11 +50,20 @@ public abstract class AbstractClassesTransformer<T> implements ClassesTransforme
             @Override
             public Iterable<T> doTransform(JavaClasses collection) {
                 Iterable<T> transformed = AbstractClassesTransformer.this.doTransform(collection);
+                if (transformed instanceof JavaClasses) {
+                    return filter((JavaClasses) transformed, predicate);
+                }
                 return stream(transformed.spliterator(), false).filter(predicate).collect(toList());
             }
         };
     }
 
+    // JavaClasses can only be returned if T is JavaClass (or a supertype), so the predicate can test JavaClass
+    @SuppressWarnings("unchecked")
+    private static <T> Iterable<T> filter(JavaClasses classes, DescribedPredicate<? super T> predicate) {
+        return (Iterable<T>) classes.that((DescribedPredicate<? super JavaClass>) predicate);
+    }
+
     @Override
     public final String getDescription() {
         return description;
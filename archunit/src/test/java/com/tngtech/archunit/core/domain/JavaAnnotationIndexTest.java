@@ -0,0 +1,129 @@
+package com.tngtech.archunit.core.domain;
+
+import java.lang.annotation.Retention;
+
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.Test;
+
+import static com.tngtech.archunit.core.domain.properties.CanBeAnnotated.Predicates.metaAnnotatedWith;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JavaAnnotationIndexTest {
+
+    @Retention(RUNTIME)
+    @interface Stereotype {
+    }
+
+    @Retention(RUNTIME)
+    @Stereotype
+    @CyclicMetaAnnotation
+    @interface Component {
+    }
+
+    @Retention(RUNTIME)
+    @Component
+    @interface Service {
+    }
+
+    @Retention(RUNTIME)
+    @CyclicMetaAnnotation
+    @interface CyclicMetaAnnotation {
+    }
+
+    @Retention(RUNTIME)
+    @interface Inject {
+    }
+
+    @SuppressWarnings("unused")
+    @Service
+    static class AnnotatedService {
+        @Inject
+        Object field;
+
+        @Component
+        void method(@Inject Object parameter, Object other) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @Component
+    static class AnnotatedComponent {
+        AnnotatedComponent(@Service Object parameter) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class NotAnnotated {
+        Object field;
+    }
+
+    @Test
+    public void finds_classes_members_and_parameters_annotated_with_type() {
+        JavaClasses classes = importClasses();
+        JavaAnnotationIndex index = classes.getAnnotationIndex();
+
+        assertThat(index.getClassesAnnotatedWith(Service.class)).containsOnly(classes.get(AnnotatedService.class));
+        assertThat(index.getClassesAnnotatedWith(Stereotype.class)).containsOnly(classes.get(Component.class));
+        assertThat(index.getMembersAnnotatedWith(Inject.class)).containsOnly(classes.get(AnnotatedService.class).getField("field"));
+        assertThat(index.getMembersAnnotatedWith(Component.class))
+                .containsOnly(classes.get(AnnotatedService.class).getMethod("method", Object.class, Object.class));
+        assertThat(index.getParametersAnnotatedWith(Inject.class))
+                .containsOnly(classes.get(AnnotatedService.class).getMethod("method", Object.class, Object.class).getParameters().get(0));
+        assertThat(index.getParametersAnnotatedWith(Service.class))
+                .containsOnly(classes.get(AnnotatedComponent.class).getConstructor(Object.class).getParameters().get(0));
+        assertThat(index.getClassesAnnotatedWith("not.Imported")).isEmpty();
+    }
+
+    @Test
+    public void finds_classes_members_and_parameters_meta_annotated_with_type() {
+        JavaClasses classes = importClasses();
+        JavaAnnotationIndex index = classes.getAnnotationIndex();
+
+        assertThat(index.getClassesMetaAnnotatedWith(Stereotype.class))
+                .containsOnly(classes.get(Component.class), classes.get(Service.class),
+                        classes.get(AnnotatedService.class), classes.get(AnnotatedComponent.class));
+        assertThat(index.getMembersMetaAnnotatedWith(Stereotype.class))
+                .containsOnly(classes.get(AnnotatedService.class).getMethod("method", Object.class, Object.class));
+        assertThat(index.getParametersMetaAnnotatedWith(Stereotype.class))
+                .containsOnly(classes.get(AnnotatedComponent.class).getConstructor(Object.class).getParameters().get(0));
+        assertThat(index.getClassesMetaAnnotatedWith(CyclicMetaAnnotation.class))
+                .contains(classes.get(CyclicMetaAnnotation.class), classes.get(AnnotatedService.class));
+    }
+
+    @Test
+    public void agrees_with_checking_every_element_for_meta_annotations() {
+        JavaClasses classes = importClasses();
+        JavaAnnotationIndex index = classes.getAnnotationIndex();
+
+        for (Class<?> annotationType : new Class<?>[]{Stereotype.class, Component.class, Service.class, CyclicMetaAnnotation.class, Inject.class, Retention.class}) {
+            for (JavaClass javaClass : classes) {
+                assertThat(index.getClassesMetaAnnotatedWith(annotationType.getName()).contains(javaClass))
+                        .as(javaClass + " meta-annotated with " + annotationType.getName())
+                        .isEqualTo(javaClass.isMetaAnnotatedWith(annotationType.getName()));
+                for (JavaMember member : javaClass.getMembers()) {
+                    assertThat(index.getMembersMetaAnnotatedWith(annotationType.getName()).contains(member))
+                            .as(member + " meta-annotated with " + annotationType.getName())
+                            .isEqualTo(member.isMetaAnnotatedWith(annotationType.getName()));
+                }
+            }
+            assertThat(classes.that(metaAnnotatedWith(annotationType.getName())))
+                    .containsExactlyElementsOf(classes.stream().filter(metaAnnotatedWith(annotationType.getName())).collect(toList()));
+        }
+    }
+
+    @Test
+    public void reuses_the_index_of_the_same_classes() {
+        JavaClasses classes = importClasses();
+
+        assertThat(classes.getAnnotationIndex()).isSameAs(classes.getAnnotationIndex());
+        assertThat(classes.as("changed description").getAnnotationIndex()).isSameAs(classes.getAnnotationIndex());
+    }
+
+    private static JavaClasses importClasses() {
+        return new ClassFileImporter().importClasses(
+                Stereotype.class, Component.class, Service.class, CyclicMetaAnnotation.class, Inject.class,
+                AnnotatedService.class, AnnotatedComponent.class, NotAnnotated.class);
+    }
+}
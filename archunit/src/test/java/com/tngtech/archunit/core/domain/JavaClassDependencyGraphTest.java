@@ -0,0 +1,212 @@
+package com.tngtech.archunit.core.domain;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.tngtech.archunit.core.domain.JavaClassDependencyGraph.DependencyKind;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.Test;
+
+import static com.tngtech.archunit.core.domain.JavaClassDependencyGraph.DependencyKind.FIELD_TYPE;
+import static com.tngtech.archunit.core.domain.JavaClassDependencyGraph.DependencyKind.INHERITANCE;
+import static com.tngtech.archunit.core.domain.JavaClassDependencyGraph.DependencyKind.MEMBER_ACCESS;
+import static com.tngtech.archunit.core.domain.JavaClassDependencyGraph.DependencyKind.THROWS_DECLARATION;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JavaClassDependencyGraphTest {
+
+    @SuppressWarnings("unused")
+    static class Graph {
+        static class A extends B {
+            C[][] c;
+
+            void call() {
+                new C();
+            }
+        }
+
+        static class B {
+            A a;
+            B b;
+        }
+
+        static class C {
+            void declareThrows() throws IOException {
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class AllKinds {
+        @Retention(RUNTIME)
+        @interface Outer {
+            Inner[] inner();
+
+            Class<?>[] types();
+
+            RetentionPolicy policy();
+        }
+
+        @Retention(RUNTIME)
+        @interface Inner {
+            Class<?> type();
+
+            ElementType element();
+        }
+
+        @Outer(inner = @Inner(type = Serializable.class, element = ElementType.TYPE), types = {Origin[].class, Map.class}, policy = RetentionPolicy.CLASS)
+        static class Origin<T extends Comparable<? super T> & Serializable> extends ArrayList<List<Origin<?>[]>> implements Comparable<Map<String, Origin<?>>> {
+            @Inner(type = Origin[][].class, element = ElementType.FIELD)
+            Origin<?>[][] self;
+            Map<? extends Number, Set<Origin<?>>> field;
+            int primitive;
+            int[] primitiveArray;
+
+            Origin(@Inner(type = BigDecimal.class, element = ElementType.PARAMETER) List<? super Integer> parameter, Origin<?>[] self) throws IOException {
+            }
+
+            <U extends Collection<? extends CharSequence>> Map<U, Origin<?>[]> method(U u, Optional<Origin<?>> origin) throws IllegalStateException {
+                Object referenced = BigInteger.class;
+                Object referencedSelf = Origin[].class;
+                if (u instanceof Deque<?> || referenced instanceof Origin<?>) {
+                    field.get(primitive);
+                }
+                return null;
+            }
+
+            @Override
+            public int compareTo(Map<String, Origin<?>> other) {
+                return 0;
+            }
+        }
+    }
+
+    @Test
+    public void numbers_contained_classes_before_classes_reachable_via_dependencies() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class, Graph.C.class);
+
+        JavaClassDependencyGraph graph = classes.getDependencyGraph();
+
+        assertThat(graph.getNumberOfContainedClasses()).isEqualTo(3);
+        Set<JavaClass> containedClasses = new HashSet<>();
+        for (int i = 0; i < graph.getNumberOfContainedClasses(); i++) {
+            containedClasses.add(graph.getJavaClass(i));
+        }
+        assertThat(containedClasses).containsOnlyElementsOf(classes);
+        for (int i = 0; i < graph.size(); i++) {
+            assertThat(graph.indexOf(graph.getJavaClass(i))).isEqualTo(i);
+        }
+        assertThat(graph.indexOf(classes.get(Graph.C.class).getMethod("declareThrows").getThrowsClause().getTypes().get(0)))
+                .as("index of class only reachable via dependency")
+                .isGreaterThanOrEqualTo(graph.getNumberOfContainedClasses());
+    }
+
+    @Test
+    public void records_edges_with_their_kinds_of_dependencies() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class, Graph.C.class);
+        JavaClassDependencyGraph graph = classes.getDependencyGraph();
+        int a = graph.indexOf(classes.get(Graph.A.class));
+        int b = graph.indexOf(classes.get(Graph.B.class));
+        int c = graph.indexOf(classes.get(Graph.C.class));
+
+        assertThat(graph.getTargets(a)).contains(b, c);
+        assertThat(graph.getTargets(b)).contains(a).doesNotContain(b);
+        assertThat(graph.getOrigins(c)).containsExactly(a);
+        assertThat(graph.getDependencyKinds(a, b)).containsOnly(INHERITANCE, MEMBER_ACCESS);
+        assertThat(graph.getDependencyKinds(a, c)).containsOnly(FIELD_TYPE, MEMBER_ACCESS);
+        assertThat(graph.getDependencyKinds(b, a)).containsOnly(FIELD_TYPE);
+        assertThat(graph.getDependencyKinds(c, a)).isEmpty();
+        assertThat(graph.hasDependency(a, c, FIELD_TYPE)).isTrue();
+        assertThat(graph.hasDependency(a, c, THROWS_DECLARATION)).isFalse();
+    }
+
+    @Test
+    public void materializes_the_dependencies_of_an_edge() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class, Graph.C.class);
+        JavaClassDependencyGraph graph = classes.getDependencyGraph();
+        JavaClass a = classes.get(Graph.A.class);
+
+        Set<Dependency> dependencies = new HashSet<>();
+        for (int target : graph.getTargets(graph.indexOf(a))) {
+            dependencies.addAll(graph.getDependencies(graph.indexOf(a), target));
+        }
+
+        assertThat(dependencies).containsOnlyElementsOf(a.getDirectDependenciesFromSelf());
+        assertThat(dependencies).hasSameSizeAs(a.getDirectDependenciesFromSelf());
+        assertThat(graph.getDependencies(graph.indexOf(a), graph.indexOf(classes.get(Graph.C.class))))
+                .extracting(dependency -> dependency.getTargetClass().getBaseComponentType())
+                .containsOnly(classes.get(Graph.C.class));
+    }
+
+    @Test
+    public void has_edges_to_the_targets_of_all_dependencies() {
+        JavaClasses classes = new ClassFileImporter().importPackagesOf(JavaClassDependencyGraphTest.class);
+        JavaClassDependencyGraph graph = classes.getDependencyGraph();
+
+        for (JavaClass javaClass : classes) {
+            Set<JavaClass> expectedTargets = new HashSet<>();
+            for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+                expectedTargets.add(dependency.getTargetClass().getBaseComponentType());
+            }
+            expectedTargets.remove(javaClass);
+
+            Set<JavaClass> targets = new HashSet<>();
+            for (int target : graph.getTargets(graph.indexOf(javaClass))) {
+                targets.add(graph.getJavaClass(target));
+            }
+            assertThat(targets).as("targets of " + javaClass.getName()).isEqualTo(expectedTargets);
+        }
+    }
+
+    @Test
+    public void determines_the_targets_of_the_dependencies_of_each_kind_without_creating_the_dependencies() {
+        JavaClasses classes = new ClassFileImporter().importClasses(AllKinds.Origin.class, AllKinds.Outer.class, AllKinds.Inner.class);
+        JavaClass origin = classes.get(AllKinds.Origin.class);
+
+        for (DependencyKind kind : DependencyKind.values()) {
+            assertThat(origin.getDirectDependencyTargetsFromSelf(kind)).as("targets of kind " + kind).isNotEmpty();
+        }
+        for (JavaClass javaClass : new ClassFileImporter().importPackagesOf(JavaClassDependencyGraphTest.class)) {
+            assertTargetsOfEachKindMatchDependencies(javaClass);
+        }
+        for (JavaClass javaClass : classes) {
+            assertTargetsOfEachKindMatchDependencies(javaClass);
+        }
+    }
+
+    private static void assertTargetsOfEachKindMatchDependencies(JavaClass javaClass) {
+        for (DependencyKind kind : DependencyKind.values()) {
+            Set<JavaClass> expectedTargets = javaClass.getDirectDependenciesFromSelf(kind)
+                    .map(dependency -> dependency.getTargetClass().getBaseComponentType())
+                    .filter(target -> !target.equals(javaClass))
+                    .collect(toSet());
+
+            assertThat(javaClass.getDirectDependencyTargetsFromSelf(kind).collect(toSet()))
+                    .as("targets of kind " + kind + " of " + javaClass.getName())
+                    .isEqualTo(expectedTargets);
+        }
+    }
+
+    @Test
+    public void reuses_the_graph_of_the_same_classes() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class);
+
+        assertThat(classes.getDependencyGraph()).isSameAs(classes.getDependencyGraph());
+        assertThat(classes.as("changed description").getDependencyGraph()).isSameAs(classes.getDependencyGraph());
+    }
+}
@@ -4,6 +4,7 @@ import com.tngtech.archunit.core.importer.ClassFileImporter;
 import org.junit.Test;
 
 import static com.tngtech.archunit.testutil.Assertions.assertThatDependencies;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class JavaClassTransitiveDependenciesTest {
 
@@ -143,4 +144,41 @@ public class JavaClassTransitiveDependenciesTest {
                     .contain(e, String.class);
         // @formatter:on
     }
+
+    @Test
+    public void findsTransitiveTargetsInCyclicDependencyGraph() {
+        JavaClasses classes = new ClassFileImporter().importClasses(
+                CyclicGraph.A.class, CyclicGraph.B.class, CyclicGraph.C.class, CyclicGraph.D.class, CyclicGraph.E.class);
+        JavaClassDependencyGraph graph = classes.getDependencyGraph();
+        int a = graph.indexOf(classes.get(CyclicGraph.A.class));
+        int b = graph.indexOf(classes.get(CyclicGraph.B.class));
+        int c = graph.indexOf(classes.get(CyclicGraph.C.class));
+        int d = graph.indexOf(classes.get(CyclicGraph.D.class));
+        int e = graph.indexOf(classes.get(CyclicGraph.E.class));
+
+        assertThat(graph.getTransitiveTargets(a)).contains(a, b, c, d, e);
+        assertThat(graph.getTransitiveTargets(c)).containsExactly(graph.getTransitiveTargets(a));
+        assertThat(graph.getTransitiveTargets(b)).doesNotContain(a, b, c, d, e);
+        assertThat(graph.dependsTransitivelyOn(d, c)).isTrue();
+        assertThat(graph.dependsTransitivelyOn(b, a)).isFalse();
+    }
+
+    @Test
+    public void findsTransitiveTargetsAlongDeepDependencyChains() {
+        int numberOfNodes = 10_000;
+        int[] offsets = new int[numberOfNodes + 1];
+        int[] targets = new int[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) {
+            offsets[node + 1] = offsets[node] + 1;
+            // the second half of the chain forms one large cycle
+            targets[node] = node < numberOfNodes - 1 ? node + 1 : numberOfNodes / 2;
+        }
+
+        JavaClassTransitiveDependencies transitiveDependencies = new JavaClassTransitiveDependencies(offsets, targets);
+
+        assertThat(transitiveDependencies.getTransitiveTargets(0).cardinality()).isEqualTo(numberOfNodes - 1);
+        assertThat(transitiveDependencies.getTransitiveTargets(0).get(0)).isFalse();
+        assertThat(transitiveDependencies.getTransitiveTargets(numberOfNodes - 1).cardinality()).isEqualTo(numberOfNodes / 2);
+        assertThat(transitiveDependencies.getTransitiveTargets(numberOfNodes - 1).get(numberOfNodes - 1)).isTrue();
+    }
 }
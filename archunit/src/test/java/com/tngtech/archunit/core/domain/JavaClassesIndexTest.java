@@ -0,0 +1,94 @@
+package com.tngtech.archunit.core.domain;
+
+import java.io.Serializable;
+import java.lang.annotation.Documented;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.Test;
+
+import static com.tngtech.archunit.base.DescribedPredicate.not;
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.INTERFACES;
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.assignableTo;
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.resideInAPackage;
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.simpleName;
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.simpleNameEndingWith;
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.simpleNameStartingWith;
+import static com.tngtech.archunit.core.domain.properties.CanBeAnnotated.Predicates.annotatedWith;
+import static com.tngtech.archunit.core.domain.properties.CanBeAnnotated.Predicates.metaAnnotatedWith;
+import static com.tngtech.archunit.core.domain.properties.HasName.Predicates.name;
+import static com.tngtech.archunit.core.domain.properties.HasName.Predicates.nameStartingWith;
+import static com.tngtech.archunit.lang.conditions.ArchPredicates.are;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JavaClassesIndexTest {
+
+    @Test
+    public void finds_candidates_by_names_and_types() {
+        JavaClasses classes = importClasses();
+        JavaClassesIndex index = new JavaClassesIndex(classes);
+
+        assertThat(namesOf(index, index.getClassesWithName(String.class.getName()))).containsOnly(String.class.getName());
+        assertThat(namesOf(index, index.getClassesWithSimpleNameStartingWith("Array"))).containsOnly(ArrayList.class.getName());
+        assertThat(namesOf(index, index.getClassesWithSimpleNameEndingWith("List"))).containsOnly(ArrayList.class.getName(), List.class.getName());
+        assertThat(namesOf(index, index.getClassesAssignableTo(Serializable.class.getName())))
+                .containsOnly(String.class.getName(), ArrayList.class.getName(), Serializable.class.getName());
+        assertThat(namesOf(index, index.getClassesAnnotatedWith(FunctionalInterface.class.getName())))
+                .containsOnly(Runnable.class.getName());
+        assertThat(namesOf(index, index.getClassesMetaAnnotatedWith(Documented.class.getName())))
+                .containsOnly(Runnable.class.getName());
+        assertThat(index.getClassesWithName("not.Imported").isEmpty()).isTrue();
+    }
+
+    @Test
+    public void selects_the_same_classes_in_the_same_order_as_filtering_all_classes() {
+        JavaClasses classes = importClasses();
+
+        for (DescribedPredicate<? super JavaClass> predicate : Arrays.<DescribedPredicate<? super JavaClass>>asList(
+                name(String.class.getName()),
+                nameStartingWith("java.util"),
+                simpleName("List"),
+                simpleNameStartingWith("Array"),
+                simpleNameEndingWith("able"),
+                resideInAPackage("..util.."),
+                are(assignableTo(Serializable.class)),
+                annotatedWith(FunctionalInterface.class),
+                metaAnnotatedWith(Documented.class),
+                resideInAPackage("java.util").and(not(INTERFACES)),
+                simpleNameEndingWith("List").or(simpleName("String")).as("changed description"),
+                simpleNameEndingWith("List").or(INTERFACES))) {
+
+            assertThat(classes.that(predicate))
+                    .as(predicate.getDescription())
+                    .containsExactlyElementsOf(classes.stream().filter(predicate).collect(toList()));
+        }
+    }
+
+    @Test
+    public void annotation_index_finds_the_same_classes_as_the_class_level_index() {
+        JavaClasses classes = importClasses();
+        JavaClassesIndex index = new JavaClassesIndex(classes);
+
+        JavaAnnotationIndex annotationIndex = index.getAnnotationIndex();
+
+        assertThat(annotationIndex.getClassesAnnotatedWith(FunctionalInterface.class))
+                .containsExactlyElementsOf(index.getClasses(index.getClassesAnnotatedWith(FunctionalInterface.class.getName())).collect(toList()));
+        assertThat(annotationIndex.getClassesMetaAnnotatedWith(Documented.class))
+                .containsExactlyElementsOf(index.getClasses(index.getClassesMetaAnnotatedWith(Documented.class.getName())).collect(toList()))
+                .isNotEmpty();
+    }
+
+    private static JavaClasses importClasses() {
+        return new ClassFileImporter().importClasses(
+                String.class, Object.class, ArrayList.class, List.class, Serializable.class, Runnable.class, Comparable.class);
+    }
+
+    private static List<String> namesOf(JavaClassesIndex index, BitSet candidates) {
+        return index.getClasses(candidates).map(JavaClass::getName).collect(toList());
+    }
+}
@@ -0,0 +1,39 @@
+package com.tngtech.archunit.core.importer;
+
+import java.net.URI;
+
+import com.tngtech.archunit.core.importer.ClassFileContentIndex.ClassFileContent;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassFileContentIndexTest {
+    private static final byte[] CONTENT = {1, 2, 3};
+    private static final byte[] OTHER_CONTENT = {4, 5, 6};
+
+    @Test
+    public void detects_class_files_with_the_same_content_at_an_earlier_position() {
+        ClassFileContentIndex index = new ClassFileContentIndex(false);
+
+        ClassFileContent first = index.add(URI.create("file:///first/Foo.class"), 0, CONTENT);
+        ClassFileContent other = index.add(URI.create("file:///first/Bar.class"), 1, OTHER_CONTENT);
+        ClassFileContent second = index.add(URI.create("file:///second/Foo.class"), 2, CONTENT);
+
+        assertThat(first.getEarlierLocationWithSameContent()).isEmpty();
+        assertThat(other.getEarlierLocationWithSameContent()).isEmpty();
+        assertThat(second.getEarlierLocationWithSameContent()).contains(URI.create("file:///first/Foo.class"));
+    }
+
+    @Test
+    public void class_files_added_out_of_order_are_only_duplicates_of_earlier_positions() {
+        ClassFileContentIndex index = new ClassFileContentIndex(true);
+
+        ClassFileContent addedFirst = index.add(URI.create("file:///second/Foo.class"), 5, CONTENT);
+        ClassFileContent addedSecond = index.add(URI.create("file:///first/Foo.class"), 2, CONTENT);
+        ClassFileContent addedThird = index.add(URI.create("file:///third/Foo.class"), 7, CONTENT);
+
+        assertThat(addedFirst.getEarlierLocationWithSameContent()).isEmpty();
+        assertThat(addedSecond.getEarlierLocationWithSameContent()).isEmpty();
+        assertThat(addedThird.getEarlierLocationWithSameContent()).contains(URI.create("file:///first/Foo.class"));
+    }
+}
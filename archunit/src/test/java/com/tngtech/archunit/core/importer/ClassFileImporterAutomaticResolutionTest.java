@@ -23,6 +23,7 @@ import com.tngtech.archunit.core.domain.JavaConstructorCall;
 import com.tngtech.archunit.core.domain.JavaConstructorReference;
 import com.tngtech.archunit.core.domain.JavaEnumConstant;
 import com.tngtech.archunit.core.domain.JavaFieldAccess;
+import com.tngtech.archunit.core.domain.JavaMember;
 import com.tngtech.archunit.core.domain.JavaMethod;
 import com.tngtech.archunit.core.domain.JavaMethodCall;
 import com.tngtech.archunit.core.domain.JavaMethodReference;
@@ -71,6 +72,7 @@ import static com.tngtech.archunit.testutil.assertion.JavaAnnotationAssertion.an
 import static com.tngtech.java.junit.dataprovider.DataProviders.$;
 import static com.tngtech.java.junit.dataprovider.DataProviders.$$;
 import static com.tngtech.java.junit.dataprovider.DataProviders.testForEach;
+import static java.util.stream.Collectors.toList;
 
 @RunWith(DataProviderRunner.class)
 public class ClassFileImporterAutomaticResolutionTest {
@@ -135,6 +137,27 @@ public class ClassFileImporterAutomaticResolutionTest {
         assertThat(method.getRawParameterTypes().get(1)).as("method parameter type").isFullyImported(true);
     }
 
+    @Test
+    public void automatically_resolves_member_types_concurrently_if_importing_in_parallel() {
+        @SuppressWarnings("unused")
+        class MemberTypesWithArrays {
+            String string;
+            String[] strings;
+            File[][] files;
+            Path path;
+        }
+
+        JavaClass javaClass = new ClassFileImporter().withParallelism(4).importClass(MemberTypesWithArrays.class);
+
+        for (String fieldName : ImmutableList.of("string", "path")) {
+            assertThat(javaClass.getField(fieldName).getRawType()).as("type of field " + fieldName).isFullyImported(true);
+        }
+        JavaClass stringArrayType = javaClass.getField("strings").getRawType();
+        assertThat(stringArrayType.getComponentType()).isSameAs(javaClass.getField("string").getRawType());
+        JavaClass fileArrayType = javaClass.getField("files").getRawType().getComponentType();
+        assertThat(fileArrayType.getComponentType()).as("component type of File[]").isFullyImported(true);
+    }
+
     @Test
     public void automatically_resolves_class_hierarchy() {
         JavaClass child = ImporterWithAdjustedResolutionRuns.disableAllIterationsExcept(MAX_ITERATIONS_FOR_SUPERTYPES_PROPERTY_NAME)
@@ -437,6 +460,35 @@ public class ClassFileImporterAutomaticResolutionTest {
         assertThat(stubType).isFullyImported(false);
     }
 
+    @Test
+    public void imports_deferred_members_of_resolved_classes_on_first_access() {
+        @SuppressWarnings("unused")
+        class SomeClass {
+            ArrayList<String> list = new ArrayList<>();
+
+            @SomeAnnotationWithClassParameter(String.class)
+            void call() {
+                list.add("any");
+            }
+        }
+
+        JavaClass eagerlyResolved = new ClassFileImporter().importClass(SomeClass.class).getField("list").getRawType();
+        JavaClass javaClass = resetConfigurationAround(() -> {
+            ArchConfiguration.get().setProperty("import.dependencyResolutionProcess.deferMembersOfResolvedClasses", "true");
+            return new ClassFileImporter().importClass(SomeClass.class);
+        });
+        JavaClass lazilyResolved = javaClass.getField("list").getRawType();
+
+        assertThat(lazilyResolved.getMembers().stream().map(JavaMember::getFullName))
+                .containsOnlyElementsOf(eagerlyResolved.getMembers().stream().map(JavaMember::getFullName).collect(toList()))
+                .hasSameSizeAs(eagerlyResolved.getMembers());
+        assertThat(lazilyResolved.getMethod("add", Object.class).getCallsOfSelf()).hasSize(1);
+        JavaAnnotation<JavaMethod> annotation = javaClass.getMethod("call").getAnnotationOfType(SomeAnnotationWithClassParameter.class.getName());
+        assertThatType((JavaClass) annotation.get("value").get()).matches(String.class);
+        assertThat(lazilyResolved.getMethod("add", Object.class).getRawParameterTypes().get(0))
+                .isSameAs(lazilyResolved.getMethod("remove", Object.class).getRawParameterTypes().get(0));
+    }
+
     @DataProvider
     public static Object[][] data_automatically_resolves_annotation_parameter_types() {
         @SomeAnnotationWithClassParameter(String.class)
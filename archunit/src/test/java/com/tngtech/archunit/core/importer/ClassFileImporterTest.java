@@ -6,18 +6,27 @@ import java.io.PrintStream;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import com.tngtech.archunit.ArchConfiguration;
 import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.base.HasDescription;
 import com.tngtech.archunit.core.domain.AccessTarget.CodeUnitAccessTarget;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaClasses;
@@ -110,8 +119,12 @@ import static com.tngtech.archunit.testutil.TestUtils.urlOf;
 import static com.tngtech.archunit.testutil.assertion.ExpectedConcreteType.ExpectedConcreteParameterizedType.parameterizedType;
 import static com.tngtech.java.junit.dataprovider.DataProviders.testForEach;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Arrays.stream;
+import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assume.assumeTrue;
 
 @RunWith(DataProviderRunner.class)
@@ -728,6 +741,23 @@ public class ClassFileImporterTest {
         assertThat(classes).as("Number of classes at the given URLs").hasSize(2);
     }
 
+    @Test
+    public void imports_jars_nested_within_jars() {
+        File fatJar = new File(temporaryFolder.getRoot(), "fat.jar");
+        new TestJarFile()
+                .withNestedJar("BOOT-INF/lib/nested.jar", new TestJarFile()
+                        .withEntry(classFileResource(ClassToImportOne.class))
+                        .withEntry(classFileResource(ClassToImportTwo.class)))
+                .createAndReturnName(fatJar);
+        Location nestedJar = Location.of(URI.create("jar:" + fatJar.toURI() + "!/BOOT-INF/lib/nested.jar!/"));
+
+        JavaClasses classes = new ClassFileImporter().importLocations(singleton(nestedJar));
+
+        assertThatTypes(classes).matchInAnyOrder(ClassToImportOne.class, ClassToImportTwo.class);
+        assertThat(classes.get(ClassToImportOne.class).getSource().get().getUri().toString())
+                .startsWith(nestedJar.asURI().toString());
+    }
+
     @Test
     public void imports_classes_outside_of_the_classpath() throws IOException {
         Pattern missingPattern = Pattern.compile("^Missing.*");
@@ -879,6 +909,218 @@ public class ClassFileImporterTest {
         assertThatTypes(classes).matchInAnyOrder(Class11.class, Class12.class);
     }
 
+    @Test
+    public void imports_the_same_classes_in_parallel_as_sequentially() {
+        URL testExamples = getClass().getResource("testexamples");
+
+        JavaClasses sequentiallyImported = new ClassFileImporter().importUrl(testExamples);
+        JavaClasses importedInParallel = new ClassFileImporter().withParallelism(4).importUrl(testExamples);
+
+        assertThat(namesOf(importedInParallel)).containsOnlyElementsOf(namesOf(sequentiallyImported));
+        for (JavaClass javaClass : sequentiallyImported) {
+            JavaClass importedInParallelClass = importedInParallel.get(javaClass.getName());
+            assertThat(namesOf(importedInParallelClass.getMembers())).as("members of " + javaClass.getName())
+                    .containsOnlyElementsOf(namesOf(javaClass.getMembers()));
+            assertThat(descriptionsOf(importedInParallelClass.getDirectDependenciesFromSelf())).as("dependencies from " + javaClass.getName())
+                    .isEqualTo(descriptionsOf(javaClass.getDirectDependenciesFromSelf()));
+            assertThat(descriptionsOf(importedInParallelClass.getDirectDependenciesToSelf())).as("dependencies to " + javaClass.getName())
+                    .isEqualTo(descriptionsOf(javaClass.getDirectDependenciesToSelf()));
+            assertThat(descriptionsOf(importedInParallelClass.getAccessesToSelf())).as("accesses to " + javaClass.getName())
+                    .isEqualTo(descriptionsOf(javaClass.getAccessesToSelf()));
+        }
+    }
+
+    @Test
+    public void imports_concurrently_with_the_same_importer() throws Exception {
+        ClassFileImporter importer = new ClassFileImporter();
+        List<Class<?>> packagesToImport = ImmutableList.of(ClassToImportOne.class, ClassAccessingOneDimensionalArray.class, Subclass.class, Class11.class);
+        List<Callable<JavaClasses>> imports = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            packagesToImport.forEach(packageToImport -> imports.add(() -> importer.importPackagesOf(packageToImport)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(imports.size());
+        List<Future<JavaClasses>> results;
+        try {
+            results = executor.invokeAll(imports);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            JavaClasses concurrentlyImported = results.get(i).get();
+            JavaClasses sequentiallyImported = importer.importPackagesOf(packagesToImport.get(i % packagesToImport.size()));
+            assertThat(namesOf(concurrentlyImported)).containsOnlyElementsOf(namesOf(sequentiallyImported)).hasSameSizeAs(sequentiallyImported);
+            for (JavaClass javaClass : sequentiallyImported) {
+                assertThat(descriptionsOf(concurrentlyImported.get(javaClass.getName()).getDirectDependenciesFromSelf()))
+                        .as("dependencies from " + javaClass.getName())
+                        .isEqualTo(descriptionsOf(javaClass.getDirectDependenciesFromSelf()));
+            }
+        }
+    }
+
+    @Test
+    public void reuses_parsed_class_files_within_the_same_import_session() {
+        ImportSession session = new ImportSession();
+        List<ImportStatistics> reported = new ArrayList<>();
+        ClassFileImporter importerWithSession = new ClassFileImporter().withImportSession(session).withStatisticsListener(reported::add);
+        List<List<Class<?>>> overlappingScopes = ImmutableList.of(
+                ImmutableList.of(ClassToImportOne.class, ClassAccessingOneDimensionalArray.class),
+                ImmutableList.of(ClassAccessingOneDimensionalArray.class, Subclass.class),
+                ImmutableList.of(ClassToImportOne.class, ClassAccessingOneDimensionalArray.class));
+
+        for (List<Class<?>> scope : overlappingScopes) {
+            JavaClasses importedWithSession = importerWithSession.importPackagesOf(scope);
+            JavaClasses importedWithoutSession = new ClassFileImporter().importPackagesOf(scope);
+
+            assertThat(namesOf(importedWithSession)).containsOnlyElementsOf(namesOf(importedWithoutSession)).hasSameSizeAs(importedWithoutSession);
+            for (JavaClass javaClass : importedWithoutSession) {
+                assertThat(descriptionsOf(importedWithSession.get(javaClass.getName()).getDirectDependenciesFromSelf()))
+                        .as("dependencies from " + javaClass.getName())
+                        .isEqualTo(descriptionsOf(javaClass.getDirectDependenciesFromSelf()));
+            }
+        }
+        assertThat(reported.get(0).getNumberOfReusedClassFiles()).as("reused class files of first import").isZero();
+        assertThat(reported.get(1).getNumberOfReusedClassFiles()).as("reused class files of second import").isPositive();
+        assertThat(reported.get(2).getNumberOfReusedClassFiles()).as("reused class files of third import")
+                .isGreaterThanOrEqualTo(reported.get(2).getNumberOfImportedClasses());
+    }
+
+    @Test
+    public void rejects_non_positive_parallelism() {
+        assertThatThrownBy(() -> new ClassFileImporter().withParallelism(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Parallelism must be positive");
+    }
+
+    @Test
+    public void imports_only_signatures_without_code_unit_bodies() {
+        JavaClasses classes = new ClassFileImporter().withoutCodeUnitBodies().importPackagesOf(ClassWithInnerClass.class);
+
+        JavaClass javaClass = classes.get(ClassWithInnerClass.class);
+        assertThat(namesOf(javaClass.getMethods())).contains("callInsideOfAnonymous", "callInsideOfLocalClass");
+        assertThat(classes.get(ClassWithInnerClass.Inner.class).getEnclosingClass()).contains(javaClass);
+        for (JavaClass imported : classes) {
+            assertThat(imported.getAccessesFromSelf()).as("accesses from " + imported.getName()).isEmpty();
+        }
+    }
+
+    @Test
+    public void streams_classes_imported_in_isolation() {
+        Set<Location> locations = singleton(Location.of(getClass().getResource("testexamples/simpleimport")));
+
+        List<JavaClass> streamed = new ClassFileImporter().streamLocations(locations).collect(toList());
+
+        JavaClasses imported = new ClassFileImporter().importLocations(locations);
+        assertThat(namesOf(streamed)).containsOnlyElementsOf(namesOf(imported)).hasSameSizeAs(imported);
+        JavaClass streamedEnum = streamed.stream().filter(javaClass -> javaClass.isEquivalentTo(EnumToImport.class)).findFirst().get();
+        assertThat(namesOf(streamedEnum.getFields())).containsOnlyElementsOf(namesOf(imported.get(EnumToImport.class).getFields()))
+                .hasSameSizeAs(imported.get(EnumToImport.class).getFields());
+        assertThat(streamedEnum.getRawSuperclass().get().isFullyImported()).as("superclass is fully imported").isFalse();
+    }
+
+    @Test
+    public void reports_statistics_of_each_import() {
+        List<ImportStatistics> reported = new ArrayList<>();
+        ClassFileImporter importer = new ClassFileImporter().withStatisticsListener(reported::add);
+
+        importer.importClasses(ClassToImportOne.class, ClassToImportTwo.class);
+        importer.importClasses(ClassToImportOne.class);
+
+        assertThat(reported).hasSize(2);
+        ImportStatistics statistics = reported.get(0);
+        assertThat(statistics.getNumberOfImportedClasses()).isEqualTo(2);
+        assertThat(statistics.getNumberOfResolvedClasses()).as("resolved classes").isPositive();
+        assertThat(statistics.getBytesRead()).isGreaterThanOrEqualTo(new File(uriOf(ClassToImportOne.class)).length() + new File(uriOf(ClassToImportTwo.class)).length());
+        for (ImportStatistics.Phase phase : ImportStatistics.Phase.values()) {
+            assertThat(statistics.getDuration(phase).isNegative()).as("duration of " + phase + " is negative").isFalse();
+        }
+        assertThat(statistics.getTotalDuration().toNanos()).isPositive();
+        assertThat(reported.get(1).getNumberOfImportedClasses()).isEqualTo(1);
+    }
+
+    @Test
+    public void reimport_reuses_previous_classes_only_if_no_class_file_has_changed() throws Exception {
+        File root = temporaryFolder.newFolder();
+        File packageFolder = new File(root, ClassToImportOne.class.getPackage().getName().replace('.', File.separatorChar));
+        Files.createDirectories(packageFolder.toPath());
+        Path classOne = Files.copy(Paths.get(uriOf(ClassToImportOne.class)), packageFolder.toPath().resolve("ClassToImportOne.class"));
+        Path classTwo = Files.copy(Paths.get(uriOf(ClassToImportTwo.class)), packageFolder.toPath().resolve("ClassToImportTwo.class"));
+        Set<Location> locations = singleton(Location.of(root.toPath()));
+        ImportSession session = new ImportSession();
+
+        JavaClasses previous = new ClassFileImporter().withImportSession(session).importLocations(locations);
+        JavaClasses reimported = new ClassFileImporter().withImportSession(session).reimportLocations(previous, locations);
+
+        assertThat(reimported).isSameAs(previous);
+
+        Files.copy(classOne, classTwo, REPLACE_EXISTING);
+        reimported = new ClassFileImporter().withImportSession(session).reimportLocations(previous, locations);
+
+        assertThat(reimported).isNotSameAs(previous);
+        assertThatTypes(reimported).matchExactly(ClassToImportOne.class);
+
+        Files.delete(classTwo);
+        JavaClasses afterDeletion = new ClassFileImporter().withImportSession(session).reimportLocations(previous, locations);
+
+        assertThat(afterDeletion).isNotSameAs(previous);
+        assertThatTypes(afterDeletion).matchExactly(ClassToImportOne.class);
+    }
+
+    @Test
+    public void reimport_only_parses_class_files_again_that_have_changed() throws Exception {
+        File root = temporaryFolder.newFolder();
+        File packageFolder = new File(root, ClassToImportOne.class.getPackage().getName().replace('.', File.separatorChar));
+        Files.createDirectories(packageFolder.toPath());
+        Files.copy(Paths.get(uriOf(ClassToImportOne.class)), packageFolder.toPath().resolve("ClassToImportOne.class"));
+        Path classTwo = Files.copy(Paths.get(uriOf(ClassToImportTwo.class)), packageFolder.toPath().resolve("ClassToImportTwo.class"));
+        Set<Location> locations = singleton(Location.of(root.toPath()));
+        ImportSession session = new ImportSession();
+        JavaClasses previous = new ClassFileImporter().withImportSession(session).importLocations(locations);
+        List<ImportStatistics> reported = new ArrayList<>();
+
+        Files.setLastModifiedTime(classTwo, FileTime.fromMillis(Files.getLastModifiedTime(classTwo).toMillis() + 10_000));
+        JavaClasses reimported = new ClassFileImporter().withImportSession(session).withStatisticsListener(reported::add)
+                .reimportLocations(previous, locations);
+
+        assertThat(reimported).isNotSameAs(previous);
+        assertThatTypes(reimported).matchExactly(ClassToImportOne.class, ClassToImportTwo.class);
+        assertThat(getOnlyElement(reported).getNumberOfReusedClassFiles()).isEqualTo(1);
+        assertThat(getOnlyElement(reported).getBytesRead()).isEqualTo(Files.size(classTwo));
+    }
+
+    @Test
+    public void skips_class_files_with_the_same_content_as_an_earlier_class_file() throws Exception {
+        ArchConfiguration.get().setMd5InClassSourcesEnabled(true);
+        List<Location> locations = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            File root = temporaryFolder.newFolder();
+            File packageFolder = new File(root, ClassToImportOne.class.getPackage().getName().replace('.', File.separatorChar));
+            Files.createDirectories(packageFolder.toPath());
+            copyClassFile(ClassToImportOne.class, packageFolder);
+            locations.add(Location.of(root.toPath()));
+        }
+        List<ImportStatistics> reported = new ArrayList<>();
+
+        JavaClasses classes = new ClassFileImporter().withStatisticsListener(reported::add).importLocations(locations);
+
+        Source source = classes.get(ClassToImportOne.class).getSource().get();
+        assertThat(Paths.get(source.getUri()).startsWith(Paths.get(locations.get(0).asURI()))).as("imported from first location").isTrue();
+        assertThat(source.getMd5sum()).isEqualTo(md5sumOf(bytesAt(urlOf(ClassToImportOne.class))));
+        assertThat(getOnlyElement(reported).getNumberOfDuplicateClassFiles()).isEqualTo(1);
+    }
+
+    @Test
+    public void reimport_imports_again_without_import_session() throws Exception {
+        Set<Location> locations = Locations.ofClass(ClassToImportOne.class);
+
+        JavaClasses previous = new ClassFileImporter().importLocations(locations);
+        JavaClasses reimported = new ClassFileImporter().reimportLocations(previous, locations);
+
+        assertThat(reimported).isNotSameAs(previous);
+        assertThatTypes(reimported).matchExactly(ClassToImportOne.class);
+    }
+
     @Test
     public void ImportOptions_are_respected() throws Exception {
         ClassFileImporter importer = new ClassFileImporter().withImportOption(importOnly(getClass(), Rule.class));
@@ -905,10 +1147,18 @@ public class ClassFileImporterTest {
         assertThat(classes.get(clazz.getName())).hasSimpleName(clazz.getSimpleName());
     }
 
+    private Set<String> descriptionsOf(Set<? extends HasDescription> objects) {
+        return objects.stream().map(HasDescription::getDescription).collect(toSet());
+    }
+
     private void copyClassFile(Class<?> clazz, File targetFolder) throws IOException {
         Files.copy(Paths.get(uriOf(clazz)), new File(targetFolder, clazz.getSimpleName() + ".class").toPath());
     }
 
+    private static String classFileResource(Class<?> clazz) {
+        return String.format("/%s.class", clazz.getName().replace('.', '/'));
+    }
+
     private ImportOption importOnly(final Class<?>... classes) {
         return location -> stream(classes).anyMatch(c -> location.contains(urlOf(c).getFile()));
     }
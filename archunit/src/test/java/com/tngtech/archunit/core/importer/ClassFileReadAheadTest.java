@@ -0,0 +1,174 @@
+package com.tngtech.archunit.core.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClassFileReadAheadTest {
+
+    @Test
+    public void returns_locations_unchanged_if_disabled() {
+        List<ClassFileLocation> locations = locations(3);
+
+        assertThat(ClassFileReadAhead.disabled().readAhead(locations)).isSameAs(locations);
+        try (ImportExecutor executor = new ImportExecutor(4)) {
+            assertThat(ClassFileReadAhead.of(executor).readAhead(locations)).isSameAs(locations);
+        }
+    }
+
+    @Test
+    public void reads_content_of_locations_in_original_order() throws IOException {
+        List<ClassFileLocation> locations = locations(100);
+
+        List<String> contents = new ArrayList<>();
+        List<URI> uris = new ArrayList<>();
+        try (ImportExecutor executor = new ImportExecutor(1, 3)) {
+            ClassFileReadAhead readAhead = ClassFileReadAhead.of(executor);
+            for (ClassFileLocation location : readAhead.readAhead(locations)) {
+                uris.add(location.getUri());
+                contents.add(contentOf(location));
+            }
+        }
+
+        assertThat(uris).containsExactlyElementsOf(locations.stream().map(ClassFileLocation::getUri).collect(toList()));
+        for (int i = 0; i < locations.size(); i++) {
+            assertThat(contents.get(i)).isEqualTo("content" + i);
+        }
+    }
+
+    @Test
+    public void does_not_read_locations_whose_content_is_not_needed() throws IOException {
+        AtomicInteger openedStreams = new AtomicInteger();
+        List<ClassFileLocation> locations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int index = i;
+            locations.add(new ClassFileSource.InputStreamSupplierClassFileLocation(
+                    URI.create("file:/some/Class" + index + ".class"),
+                    () -> {
+                        openedStreams.incrementAndGet();
+                        return new ByteArrayInputStream(("content" + index).getBytes(UTF_8));
+                    }));
+        }
+        List<ClassFileLocation> locationsWithoutNeededContent = locations.subList(0, 5);
+
+        List<ClassFileLocation> result = new ArrayList<>();
+        try (ImportExecutor executor = new ImportExecutor(1, 2)) {
+            ClassFileReadAhead readAhead = ClassFileReadAhead.of(executor);
+            readAhead.readAhead(locations, location -> !locationsWithoutNeededContent.contains(location)).forEach(result::add);
+            for (ClassFileLocation location : result.subList(5, 10)) {
+                contentOf(location);
+            }
+        }
+
+        assertThat(result.subList(0, 5)).containsExactlyElementsOf(locationsWithoutNeededContent);
+        assertThat(openedStreams.get()).isEqualTo(5);
+    }
+
+    @Test
+    public void reads_a_bounded_number_of_class_files_ahead() {
+        AtomicInteger requestedLocations = new AtomicInteger();
+        Iterable<ClassFileLocation> locations = endlessLocations(requestedLocations);
+
+        try (ImportExecutor executor = new ImportExecutor(1, 2)) {
+            ClassFileReadAhead readAhead = ClassFileReadAhead.of(executor);
+            Iterator<ClassFileLocation> iterator = readAhead.readAhead(locations).iterator();
+            for (int i = 0; i < 10; i++) {
+                iterator.next();
+            }
+        }
+
+        assertThat(requestedLocations.get()).isEqualTo(2 * 16);
+    }
+
+    @Test
+    public void bounds_the_class_files_read_ahead_for_all_iterators_together() {
+        AtomicInteger requestedLocations = new AtomicInteger();
+        AtomicInteger requestedOtherLocations = new AtomicInteger();
+
+        try (ImportExecutor executor = new ImportExecutor(1, 1)) {
+            ClassFileReadAhead readAhead = ClassFileReadAhead.of(executor);
+            Iterator<ClassFileLocation> iterator = readAhead.readAhead(endlessLocations(requestedLocations)).iterator();
+            Iterator<ClassFileLocation> otherIterator = readAhead.readAhead(endlessLocations(requestedOtherLocations)).iterator();
+            iterator.next();
+            for (int i = 0; i < 10; i++) {
+                otherIterator.next();
+            }
+        }
+
+        assertThat(requestedLocations.get()).as("locations requested by first iterator").isEqualTo(16);
+        assertThat(requestedOtherLocations.get()).as("locations requested by other iterator").isEqualTo(10 + 1);
+    }
+
+    @Test
+    public void rethrows_failures_to_read_when_the_stream_is_opened() {
+        URI uri = URI.create("file:/broken/SomeClass.class");
+        ClassFileLocation brokenLocation = new ClassFileLocation() {
+            @Override
+            public InputStream openStream() {
+                throw new UncheckedIOException(new IOException("broken"));
+            }
+
+            @Override
+            public URI getUri() {
+                return uri;
+            }
+        };
+
+        try (ImportExecutor executor = new ImportExecutor(1, 1)) {
+            ClassFileReadAhead readAhead = ClassFileReadAhead.of(executor);
+            ClassFileLocation location = readAhead.readAhead(singletonList(brokenLocation)).iterator().next();
+
+            assertThat(location.getUri()).isEqualTo(uri);
+            assertThatThrownBy(location::openStream).hasRootCauseMessage("broken");
+        }
+    }
+
+    private static Iterable<ClassFileLocation> endlessLocations(AtomicInteger requestedLocations) {
+        return () -> new Iterator<ClassFileLocation>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ClassFileLocation next() {
+                return location(requestedLocations.getAndIncrement());
+            }
+        };
+    }
+
+    private static List<ClassFileLocation> locations(int number) {
+        List<ClassFileLocation> result = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            result.add(location(i));
+        }
+        return result;
+    }
+
+    private static ClassFileLocation location(int index) {
+        return new ClassFileSource.InputStreamSupplierClassFileLocation(
+                URI.create("file:/some/Class" + index + ".class"),
+                () -> new ByteArrayInputStream(("content" + index).getBytes(UTF_8)));
+    }
+
+    private static String contentOf(ClassFileLocation location) throws IOException {
+        try (InputStream in = location.openStream()) {
+            return new String(toByteArray(in), UTF_8);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.tngtech.archunit.core.importer;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -124,6 +125,37 @@ public class ImportOptionsTest {
                 .as("includes location %s", targetFile.getAbsolutePath()).isEqualTo(expectedInclude);
     }
 
+    @DataProvider
+    public static Object[][] do_not_include_tests_and_expected_folder_patterns() {
+        List<Object[]> folderInput = new ArrayList<>();
+        for (FolderPattern folderPattern : getFolderPatterns()) {
+            folderInput.add($(folderPattern.folders, folderPattern.isMainFolder));
+        }
+        return crossProduct(do_not_include_tests(), folderInput.toArray(new Object[0][]));
+    }
+
+    @Test
+    @UseDataProvider("do_not_include_tests_and_expected_folder_patterns")
+    public void excludes_whole_test_folders_upfront(ImportOption doNotIncludeTests, String[] folderName, boolean isMainFolder) throws IOException {
+        File folder = temporaryFolder.newFolder(folderName);
+
+        assertThat(new ImportOptions().with(doNotIncludeTests).excludeEverythingBeneath(Location.of(folder.toPath())))
+                .as("excludes everything beneath %s", folder.getAbsolutePath()).isEqualTo(!isMainFolder);
+    }
+
+    @Test
+    public void excludes_whole_archives_upfront() {
+        Location jarLocation = Location.of(URI.create(locationOf(Rule.class).asURI().toString().replaceAll("!/.*", "!/")));
+
+        assertThat(new ImportOptions().with(DO_NOT_INCLUDE_JARS).excludeEverythingBeneath(jarLocation)).isTrue();
+        assertThat(new ImportOptions().with(new DoNotIncludeArchives()).excludeEverythingBeneath(jarLocation)).isTrue();
+        assertThat(new ImportOptions().with(DO_NOT_INCLUDE_JARS).excludeEverythingBeneath(locationOf(getClass()))).isFalse();
+        assertThat(new ImportOptions().with(ONLY_INCLUDE_TESTS).excludeEverythingBeneath(jarLocation))
+                .as("options that can't tell upfront never exclude anything upfront").isFalse();
+        assertThat(new ImportOptions().with(location -> false).excludeEverythingBeneath(jarLocation))
+                .as("custom options never exclude anything upfront").isFalse();
+    }
+
     @DataProvider
     public static Object[][] do_not_include_jars() {
         return testForEach(new DoNotIncludeJars(), DO_NOT_INCLUDE_JARS);
@@ -379,6 +379,11 @@ public class ImportTestUtils {
             return Optional.empty();
         }
 
+        @Override
+        public Optional<Supplier<ImportContext>> createDeferredMembersContext(JavaClass owner) {
+            return Optional.empty();
+        }
+
         @Override
         public Map<String, JavaAnnotation<JavaClass>> createAnnotations(JavaClass owner) {
             return emptyMap();
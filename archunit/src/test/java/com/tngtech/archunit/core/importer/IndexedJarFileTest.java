@@ -0,0 +1,170 @@
+package com.tngtech.archunit.core.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import com.tngtech.archunit.core.importer.testexamples.simpleimport.ClassToImportOne;
+import com.tngtech.archunit.core.importer.testexamples.simpleimport.ClassToImportTwo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static com.tngtech.archunit.testutil.TestUtils.urlOf;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IndexedJarFileTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void reads_stored_and_deflated_entries() throws IOException {
+        File jarFile = temporaryFolder.newFile("test.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+            writeDeflated(out, entryNameOf(ClassToImportOne.class), bytesOf(ClassToImportOne.class));
+            writeStored(out, entryNameOf(ClassToImportTwo.class), bytesOf(ClassToImportTwo.class));
+        }
+
+        IndexedJarFile indexedJarFile = IndexedJarFile.tryOpen(jarUrlOf(jarFile)).get();
+
+        assertThat(indexedJarFile.getNames()).containsExactly(entryNameOf(ClassToImportOne.class), entryNameOf(ClassToImportTwo.class));
+        assertThat(read(indexedJarFile, 0)).isEqualTo(bytesOf(ClassToImportOne.class));
+        assertThat(read(indexedJarFile, 1)).isEqualTo(bytesOf(ClassToImportTwo.class));
+    }
+
+    @Test
+    public void reads_entries_by_name() throws IOException {
+        File jarFile = temporaryFolder.newFile("test.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+            writeDeflated(out, entryNameOf(ClassToImportOne.class), bytesOf(ClassToImportOne.class));
+            writeStored(out, entryNameOf(ClassToImportTwo.class), bytesOf(ClassToImportTwo.class));
+        }
+
+        IndexedJarFile indexedJarFile = IndexedJarFile.tryOpen(jarUrlOf(jarFile)).get();
+
+        try (InputStream in = indexedJarFile.openStream(entryNameOf(ClassToImportTwo.class))) {
+            assertThat(toByteArray(in)).isEqualTo(bytesOf(ClassToImportTwo.class));
+        }
+        assertThatThrownBy(() -> indexedJarFile.openStream("missing/Entry.class"))
+                .isInstanceOf(ZipException.class)
+                .hasMessageContaining("missing/Entry.class");
+    }
+
+    @Test
+    public void reads_changed_JAR_file_again() throws IOException {
+        File jarFile = temporaryFolder.newFile("test.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+            writeDeflated(out, entryNameOf(ClassToImportOne.class), bytesOf(ClassToImportOne.class));
+        }
+        assertThat(IndexedJarFile.tryOpen(jarUrlOf(jarFile)).get().getNames()).containsExactly(entryNameOf(ClassToImportOne.class));
+
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+            writeDeflated(out, entryNameOf(ClassToImportTwo.class), bytesOf(ClassToImportTwo.class));
+            writeDeflated(out, entryNameOf(ClassToImportOne.class), bytesOf(ClassToImportOne.class));
+        }
+
+        assertThat(IndexedJarFile.tryOpen(jarUrlOf(jarFile)).get().getNames())
+                .containsExactly(entryNameOf(ClassToImportTwo.class), entryNameOf(ClassToImportOne.class));
+    }
+
+    @Test
+    public void reads_stored_and_deflated_nested_JAR_files() throws IOException {
+        byte[] nestedJar = jarContaining(ClassToImportOne.class);
+        File jarFile = temporaryFolder.newFile("test.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+            writeStored(out, "lib/stored.jar", nestedJar);
+            writeDeflated(out, "lib/deflated.jar", nestedJar);
+        }
+
+        for (String nestedJarName : new String[]{"lib/stored.jar", "lib/deflated.jar"}) {
+            IndexedJarFile indexedJarFile = IndexedJarFile.tryOpen(new URL(jarUrlOf(jarFile) + nestedJarName + "!/")).get();
+
+            assertThat(indexedJarFile.getNames()).as("entries of " + nestedJarName).containsExactly(entryNameOf(ClassToImportOne.class));
+            assertThat(read(indexedJarFile, 0)).as("content of " + nestedJarName).isEqualTo(bytesOf(ClassToImportOne.class));
+        }
+        assertThat(IndexedJarFile.tryOpen(new URL(jarUrlOf(jarFile) + "lib/missing.jar!/"))).isEmpty();
+    }
+
+    @Test
+    public void fails_with_an_IOException_if_the_JAR_file_is_truncated_while_being_read() throws IOException {
+        File jarFile = temporaryFolder.newFile("test.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+            writeDeflated(out, entryNameOf(ClassToImportOne.class), bytesOf(ClassToImportOne.class));
+        }
+        IndexedJarFile indexedJarFile = IndexedJarFile.tryOpen(jarUrlOf(jarFile)).get();
+
+        try (RandomAccessFile file = new RandomAccessFile(jarFile, "rw")) {
+            file.setLength(40);
+        }
+
+        assertThatThrownBy(() -> indexedJarFile.openStream(0))
+                .isInstanceOf(EOFException.class)
+                .hasMessageContaining(jarFile.getName());
+    }
+
+    @Test
+    public void does_not_support_invalid_JAR_files() throws IOException {
+        File notAJar = temporaryFolder.newFile("not-a.jar");
+
+        assertThat(IndexedJarFile.tryOpen(jarUrlOf(notAJar))).isEmpty();
+        assertThat(IndexedJarFile.tryOpen(new URL(jarUrlOf(notAJar) + "nested.jar!/"))).isEmpty();
+        assertThat(IndexedJarFile.tryOpen(new File(temporaryFolder.getRoot(), "missing.jar"))).isEmpty();
+    }
+
+    private static byte[] jarContaining(Class<?> clazz) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (JarOutputStream out = new JarOutputStream(result)) {
+            writeDeflated(out, entryNameOf(clazz), bytesOf(clazz));
+        }
+        return result.toByteArray();
+    }
+
+    private static URL jarUrlOf(File jarFile) throws IOException {
+        return new URL("jar:" + jarFile.toURI() + "!/");
+    }
+
+    private static String entryNameOf(Class<?> clazz) {
+        return clazz.getName().replace('.', '/') + ".class";
+    }
+
+    private static byte[] bytesOf(Class<?> clazz) throws IOException {
+        try (InputStream in = urlOf(clazz).openStream()) {
+            return toByteArray(in);
+        }
+    }
+
+    private static byte[] read(IndexedJarFile jarFile, int index) throws IOException {
+        try (InputStream in = jarFile.openStream(index)) {
+            return toByteArray(in);
+        }
+    }
+
+    private static void writeDeflated(JarOutputStream out, String name, byte[] bytes) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(bytes);
+        out.closeEntry();
+    }
+
+    private static void writeStored(JarOutputStream out, String name, byte[] bytes) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        entry.setCrc(crc.getValue());
+        out.putNextEntry(entry);
+        out.write(bytes);
+        out.closeEntry();
+    }
+}
@@ -101,6 +101,24 @@ public class LocationTest {
                 .containsOnly(classFileEntry(getClass()));
     }
 
+    @Test
+    public void finds_entries_with_prefix() {
+        JarFile jarFile = jarFileContaining(ImmutableSet.of(
+                NormalizedResourceName.from("com/foo-bar/A.class"),
+                NormalizedResourceName.from("com/foo/B.class"),
+                NormalizedResourceName.from("com/foo/sub/C.class")));
+
+        Location location = Location.of(jarFile);
+
+        assertThat(location.containsEntryWithPrefix(NormalizedResourceName.from("com/foo"))).isTrue();
+        assertThat(location.containsEntryWithPrefix(NormalizedResourceName.from("com/foo/sub"))).isTrue();
+        assertThat(location.containsEntryWithPrefix(NormalizedResourceName.from("com/foo-bar"))).isTrue();
+        assertThat(location.containsEntryWithPrefix(NormalizedResourceName.from("com/foo/B.class"))).isTrue();
+        assertThat(location.containsEntryWithPrefix(NormalizedResourceName.from("com/fo"))).isFalse();
+        assertThat(location.containsEntryWithPrefix(NormalizedResourceName.from("com/foox"))).isFalse();
+        assertThat(location.containsEntryWithPrefix(NormalizedResourceName.from("com/foo/sub/other"))).isFalse();
+    }
+
     @Test
     public void iterate_entries_of_non_existing_jar_url() {
         File nonExistingJar = new File(createNonExistingFolder(), "not-there.jar");
@@ -0,0 +1,44 @@
+package com.tngtech.archunit.core.importer;
+
+import com.tngtech.archunit.core.domain.JavaClassDescriptor;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NameTableTest {
+    private final NameTable names = new NameTable();
+
+    @Test
+    public void returns_the_same_instance_for_equal_strings() {
+        String first = names.intern(new String("toString"));
+        String second = names.intern(new String("toString"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(names.intern(null)).isNull();
+    }
+
+    @Test
+    public void converts_ASM_object_type_names_to_canonical_class_names() {
+        JavaClassDescriptor descriptor = names.descriptorOf(new String("java/lang/String"));
+
+        assertThat(descriptor).isSameAs(JavaClassDescriptor.From.name(String.class.getName()));
+        assertThat(names.descriptorOf(new String("java/lang/String"))).isSameAs(descriptor);
+        assertThat(names.typeNameOf(new String("java/lang/String"))).isSameAs(descriptor.getFullyQualifiedClassName());
+        assertThat(names.intern(new String(String.class.getName()))).isSameAs(descriptor.getFullyQualifiedClassName());
+    }
+
+    @Test
+    public void returns_the_interned_class_name_for_ASM_object_type_names_interned_before() {
+        String name = names.intern(new String("com.example.InternedBefore"));
+
+        assertThat(names.typeNameOf(new String("com/example/InternedBefore"))).isSameAs(name);
+        assertThat(names.descriptorOf(new String("com/example/InternedBefore")).getFullyQualifiedClassName()).isEqualTo(name);
+    }
+
+    @Test
+    public void shares_canonical_instances_between_tables() {
+        String name = names.intern(new String("someNameOfConcurrentImports"));
+
+        assertThat(new NameTable().intern(new String("someNameOfConcurrentImports"))).isSameAs(name);
+    }
+}
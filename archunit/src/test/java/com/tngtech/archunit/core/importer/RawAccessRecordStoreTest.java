@@ -0,0 +1,140 @@
+package com.tngtech.archunit.core.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.tngtech.archunit.core.domain.JavaClassDescriptor;
+import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
+import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
+import org.junit.Test;
+
+import static com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType.GET;
+import static com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType.SET;
+import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RawAccessRecordStoreTest {
+    private final CodeUnit caller = new CodeUnit("caller", "()V", "com.example.Caller");
+
+    @Test
+    public void stores_accesses_and_interns_callers_and_targets() {
+        RawAccessRecordStore.ForAccesses store = RawAccessRecordStore.forAccesses(ImportMemoryBudget.unlimited());
+        for (int i = 0; i < 100; i++) {
+            store.add(new CodeUnit("caller", "()V", "com.example.Caller"), targetInfo("target" + i % 2), i);
+        }
+
+        List<RawAccessRecord> records = store.stream().collect(toList());
+
+        assertThat(records).hasSize(100);
+        for (int i = 0; i < records.size(); i++) {
+            assertThat(records.get(i).caller).isEqualTo(caller).isSameAs(records.get(0).caller);
+            assertThat(records.get(i).target).isEqualTo(targetInfo("target" + i % 2)).isSameAs(records.get(i % 2).target);
+            assertThat(records.get(i).lineNumber).isEqualTo(i);
+            assertThat(records.get(i).declaredInLambda).isFalse();
+        }
+    }
+
+    @Test
+    public void stores_field_access_types() {
+        RawAccessRecordStore.ForFieldAccesses store = RawAccessRecordStore.forFieldAccesses(ImportMemoryBudget.unlimited());
+        store.add(caller, targetInfo("field"), 1, GET);
+        store.add(caller, targetInfo("field"), 2, SET);
+
+        assertThat(store.stream().map(record -> record.accessType)).containsExactly(GET, SET);
+    }
+
+    @Test
+    public void ids_of_accesses_stay_valid_after_merging_stores() {
+        RawAccessRecordStore.ForAccesses store = RawAccessRecordStore.forAccesses(ImportMemoryBudget.unlimited());
+        RawAccessRecordStore.ForAccesses other = RawAccessRecordStore.forAccesses(ImportMemoryBudget.unlimited());
+        long firstId = store.add(caller, targetInfo("first"), 1);
+        long secondId = other.add(caller, targetInfo("second"), 2);
+
+        store.addAll(other);
+
+        assertThat(store.stream().map(record -> record.id)).containsExactly(firstId, secondId).doesNotContain(RawAccessRecord.NO_ID);
+        assertThat(store.stream().map(record -> record.target.name)).containsExactly("first", "second");
+    }
+
+    @Test
+    public void spills_accesses_exceeding_the_memory_budget_and_streams_them_back() {
+        ImportMemoryBudget noBudget = ImportMemoryBudget.ofBytes(0);
+        RawAccessRecordStore.ForFieldAccesses store = RawAccessRecordStore.forFieldAccesses(noBudget);
+        RawAccessRecordStore.ForFieldAccesses other = RawAccessRecordStore.forFieldAccesses(noBudget);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(store.add(caller, targetInfo("field" + i % 3), i, i % 2 == 0 ? GET : SET));
+        }
+        ids.add(other.add(caller, targetInfo("other"), 1000, SET));
+
+        store.addAll(other);
+
+        List<RawAccessRecord.ForField> records;
+        try (Stream<RawAccessRecord.ForField> stream = store.stream()) {
+            records = stream.collect(toList());
+        }
+        assertThat(records).hasSize(1001);
+        assertThat(records.stream().map(record -> record.id)).containsExactlyElementsOf(ids);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(records.get(i).target).isEqualTo(targetInfo("field" + i % 3));
+            assertThat(records.get(i).lineNumber).isEqualTo(i);
+            assertThat(records.get(i).accessType).isEqualTo(i % 2 == 0 ? GET : SET);
+        }
+        assertThat(records.get(1000).target.name).isEqualTo("other");
+    }
+
+    @Test
+    public void skips_accesses_from_within_skipped_classes_in_memory_and_spilled() {
+        CodeUnit skippedCaller = new CodeUnit("caller", "()V", "com.example.Skipped");
+        RawAccessRecordStore.ForAccesses store = RawAccessRecordStore.forAccesses(ImportMemoryBudget.ofBytes(0));
+        List<Long> idsOfRemainingAccesses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            store.add(skippedCaller, targetInfo("target"), i);
+            idsOfRemainingAccesses.add(store.add(caller, targetInfo("target"), i));
+        }
+
+        store.skipCallersDeclaredIn(singleton("com.example.Skipped"));
+
+        List<RawAccessRecord> records;
+        try (Stream<RawAccessRecord> stream = store.stream()) {
+            records = stream.collect(toList());
+        }
+        assertThat(records.stream().map(record -> record.id)).containsExactlyElementsOf(idsOfRemainingAccesses);
+        assertThat(records.stream().map(record -> record.caller)).containsOnly(caller);
+    }
+
+    @Test
+    public void streams_spilled_accesses_only_once() {
+        RawAccessRecordStore.ForAccesses store = RawAccessRecordStore.forAccesses(ImportMemoryBudget.ofBytes(0));
+        for (int i = 0; i < 100; i++) {
+            store.add(caller, targetInfo("target"), i);
+        }
+        store.stream().close();
+
+        assertThatThrownBy(store::stream)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already been streamed");
+    }
+
+    @Test
+    public void releases_the_memory_budget_and_spilled_accesses_when_discarded() {
+        ImportMemoryBudget budget = ImportMemoryBudget.ofBytes(1024);
+        RawAccessRecordStore.ForAccesses store = RawAccessRecordStore.forAccesses(budget);
+        for (int i = 0; i < 1000; i++) {
+            store.add(caller, targetInfo("target"), i);
+        }
+        assertThat(budget.tryAllocate(1024)).as("budget available before discarding").isFalse();
+
+        store.discard();
+
+        assertThat(budget.tryAllocate(1024)).as("budget available after discarding").isTrue();
+        assertThat(store.stream()).isEmpty();
+    }
+
+    private static TargetInfo targetInfo(String name) {
+        return new TargetInfo(JavaClassDescriptor.From.name("com.example.Target"), name, "()V");
+    }
+}
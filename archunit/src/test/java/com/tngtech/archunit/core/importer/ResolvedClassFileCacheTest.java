@@ -0,0 +1,48 @@
+package com.tngtech.archunit.core.importer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResolvedClassFileCacheTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void reads_class_file_of_rebuilt_JAR_file_again() throws IOException {
+        File jarFile = temporaryFolder.newFile("test.jar");
+        URI classFileUri = URI.create("jar:" + jarFile.toURI() + "!/com/example/Foo.class");
+
+        writeJar(jarFile, "original");
+        assertThat(read(classFileUri)).isEqualTo("original");
+
+        writeJar(jarFile, "rebuilt with different size");
+        assertThat(read(classFileUri)).isEqualTo("rebuilt with different size");
+    }
+
+    private static void writeJar(File jarFile, String classFileContent) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+            out.putNextEntry(new ZipEntry("com/example/Foo.class"));
+            out.write(classFileContent.getBytes(UTF_8));
+            out.closeEntry();
+        }
+    }
+
+    private static String read(URI uri) throws IOException {
+        try (InputStream in = ResolvedClassFileCache.openStream(uri)) {
+            return new String(toByteArray(in), UTF_8);
+        }
+    }
+}
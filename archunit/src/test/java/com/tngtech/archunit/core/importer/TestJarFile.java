@@ -1,14 +1,19 @@
 package com.tngtech.archunit.core.importer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 
 import com.tngtech.archunit.testutil.TestUtils;
@@ -20,6 +25,7 @@ import static java.util.jar.Attributes.Name.MANIFEST_VERSION;
 class TestJarFile {
     private final Manifest manifest;
     private final Set<String> entries = new HashSet<>();
+    private final Map<String, TestJarFile> nestedJars = new HashMap<>();
 
     TestJarFile() {
         manifest = new Manifest();
@@ -36,6 +42,14 @@ class TestJarFile {
         return this;
     }
 
+    /**
+     * Adds a JAR file stored uncompressed within this JAR file, like the libraries within a Spring Boot fat JAR
+     */
+    TestJarFile withNestedJar(String entry, TestJarFile nestedJar) {
+        nestedJars.put(entry, nestedJar);
+        return this;
+    }
+
     JarFile create() {
         File folder = TestUtils.newTemporaryFolder();
         return create(new File(folder, "test.jar"));
@@ -54,16 +68,31 @@ class TestJarFile {
     }
 
     JarFile create(File jarFile) {
-        try (JarOutputStream jarOut = new JarOutputStream(newOutputStream(jarFile.toPath()), manifest)) {
-            for (String entry : entries) {
-                write(jarOut, entry);
-            }
+        try (OutputStream out = newOutputStream(jarFile.toPath())) {
+            writeTo(out);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
         return newJarFile(jarFile);
     }
 
+    private void writeTo(OutputStream out) throws IOException {
+        try (JarOutputStream jarOut = new JarOutputStream(out, manifest)) {
+            for (String entry : entries) {
+                write(jarOut, entry);
+            }
+            for (Map.Entry<String, TestJarFile> nestedJar : nestedJars.entrySet()) {
+                writeStored(jarOut, nestedJar.getKey(), nestedJar.getValue().toByteArray());
+            }
+        }
+    }
+
+    private byte[] toByteArray() throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        writeTo(result);
+        return result.toByteArray();
+    }
+
     String createAndReturnName(File jarFile) {
         return createAndReturnName(() -> create(jarFile));
     }
@@ -76,6 +105,18 @@ class TestJarFile {
         jarOut.closeEntry();
     }
 
+    private void writeStored(JarOutputStream jarOut, String entry, byte[] bytes) throws IOException {
+        ZipEntry zipEntry = new ZipEntry(entry);
+        zipEntry.setMethod(ZipEntry.STORED);
+        zipEntry.setSize(bytes.length);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        zipEntry.setCrc(crc.getValue());
+        jarOut.putNextEntry(zipEntry);
+        jarOut.write(bytes);
+        jarOut.closeEntry();
+    }
+
     private JarFile newJarFile(File file) {
         try {
             return new JarFile(file);
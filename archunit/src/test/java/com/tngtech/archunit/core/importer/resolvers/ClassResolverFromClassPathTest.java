@@ -27,6 +27,8 @@ import static com.tngtech.java.junit.dataprovider.DataProviders.$;
 import static com.tngtech.java.junit.dataprovider.DataProviders.$$;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -92,6 +94,33 @@ public class ClassResolverFromClassPathTest {
         assertThat(resolvedClass).contains(expectedJavaClass);
     }
 
+    @Test
+    public void caches_URIs_of_classes_within_archives_per_ClassLoader() throws Exception {
+        URL urlWithinArchive = new URL("jar:file:/some/archive.jar!/some/TypeWithinArchive.class");
+        URL urlWithinFolder = new URL("file:/some/folder/some/TypeWithinFolder.class");
+
+        withMockedContextClassLoader(classLoaderMock -> {
+            when(classLoaderMock.getResource("some/TypeWithinArchive.class")).thenReturn(urlWithinArchive);
+            when(classLoaderMock.getResource("some/TypeWithinFolder.class")).thenReturn(urlWithinFolder);
+
+            for (int i = 0; i < 2; i++) {
+                resolver.tryResolve("some.TypeWithinArchive");
+                resolver.tryResolve("some.TypeWithinFolder");
+            }
+
+            verify(classLoaderMock, times(1)).getResource("some/TypeWithinArchive.class");
+            verify(classLoaderMock, times(2)).getResource("some/TypeWithinFolder.class");
+            return null;
+        });
+
+        withMockedContextClassLoader(otherClassLoaderMock -> {
+            resolver.tryResolve("some.TypeWithinArchive");
+
+            verify(otherClassLoaderMock).getResource("some/TypeWithinArchive.class");
+            return null;
+        });
+    }
+
     private <T> T withMockedContextClassLoader(Function<ClassLoader, T> doWithClassLoader) {
         ClassLoader classLoaderMock = mock(ClassLoader.class);
         ClassLoader originalContextClassLoader = Thread.currentThread().getContextClassLoader();